@@ -0,0 +1,147 @@
+package com.example.coworking.benchmarks;
+
+import com.example.coworking.rest.reservation.ConfirmedReservationIndex;
+import com.example.coworking.rest.reservation.ReservationRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "How many confirmed bookings of this room overlap [start, end)": the in-memory
+ * {@link ConfirmedReservationIndex} against the {@link ReservationRepository#countOverlaps} JPQL query
+ * it short-cuts, over 100k reservations. Each operation asks about the next of a fixed set of random
+ * one- to three-hour windows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfirmedIndexBenchmark {
+    private static final List<String> CONFIRMED = Collections.singletonList("CONFIRMED");
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2026, 1, 5, 0, 0);
+    private static final int DAYS = 365;
+    private static final int WINDOWS = 1024;
+
+    @Param({""})
+    String jdbcUrl;
+
+    @Param({"root"})
+    String user;
+
+    @Param({""})
+    String password;
+
+    @Param({"100000"})
+    int reservations;
+
+    @Param({"200"})
+    int rooms;
+
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean emf;
+    private EntityManager entityManager;
+    private ReservationRepository repository;
+    private ConfirmedReservationIndex index;
+
+    private final long[] roomIds = new long[WINDOWS];
+    private final LocalDateTime[] starts = new LocalDateTime[WINDOWS];
+    private final LocalDateTime[] ends = new LocalDateTime[WINDOWS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = Databases.open(jdbcUrl, user, password);
+        boolean seed = Databases.inMemory(jdbcUrl);
+
+        emf = new LocalContainerEntityManagerFactoryBean();
+        emf.setDataSource(dataSource);
+        emf.setPackagesToScan("com.example.coworking.rest.reservation", "com.example.coworking.rest.room");
+        emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties jpa = new Properties();
+        jpa.setProperty("hibernate.hbm2ddl.auto", seed ? "create" : "none");
+        emf.setJpaProperties(jpa);
+        emf.afterPropertiesSet();
+        entityManager = emf.getObject().createEntityManager();
+        repository = new JpaRepositoryFactory(entityManager).getRepository(ReservationRepository.class);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Random random = new Random(42);
+        if (seed) seed(jdbc, random);
+        List<Long> ids = jdbc.queryForList("SELECT id FROM salles ORDER BY id", Long.class);
+        for (int i = 0; i < WINDOWS; i++) {
+            roomIds[i] = ids.get(random.nextInt(ids.size()));
+            starts[i] = FIRST_DAY.plusDays(random.nextInt(DAYS)).plusHours(8 + random.nextInt(10));
+            ends[i] = starts[i].plusHours(1 + random.nextInt(3));
+        }
+
+        index = new ConfirmedReservationIndex(jdbc);
+        index.load();
+    }
+
+    // Rooms and reservations spread over a year of working hours; about 70% of them CONFIRMED
+    private void seed(JdbcTemplate jdbc, Random random) {
+        for (long id = 1; id <= rooms; id++) {
+            jdbc.update("INSERT INTO salles (id, nom, capacite, location, available) VALUES (?,?,?,?,TRUE)",
+                    id, "Salle " + id, 4 + id % 12, "City " + id % 3);
+        }
+        String[] statuses = {"CONFIRMED", "CONFIRMED", "CONFIRMED", "CONFIRMED", "CONFIRMED", "CONFIRMED", "CONFIRMED",
+                "PENDING", "CANCELLED", "CANCELLED"};
+        List<Object[]> rows = new ArrayList<>(1000);
+        for (int i = 0; i < reservations; i++) {
+            LocalDateTime start = FIRST_DAY.plusDays(random.nextInt(DAYS)).plusHours(8 + random.nextInt(10));
+            rows.add(new Object[]{"user" + i % 500 + "@example.com", Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(1 + random.nextInt(3))), statuses[random.nextInt(statuses.length)],
+                    1 + random.nextInt(rooms)});
+            if (rows.size() == 1000 || i == reservations - 1) {
+                jdbc.batchUpdate("INSERT INTO reservations (client, start_at, end_at, status, salle_id) VALUES (?,?,?,?,?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        emf.destroy();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public long index() {
+        int i = next++ & (WINDOWS - 1);
+        return index.countOverlaps(roomIds[i], starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public long jpql() {
+        int i = next++ & (WINDOWS - 1);
+        return repository.countOverlaps(roomIds[i], starts[i], ends[i], CONFIRMED);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.coworking.benchmarks;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Connection pools for the database benchmarks. With no URL they run on a private in-memory H2
+ * database in MySQL mode, created and seeded by the benchmark; with -p jdbcUrl=jdbc:mysql://... they
+ * run against that database as it is (already migrated and seeded by the services).
+ */
+final class Databases {
+    private Databases() {}
+
+    static boolean inMemory(String jdbcUrl) {
+        return jdbcUrl == null || jdbcUrl.isEmpty();
+    }
+
+    static HikariDataSource open(String jdbcUrl, String user, String password) {
+        HikariConfig config = new HikariConfig();
+        if (inMemory(jdbcUrl)) {
+            config.setJdbcUrl("jdbc:h2:mem:bench-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        } else {
+            config.setJdbcUrl(jdbcUrl);
+            config.setUsername(user);
+            config.setPassword(password);
+        }
+        config.setMaximumPoolSize(8);
+        return new HikariDataSource(config);
+    }
+
+    /** The room tables as the migrations leave them. */
+    static void createRoomTables(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE TABLE salles (id BIGINT PRIMARY KEY AUTO_INCREMENT, nom VARCHAR(255) NOT NULL, " +
+                "capacite INT NOT NULL, location VARCHAR(80), image_url VARCHAR(512), available TINYINT(1) NOT NULL DEFAULT 1, " +
+                "price_per_hour DECIMAL(10,2), open_time TIME, close_time TIME, slot_minutes INT)");
+        jdbc.execute("CREATE TABLE room_amenities (room_id BIGINT NOT NULL, name VARCHAR(60) NOT NULL, " +
+                "PRIMARY KEY (room_id, name))");
+    }
+
+    static void seedRooms(JdbcTemplate jdbc, int rooms) {
+        String[] amenities = {"WiFi", "Projector", "Whiteboard", "Coffee", "Video conference"};
+        for (long id = 1; id <= rooms; id++) {
+            jdbc.update("INSERT INTO salles (id, nom, capacite, location, image_url, available) VALUES (?,?,?,?,?,1)",
+                    id, "Salle " + id, 4 + id % 12, "City " + id % 3, "https://images.example.com/rooms/" + id + ".jpg");
+            for (int k = 0; k < 3; k++) {
+                jdbc.update("INSERT INTO room_amenities (room_id, name) VALUES (?,?)", id, amenities[(int) (id + k) % amenities.length]);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.coworking.benchmarks;
+
+import com.example.coworking.rest.user.PasswordHasher;
+import com.example.coworking.rest.user.PasswordHashingBusyException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of a login storm against a simulated request thread pool (Tomcat's 200 workers by default):
+ * closed-loop clients log in as fast as they are answered while other requests arrive at a fixed rate.
+ * Runs twice: with BCrypt on the request threads, as logins used to work, and offloaded to the bounded
+ * {@link PasswordHasher} pool with its 503 answer (the clients then wait out Retry-After: 1).
+ * Prints login throughput, the number of 503s and the latency of the other requests, queueing included.
+ *
+ * <pre>java -cp Backend/benchmarks/target/benchmarks.jar com.example.coworking.benchmarks.LoginStorm [clients] [seconds] [workers]</pre>
+ */
+public final class LoginStorm {
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final int BCRYPT_COST = 10;          // auth.bcrypt.cost
+    private static final int HASHING_QUEUE = 64;        // auth.hashing.queue-size
+    private static final long RETRY_AFTER_MS = 1000;    // Retry-After of the 503
+    private static final long OTHER_EVERY_MICROS = 2000; // 500 other requests per second
+    private static final long OTHER_WORK_MICROS = 100;
+
+    private LoginStorm() {}
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        PasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_COST);
+        String hash = encoder.encode(PASSWORD);
+        for (int i = 0; i < 20; i++) encoder.matches(PASSWORD, hash); // warm-up
+
+        System.out.printf("%d login clients, %d request threads, %d s per run, %d cores%n",
+                clients, workers, seconds, Runtime.getRuntime().availableProcessors());
+        for (boolean offloaded : new boolean[]{false, true}) {
+            System.out.println(run(offloaded, encoder, hash, clients, seconds, workers));
+        }
+    }
+
+    private static String run(boolean offloaded, PasswordEncoder encoder, String hash, int clients, int seconds,
+                              int workers) throws Exception {
+        // Tomcat queues connections beyond its worker threads; so does this pool
+        ThreadPoolExecutor requestThreads = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        PasswordHasher hasher = new PasswordHasher(encoder, 0, HASHING_QUEUE);
+        ExecutorService loginClients = Executors.newFixedThreadPool(clients);
+        ScheduledExecutorService otherClients = Executors.newSingleThreadScheduledExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong logins = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        ConcurrentLinkedQueue<Long> otherLatencies = new ConcurrentLinkedQueue<>();
+
+        long started = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            loginClients.execute(() -> {
+                while (running.get()) {
+                    CompletableFuture<Boolean> answered = new CompletableFuture<>();
+                    requestThreads.execute(() -> login(offloaded, encoder, hasher, hash, answered));
+                    boolean ok = answered.join();
+                    if (ok) {
+                        logins.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                        sleep(RETRY_AFTER_MS);
+                    }
+                }
+            });
+        }
+        otherClients.scheduleAtFixedRate(() -> {
+            long sent = System.nanoTime();
+            requestThreads.execute(() -> {
+                spin(OTHER_WORK_MICROS);
+                otherLatencies.add(System.nanoTime() - sent);
+            });
+        }, 0, OTHER_EVERY_MICROS, TimeUnit.MICROSECONDS);
+
+        sleep(seconds * 1000L);
+        running.set(false);
+        otherClients.shutdown();
+        loginClients.shutdown();
+        loginClients.awaitTermination(1, TimeUnit.MINUTES);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        requestThreads.shutdown();
+        requestThreads.awaitTermination(1, TimeUnit.MINUTES);
+        hasher.shutdown();
+
+        List<Long> latencies = new ArrayList<>(otherLatencies);
+        Collections.sort(latencies);
+        return String.format("%-9s logins %6d (%5.0f/s), 503s %6d, other requests p50 %7.2f ms, p99 %8.2f ms (%d)",
+                offloaded ? "offloaded" : "inline", logins.get(), logins.get() / elapsed, rejected.get(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies.size());
+    }
+
+    // The request thread's part of POST /api/auth/login: hash inline, or hand off and return at once
+    private static void login(boolean offloaded, PasswordEncoder encoder, PasswordHasher hasher, String hash,
+                              CompletableFuture<Boolean> answered) {
+        if (!offloaded) {
+            encoder.matches(PASSWORD, hash);
+            answered.complete(true);
+            return;
+        }
+        try {
+            hasher.verify(PASSWORD, hash).whenComplete((v, ex) -> answered.complete(ex == null));
+        } catch (PasswordHashingBusyException ex) {
+            answered.complete(false);
+        }
+    }
+
+    private static double percentile(List<Long> sortedNanos, double p) {
+        if (sortedNanos.isEmpty()) return 0;
+        int i = (int) Math.min(sortedNanos.size() - 1, Math.ceil(p * sortedNanos.size()) - 1);
+        return sortedNanos.get(Math.max(0, i)) / 1e6;
+    }
+
+    private static void spin(long micros) {
+        long until = System.nanoTime() + micros * 1000;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
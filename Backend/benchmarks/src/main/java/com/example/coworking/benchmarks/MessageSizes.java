@@ -0,0 +1,19 @@
+package com.example.coworking.benchmarks;
+
+/**
+ * Prints bytes per message for the compact DTO encoding and default serialization of the same values.
+ *
+ * <pre>java -cp Backend/benchmarks/target/benchmarks.jar com.example.coworking.benchmarks.MessageSizes</pre>
+ */
+public final class MessageSizes {
+    private MessageSizes() {}
+
+    public static void main(String[] args) {
+        for (int size : new int[] {1, 50, 500}) {
+            System.out.printf("catalog, %d rooms: %s%n", size,
+                    Messages.describe(Messages.encode(Messages.catalog(size)), Messages.encode(Messages.legacyCatalog(size))));
+            System.out.printf("booking batch, %d commands: %s%n", size,
+                    Messages.describe(Messages.encode(Messages.commands(size)), Messages.encode(Messages.legacyCommands(size))));
+        }
+    }
+}
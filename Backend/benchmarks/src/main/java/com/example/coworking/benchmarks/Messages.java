@@ -0,0 +1,139 @@
+package com.example.coworking.benchmarks;
+
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.SalleDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representative RMI payloads, in the compact Externalizable form of the shared DTOs and in the
+ * default-serialization form they had before, with the same field values.
+ */
+final class Messages {
+    private static final String[] LOCATIONS = {"Agadir Centre", "Agadir Marina", "Inezgane"};
+    private static final String[] AMENITIES = {"WiFi", "Projector", "Whiteboard", "Coffee", "Video conference", "Air conditioning"};
+
+    private Messages() {}
+
+    /** A catalog message: rooms spread over a few locations, with a handful of amenities each. */
+    static ArrayList<SalleDTO> catalog(int rooms) {
+        ArrayList<SalleDTO> list = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            list.add(new SalleDTO((long) i + 1, "Salle " + (i + 1), LOCATIONS[i % LOCATIONS.length], 4 + i % 20,
+                    amenities(i), "https://images.example.com/rooms/" + (i + 1) + ".jpg", i % 7 != 0));
+        }
+        return list;
+    }
+
+    static ArrayList<LegacySalle> legacyCatalog(int rooms) {
+        ArrayList<LegacySalle> list = new ArrayList<>(rooms);
+        for (SalleDTO s : catalog(rooms)) list.add(new LegacySalle(s));
+        return list;
+    }
+
+    /** A batch booking message: hour-long slots across a week. */
+    static ArrayList<CreateReservationCommand> commands(int count) {
+        ArrayList<CreateReservationCommand> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int hour = 8 + i % 10;
+            CreateReservationCommand c = new CreateReservationCommand((long) (i % 40) + 1, "user" + i % 5 + "@example.com",
+                    "2026-11-" + String.format("%02d", 2 + i % 7), String.format("%02d:00", hour), String.format("%02d:00", hour + 1));
+            c.setUserId((long) i % 5 + 1);
+            list.add(c);
+        }
+        return list;
+    }
+
+    static ArrayList<LegacyCommand> legacyCommands(int count) {
+        ArrayList<LegacyCommand> list = new ArrayList<>(count);
+        for (CreateReservationCommand c : commands(count)) list.add(new LegacyCommand(c));
+        return list;
+    }
+
+    private static List<String> amenities(int i) {
+        int n = 2 + i % 4;
+        List<String> list = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) list.add(AMENITIES[(i + k) % AMENITIES.length]);
+        return list;
+    }
+
+    /** The bytes an object stream writes for one message, as RMI marshals an argument or return value. */
+    static byte[] encode(Object message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Object decode(byte[] message) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(message))) {
+            return in.readObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** SalleDTO as it was serialized before the compact format: default field serialization. */
+    static final class LegacySalle implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        Long id;
+        String name;
+        String location;
+        int capacity;
+        List<String> amenities;
+        String imageUrl;
+        boolean available;
+
+        LegacySalle(SalleDTO s) {
+            id = s.getId();
+            name = s.getName();
+            // Fresh copies: before the compact format, strings read from JPA were distinct instances
+            location = new String(s.getLocation());
+            capacity = s.getCapacity();
+            amenities = new ArrayList<>();
+            for (String a : s.getAmenities()) amenities.add(new String(a));
+            imageUrl = s.getImageUrl();
+            available = s.isAvailable();
+        }
+    }
+
+    /** CreateReservationCommand as it was serialized before the compact format. */
+    static final class LegacyCommand implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        Long salleId;
+        String client;
+        Long userId;
+        String date;
+        String startTime;
+        String endTime;
+
+        LegacyCommand(CreateReservationCommand c) {
+            salleId = c.getSalleId();
+            client = c.getClient();
+            userId = c.getUserId();
+            date = c.getDate();
+            startTime = c.getStartTime();
+            endTime = c.getEndTime();
+        }
+    }
+
+    static String describe(byte[] compact, byte[] legacy) {
+        return String.format("%,d bytes compact vs %,d bytes default (%.0f%%)", compact.length, legacy.length,
+                100.0 * compact.length / legacy.length);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.coworking.benchmarks;
+
+import com.example.coworking.rest.controller.RoomsController;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the GET /api/rooms handler as it is (two set-based reads) against the same handler
+ * preceded by the schema statements every room request used to send before the startup migrations
+ * (one CREATE TABLE IF NOT EXISTS pair and four ALTER TABLE ... ADD COLUMN, each failing and ignored).
+ *
+ * Against MySQL (-p jdbcUrl=...) the old statements are all no-ops on a migrated schema, but each
+ * still takes the table's metadata lock, which is what made them expensive under load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomsBenchmark {
+
+    @Param({""})
+    String jdbcUrl;
+
+    @Param({"root"})
+    String user;
+
+    @Param({""})
+    String password;
+
+    @Param({"50"})
+    int rooms;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private RoomsController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = Databases.open(jdbcUrl, user, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (Databases.inMemory(jdbcUrl)) {
+            Databases.createRoomTables(jdbcTemplate);
+            Databases.seedRooms(jdbcTemplate, rooms);
+        }
+        // getAll only reads through the JdbcTemplate
+        controller = new RoomsController(jdbcTemplate, null, null, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<RoomsController.RoomDTO> getAll() {
+        return controller.getAll();
+    }
+
+    @Benchmark
+    public List<RoomsController.RoomDTO> getAllWithPerRequestDdl() {
+        perRequestDdl();
+        return controller.getAll();
+    }
+
+    // RoomsController.ensureSchema() before the versioned migrations, verbatim
+    private void perRequestDdl() {
+        try {
+            jdbcTemplate.execute(
+                    "CREATE TABLE IF NOT EXISTS salles (" +
+                            "id BIGINT PRIMARY KEY AUTO_INCREMENT," +
+                            "nom VARCHAR(255) NOT NULL," +
+                            "capacite INT NOT NULL" +
+                            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
+            );
+        } catch (Exception ignored) {}
+        try {
+            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN location VARCHAR(80)");
+        } catch (Exception ignored) {}
+        try {
+            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN image_url VARCHAR(512)");
+        } catch (Exception ignored) {}
+        try {
+            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN available TINYINT(1) NOT NULL DEFAULT 1");
+        } catch (Exception ignored) {}
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS room_amenities (" +
+                    "room_id BIGINT NOT NULL, " +
+                    "name VARCHAR(60) NOT NULL, " +
+                    "PRIMARY KEY (room_id, name), " +
+                    "CONSTRAINT fk_room_amenities_room FOREIGN KEY (room_id) REFERENCES salles(id) ON DELETE CASCADE" +
+                    ")");
+        } catch (Exception ignored) {}
+        try {
+            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN price_per_hour DECIMAL(10,2) NULL");
+        } catch (Exception ignored) {}
+    }
+}
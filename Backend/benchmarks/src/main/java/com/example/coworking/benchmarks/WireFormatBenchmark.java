@@ -0,0 +1,96 @@
+package com.example.coworking.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the compact DTO encoding against default serialization of the same
+ * values, for a catalog message and a batch booking message. Message sizes are printed by
+ * {@link MessageSizes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"50", "500"})
+    int size;
+
+    ArrayList<?> catalog;
+    ArrayList<?> legacyCatalog;
+    ArrayList<?> commands;
+    ArrayList<?> legacyCommands;
+
+    byte[] catalogBytes;
+    byte[] legacyCatalogBytes;
+    byte[] commandBytes;
+    byte[] legacyCommandBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = Messages.catalog(size);
+        legacyCatalog = Messages.legacyCatalog(size);
+        commands = Messages.commands(size);
+        legacyCommands = Messages.legacyCommands(size);
+        catalogBytes = Messages.encode(catalog);
+        legacyCatalogBytes = Messages.encode(legacyCatalog);
+        commandBytes = Messages.encode(commands);
+        legacyCommandBytes = Messages.encode(legacyCommands);
+    }
+
+    @Benchmark
+    public byte[] encodeCatalog() {
+        return Messages.encode(catalog);
+    }
+
+    @Benchmark
+    public byte[] encodeCatalogDefault() {
+        return Messages.encode(legacyCatalog);
+    }
+
+    @Benchmark
+    public Object decodeCatalog() {
+        return Messages.decode(catalogBytes);
+    }
+
+    @Benchmark
+    public Object decodeCatalogDefault() {
+        return Messages.decode(legacyCatalogBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeCommands() {
+        return Messages.encode(commands);
+    }
+
+    @Benchmark
+    public byte[] encodeCommandsDefault() {
+        return Messages.encode(legacyCommands);
+    }
+
+    @Benchmark
+    public Object decodeCommands() {
+        return Messages.decode(commandBytes);
+    }
+
+    @Benchmark
+    public Object decodeCommandsDefault() {
+        return Messages.decode(legacyCommandBytes);
+    }
+}
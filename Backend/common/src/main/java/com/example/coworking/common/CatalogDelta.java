@@ -0,0 +1,61 @@
+package com.example.coworking.common;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Answer to {@link SalleService#getSallesSince(long)}: what changed in the room catalog after the
+ * caller's version. Exactly one of three shapes:
+ * <ul>
+ *   <li>unchanged: the caller is current, nothing else is sent;</li>
+ *   <li>delta: rooms added or modified since the caller's version, and ids of removed rooms;</li>
+ *   <li>full: the whole catalog in {@code changed}, when the caller's version is unknown to the
+ *   server (first call, server restart, history no longer kept); the caller replaces its copy.</li>
+ * </ul>
+ */
+public class CatalogDelta implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long version;
+    private boolean unchanged;
+    private boolean full;
+    private List<SalleDTO> changed = Collections.emptyList();
+    private List<Long> removed = Collections.emptyList();
+
+    public CatalogDelta() {}
+
+    public static CatalogDelta unchanged(long version) {
+        CatalogDelta d = new CatalogDelta();
+        d.version = version;
+        d.unchanged = true;
+        return d;
+    }
+
+    public static CatalogDelta full(long version, List<SalleDTO> rooms) {
+        CatalogDelta d = new CatalogDelta();
+        d.version = version;
+        d.full = true;
+        d.changed = rooms;
+        return d;
+    }
+
+    public static CatalogDelta delta(long version, List<SalleDTO> changed, List<Long> removed) {
+        CatalogDelta d = new CatalogDelta();
+        d.version = version;
+        d.changed = changed;
+        d.removed = removed;
+        return d;
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public boolean isUnchanged() { return unchanged; }
+    public void setUnchanged(boolean unchanged) { this.unchanged = unchanged; }
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+    public List<SalleDTO> getChanged() { return changed; }
+    public void setChanged(List<SalleDTO> changed) { this.changed = changed; }
+    public List<Long> getRemoved() { return removed; }
+    public void setRemoved(List<Long> removed) { this.removed = removed; }
+}
@@ -1,10 +1,26 @@
 package com.example.coworking.common;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * A booking request sent to the rmi-server. Over RMI the window travels as epoch day and minutes of
+ * day (see {@link WireFormat}); values not in canonical "YYYY-MM-DD" / "HH:mm" form are sent as text
+ * unchanged so the server still reports them as invalid.
+ */
+public class CreateReservationCommand implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int HAS_SALLE = 1;
+    private static final int HAS_CLIENT = 2;
+    private static final int HAS_USER = 4;
+    private static final int COMPACT_WINDOW = 8;
 
-public class CreateReservationCommand implements Serializable {
     private Long salleId;
-    private String client; // for now we use client name/email; can be userId later
+    private String client; // display value (name/email) kept for legacy readers
+    private Long userId;   // booking user (users.id), when known
     private String date; // YYYY-MM-DD
     private String startTime; // HH:mm
     private String endTime; // HH:mm
@@ -31,6 +47,9 @@ public class CreateReservationCommand implements Serializable {
     public String getClient() { return client; }
     public void setClient(String client) { this.client = client; }
 
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
     public String getDate() { return date; }
     public void setDate(String date) { this.date = date; }
 
@@ -39,4 +58,44 @@ public class CreateReservationCommand implements Serializable {
 
     public String getEndTime() { return endTime; }
     public void setEndTime(String endTime) { this.endTime = endTime; }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        Integer day = WireFormat.epochDay(date);
+        Short start = WireFormat.minuteOfDay(startTime);
+        Short end = WireFormat.minuteOfDay(endTime);
+        boolean compact = day != null && start != null && end != null;
+        int flags = (salleId != null ? HAS_SALLE : 0) | (client != null ? HAS_CLIENT : 0)
+                | (userId != null ? HAS_USER : 0) | (compact ? COMPACT_WINDOW : 0);
+        out.writeByte(flags);
+        if (salleId != null) out.writeLong(salleId);
+        if (client != null) out.writeUTF(client);
+        if (userId != null) out.writeLong(userId);
+        if (compact) {
+            out.writeInt(day);
+            out.writeShort(start);
+            out.writeShort(end);
+        } else {
+            WireFormat.writeString(out, date);
+            WireFormat.writeString(out, startTime);
+            WireFormat.writeString(out, endTime);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        int flags = in.readByte();
+        salleId = (flags & HAS_SALLE) != 0 ? in.readLong() : null;
+        client = (flags & HAS_CLIENT) != 0 ? in.readUTF() : null;
+        userId = (flags & HAS_USER) != 0 ? in.readLong() : null;
+        if ((flags & COMPACT_WINDOW) != 0) {
+            date = WireFormat.date(in.readInt());
+            startTime = WireFormat.time(in.readShort());
+            endTime = WireFormat.time(in.readShort());
+        } else {
+            date = WireFormat.readString(in);
+            startTime = WireFormat.readString(in);
+            endTime = WireFormat.readString(in);
+        }
+    }
 }
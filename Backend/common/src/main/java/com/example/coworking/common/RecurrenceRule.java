@@ -0,0 +1,102 @@
+package com.example.coworking.common;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dates of a recurring booking: every {@code interval} days (DAILY) or weeks (WEEKLY, on
+ * {@code daysOfWeek}, by default the weekday of {@code startDate}) from {@code startDate}, up to
+ * {@code untilDate} inclusive and/or {@code count} occurrences. At least one bound is required and a
+ * series never has more than {@link #MAX_OCCURRENCES} dates.
+ */
+public class RecurrenceRule implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_OCCURRENCES = 366;
+
+    public enum Frequency { DAILY, WEEKLY }
+
+    private Frequency frequency = Frequency.WEEKLY;
+    private int interval = 1;
+    private String startDate; // YYYY-MM-DD, first possible occurrence
+    private String untilDate; // YYYY-MM-DD, inclusive
+    private Integer count;
+    private List<String> daysOfWeek; // MONDAY..SUNDAY, WEEKLY only
+
+    public RecurrenceRule() {}
+
+    public RecurrenceRule(Frequency frequency, int interval, String startDate, String untilDate, Integer count) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.startDate = startDate;
+        this.untilDate = untilDate;
+        this.count = count;
+    }
+
+    /** @throws IllegalArgumentException when the rule is incomplete, malformed or too long */
+    public List<LocalDate> occurrences() {
+        if (startDate == null) throw new IllegalArgumentException("startDate is required");
+        if (untilDate == null && count == null) throw new IllegalArgumentException("untilDate or count is required");
+        if (interval < 1) throw new IllegalArgumentException("interval must be at least 1");
+        if (count != null && (count < 1 || count > MAX_OCCURRENCES)) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_OCCURRENCES);
+        }
+        LocalDate start;
+        LocalDate until;
+        try {
+            start = LocalDate.parse(startDate);
+            until = untilDate == null ? null : LocalDate.parse(untilDate);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid date format");
+        }
+        int max = count == null ? MAX_OCCURRENCES : count;
+        List<LocalDate> dates = new ArrayList<>();
+        if (frequency == Frequency.DAILY) {
+            for (LocalDate d = start; (until == null || !d.isAfter(until)) && dates.size() <= max; d = d.plusDays(interval)) {
+                dates.add(d);
+            }
+        } else {
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            try {
+                if (daysOfWeek != null) for (String day : daysOfWeek) days.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid day of week");
+            }
+            if (days.isEmpty()) days.add(start.getDayOfWeek());
+            LocalDate week = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            weeks:
+            for (; until == null || !week.isAfter(until); week = week.plusWeeks(interval)) {
+                for (DayOfWeek day : days) { // EnumSet iterates Monday to Sunday
+                    LocalDate d = week.with(TemporalAdjusters.nextOrSame(day));
+                    if (d.isBefore(start)) continue;
+                    if ((until != null && d.isAfter(until)) || dates.size() > max) break weeks;
+                    dates.add(d);
+                }
+            }
+        }
+        if (dates.size() > max) {
+            if (count != null) return dates.subList(0, count);
+            throw new IllegalArgumentException("A series is limited to " + MAX_OCCURRENCES + " occurrences");
+        }
+        return dates;
+    }
+
+    public Frequency getFrequency() { return frequency; }
+    public void setFrequency(Frequency frequency) { this.frequency = frequency; }
+    public int getInterval() { return interval; }
+    public void setInterval(int interval) { this.interval = interval; }
+    public String getStartDate() { return startDate; }
+    public void setStartDate(String startDate) { this.startDate = startDate; }
+    public String getUntilDate() { return untilDate; }
+    public void setUntilDate(String untilDate) { this.untilDate = untilDate; }
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+    public List<String> getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(List<String> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+}
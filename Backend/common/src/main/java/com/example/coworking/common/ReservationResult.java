@@ -1,12 +1,42 @@
 package com.example.coworking.common;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Outcome of a booking. Over RMI, known status and code values travel as one-byte indexes (see
+ * {@link WireFormat}); any other value is sent as text.
+ */
+public class ReservationResult implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    // Failure codes so callers can map a refusal without re-querying
+    public static final String CODE_INVALID_REQUEST = "INVALID_REQUEST";
+    public static final String CODE_ROOM_NOT_FOUND = "ROOM_NOT_FOUND";
+    public static final String CODE_UNAVAILABLE = "UNAVAILABLE";
+    public static final String CODE_BUSY = "BUSY";
+    // Admissible, but not booked because another command of an atomic batch was refused
+    public static final String CODE_NOT_APPLIED = "NOT_APPLIED";
+    // The room's location is owned by another booking node (sharded deployment); nothing was written
+    public static final String CODE_WRONG_SHARD = "WRONG_SHARD";
+
+    // Wire indexes; append only
+    private static final String[] STATUSES = {"PENDING", "CONFIRMED", "CANCELLED", "REJECTED"};
+    private static final String[] CODES = {CODE_INVALID_REQUEST, CODE_ROOM_NOT_FOUND, CODE_UNAVAILABLE, CODE_BUSY, CODE_NOT_APPLIED, CODE_WRONG_SHARD};
+    private static final byte NONE = -2;
+    private static final byte OTHER = -1;
+
+    private static final int SUCCESS = 1;
+    private static final int HAS_ID = 2;
+    private static final int HAS_MESSAGE = 4;
 
-public class ReservationResult implements Serializable {
     private boolean success;
     private String message;
     private Long reservationId;
     private String status; // PENDING | CONFIRMED | CANCELLED
+    private String code;   // null on success, one of CODE_* on failure
 
     public ReservationResult() {}
 
@@ -22,6 +52,12 @@ public class ReservationResult implements Serializable {
         this.status = status;
     }
 
+    public static ReservationResult failure(String code, String message) {
+        ReservationResult r = new ReservationResult(false, message);
+        r.code = code;
+        return r;
+    }
+
     public boolean isSuccess() { return success; }
     public void setSuccess(boolean success) { this.success = success; }
     public String getMessage() { return message; }
@@ -30,4 +66,37 @@ public class ReservationResult implements Serializable {
     public void setReservationId(Long reservationId) { this.reservationId = reservationId; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte((success ? SUCCESS : 0) | (reservationId != null ? HAS_ID : 0) | (message != null ? HAS_MESSAGE : 0));
+        if (reservationId != null) out.writeLong(reservationId);
+        if (message != null) out.writeUTF(message);
+        writeKnown(out, STATUSES, status);
+        writeKnown(out, CODES, code);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        int flags = in.readByte();
+        success = (flags & SUCCESS) != 0;
+        reservationId = (flags & HAS_ID) != 0 ? in.readLong() : null;
+        message = (flags & HAS_MESSAGE) != 0 ? in.readUTF() : null;
+        status = readKnown(in, STATUSES);
+        code = readKnown(in, CODES);
+    }
+
+    private static void writeKnown(ObjectOutput out, String[] known, String value) throws IOException {
+        byte index = value == null ? NONE : WireFormat.indexOf(known, value);
+        out.writeByte(index);
+        if (index == OTHER) out.writeUTF(value);
+    }
+
+    private static String readKnown(ObjectInput in, String[] known) throws IOException {
+        byte index = in.readByte();
+        if (index == NONE) return null;
+        return index == OTHER ? in.readUTF() : known[index];
+    }
 }
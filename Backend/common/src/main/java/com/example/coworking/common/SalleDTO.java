@@ -1,12 +1,25 @@
 package com.example.coworking.common;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Room DTO shared over RMI and REST. Fields are aligned with frontend expectations.
+ *
+ * Over RMI it uses a compact encoding (see {@link WireFormat}): a flag byte, primitives, and
+ * location and amenity names as shared strings, which repeat across the rooms of a catalog message.
  */
-public class SalleDTO implements Serializable {
+public class SalleDTO implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int HAS_ID = 1;
+    private static final int AVAILABLE = 2;
+    private static final int HAS_AMENITIES = 4;
+
     private Long id;
     private String name;
     private String location;
@@ -47,4 +60,37 @@ public class SalleDTO implements Serializable {
 
     public boolean isAvailable() { return available; }
     public void setAvailable(boolean available) { this.available = available; }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        int flags = (id != null ? HAS_ID : 0) | (available ? AVAILABLE : 0) | (amenities != null ? HAS_AMENITIES : 0);
+        out.writeByte(flags);
+        if (id != null) out.writeLong(id);
+        WireFormat.writeString(out, name);
+        WireFormat.writeShared(out, location);
+        out.writeInt(capacity);
+        WireFormat.writeString(out, imageUrl);
+        if (amenities != null) {
+            out.writeShort(amenities.size());
+            for (String a : amenities) WireFormat.writeShared(out, a);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int flags = in.readByte();
+        id = (flags & HAS_ID) != 0 ? in.readLong() : null;
+        available = (flags & AVAILABLE) != 0;
+        name = WireFormat.readString(in);
+        location = WireFormat.readShared(in);
+        capacity = in.readInt();
+        imageUrl = WireFormat.readString(in);
+        if ((flags & HAS_AMENITIES) != 0) {
+            int n = in.readUnsignedShort();
+            amenities = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) amenities.add(WireFormat.readShared(in));
+        } else {
+            amenities = null;
+        }
+    }
 }
@@ -5,8 +5,38 @@ import java.rmi.RemoteException;
 import java.util.List;
 
 public interface SalleService extends Remote {
+    /** Cheap liveness check used by client-side health probes; returns the node's name. */
+    String ping() throws RemoteException;
+
     List<SalleDTO> getAllSalles() throws RemoteException;
+
+    /**
+     * Changes to the room catalog after {@code version} (0 for a first call). Callers keep their own
+     * copy and pass back {@link CatalogDelta#getVersion()}; while nothing changes the answer is a few bytes.
+     */
+    CatalogDelta getSallesSince(long version) throws RemoteException;
     ReservationResult reserverSalle(Long salleId, String client) throws RemoteException;
-    // New overload supporting date/time window
+    /**
+     * Books a room in a single server-side transaction: validates the date/time window, checks
+     * capacity against CONFIRMED reservations under the room lock and inserts the reservation with
+     * its final window and status (CONFIRMED when admitted; PENDING when no window is given).
+     * Refusals carry a {@link ReservationResult#getCode() code}.
+     */
     ReservationResult reserverSalle(CreateReservationCommand command) throws RemoteException;
+
+    /**
+     * Books several rooms/windows in one call and one transaction. Every command is checked against
+     * the CONFIRMED reservations and against the commands admitted before it in the same batch, then
+     * the admitted ones are inserted together. Results are returned in command order.
+     *
+     * @param atomic when true, any refusal leaves the whole batch unapplied; the admissible commands
+     *               then report {@link ReservationResult#CODE_NOT_APPLIED}
+     */
+    List<ReservationResult> reserverSalles(List<CreateReservationCommand> commands, boolean atomic) throws RemoteException;
+
+    /**
+     * Books {@code template} (room, client, start and end time; its date is ignored) on every date of
+     * {@code rule}, as one {@link #reserverSalles batch}. Results follow {@link RecurrenceRule#occurrences()}.
+     */
+    List<ReservationResult> reserverSerie(CreateReservationCommand template, RecurrenceRule rule, boolean atomic) throws RemoteException;
 }
@@ -0,0 +1,92 @@
+package com.example.coworking.common;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Helpers for the hand-written {@link java.io.Externalizable} encodings of the shared DTOs.
+ *
+ * Low-cardinality strings (amenity names, locations) are written as objects so that repeats within
+ * one RMI message become stream back-references, and are canonicalized on both ends so repeats are
+ * the same instance. Dates and times travel as epoch day and minute of day when they are in their
+ * canonical text form ("YYYY-MM-DD", "HH:mm").
+ */
+public final class WireFormat {
+    private static final int MAX_CANONICAL = 4096;
+    private static final ConcurrentMap<String, String> CANONICAL = new ConcurrentHashMap<>();
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final short NO_TIME = -1;
+
+    private WireFormat() {}
+
+    /** Shared instance of a frequently repeated string; unbounded growth is capped, past it strings pass through. */
+    public static String canonical(String s) {
+        if (s == null) return null;
+        String c = CANONICAL.get(s);
+        if (c != null) return c;
+        if (CANONICAL.size() >= MAX_CANONICAL) return s;
+        c = CANONICAL.putIfAbsent(s, s);
+        return c == null ? s : c;
+    }
+
+    static void writeString(ObjectOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    static String readString(ObjectInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static void writeShared(ObjectOutput out, String s) throws IOException {
+        out.writeObject(canonical(s));
+    }
+
+    static String readShared(ObjectInput in) throws IOException, ClassNotFoundException {
+        return canonical((String) in.readObject());
+    }
+
+    /** @return the epoch day of a canonical "YYYY-MM-DD", {@link #NO_DATE} for null, or null when not canonical */
+    static Integer epochDay(String date) {
+        if (date == null) return NO_DATE;
+        try {
+            LocalDate d = LocalDate.parse(date);
+            return d.toString().equals(date) ? (int) d.toEpochDay() : null;
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /** @return the minute of day of a canonical "HH:mm", {@link #NO_TIME} for null, or null when not canonical */
+    static Short minuteOfDay(String time) {
+        if (time == null) return NO_TIME;
+        try {
+            LocalTime t = LocalTime.parse(time);
+            // Only whole minutes fit the compact form; anything finer keeps its text so no precision is dropped
+            if (t.getSecond() != 0 || t.getNano() != 0 || !t.toString().equals(time)) return null;
+            return (short) (t.getHour() * 60 + t.getMinute());
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    static String date(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    static String time(short minuteOfDay) {
+        return minuteOfDay == NO_TIME ? null : LocalTime.of(minuteOfDay / 60, minuteOfDay % 60).toString();
+    }
+
+    /** Index of {@code value} in {@code known}, or -1. */
+    static byte indexOf(String[] known, String value) {
+        for (byte i = 0; i < known.length; i++) if (known[i].equals(value)) return i;
+        return -1;
+    }
+}
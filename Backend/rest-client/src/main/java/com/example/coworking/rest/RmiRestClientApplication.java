@@ -2,8 +2,10 @@ package com.example.coworking.rest;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RmiRestClientApplication {
     public static void main(String[] args) {
         SpringApplication.run(RmiRestClientApplication.class, args);
@@ -1,13 +1,15 @@
 package com.example.coworking.rest.auth;
 
-import com.example.coworking.rest.user.UserEntity;
+import com.example.coworking.rest.user.EmailAlreadyRegisteredException;
 import com.example.coworking.rest.user.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -27,30 +29,55 @@ import javax.validation.Valid;
 public class AuthController {
 
     private final UserService userService;
+    private final SessionStore sessionStore;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, SessionStore sessionStore) {
         this.userService = userService;
+        this.sessionStore = sessionStore;
     }
 
+    // Both endpoints hash on the PasswordHasher pool; the request thread is released meanwhile, and the
+    // responses are built on UserService's persistence pool, never on a hashing thread
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
-        if (userService.emailExists(request.getEmail())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(new ErrorResponse("EMAIL_EXISTS", "Email already registered"));
-        }
-        UserEntity entity = userService.register(request.getName(), request.getEmail(), request.getPassword(), request.getPhone());
-        return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.from(entity));
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
+        return userService.register(request.getName(), request.getEmail(), request.getPassword(), request.getPhone())
+                .thenApply(entity -> ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.from(entity)));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
-        UserEntity entity = userService.authenticate(request.getEmail(), request.getPassword());
-        if (entity == null) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        return userService.authenticate(request.getEmail(), request.getPassword()).thenApply(entity -> {
+            if (entity == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ErrorResponse("BAD_CREDENTIALS", "Invalid email or password"));
+            }
+            // BCrypt runs here only; later requests authenticate with the returned bearer token
+            SessionStore.Issued issued = sessionStore.issue(entity);
+            return ResponseEntity.ok(new LoginResponse(UserResponse.from(entity), issued.token,
+                    issued.session.getExpiresAt()));
+        });
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest request) {
+        sessionStore.revoke(SessionAuthFilter.bearerToken(request));
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<?> me(@RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser user) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("BAD_CREDENTIALS", "Invalid email or password"));
+                    .body(new ErrorResponse("NO_SESSION", "Missing or expired session token"));
         }
-        // For now return just the user; JWT will be added later
-        return ResponseEntity.ok(UserResponse.from(entity));
+        return ResponseEntity.ok(user);
+    }
+
+    @ExceptionHandler(EmailAlreadyRegisteredException.class)
+    public ResponseEntity<ErrorResponse> emailExists() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("EMAIL_EXISTS", "Email already registered"));
     }
 
     static class ErrorResponse {
@@ -0,0 +1,23 @@
+package com.example.coworking.rest.auth;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.time.Instant;
+
+/** The logged-in user (same fields as {@link UserResponse}) plus the session token. */
+public class LoginResponse {
+    @JsonUnwrapped
+    private final UserResponse user;
+    private final String token;
+    private final Instant expiresAt;
+
+    public LoginResponse(UserResponse user, String token, Instant expiresAt) {
+        this.user = user;
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+
+    public UserResponse getUser() { return user; }
+    public String getToken() { return token; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
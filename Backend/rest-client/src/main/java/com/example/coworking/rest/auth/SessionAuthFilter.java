@@ -0,0 +1,41 @@
+package com.example.coworking.rest.auth;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Resolves "Authorization: Bearer &lt;token&gt;" against the {@link SessionStore} and exposes the user as
+ * the {@link SessionUser#REQUEST_ATTRIBUTE} request attribute. Requests without a valid token pass
+ * through unauthenticated; endpoints decide what they require.
+ */
+@Component
+public class SessionAuthFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    private final SessionStore sessionStore;
+
+    public SessionAuthFilter(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SessionUser user = sessionStore.resolve(bearerToken(request));
+        if (user != null) request.setAttribute(SessionUser.REQUEST_ATTRIBUTE, user);
+        chain.doFilter(request, response);
+    }
+
+    static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) return null;
+        String token = header.substring(BEARER.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+}
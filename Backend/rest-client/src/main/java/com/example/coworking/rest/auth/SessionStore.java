@@ -0,0 +1,100 @@
+package com.example.coworking.rest.auth;
+
+import com.example.coworking.rest.user.UserEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Opaque session tokens held in memory. A token is 256 random bits; resolving one is a map lookup
+ * plus an expiry check, with no database access and no password hashing.
+ *
+ * Every session gets the same TTL, so issue order is expiry order: a FIFO of tokens drives both
+ * eviction of expired sessions and the size bound (the oldest sessions go first when it is reached).
+ * Sessions do not survive a restart; users log in again.
+ */
+@Component
+public class SessionStore {
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, SessionUser> sessions = new ConcurrentHashMap<>();
+    private final Queue<String> issueOrder = new ConcurrentLinkedQueue<>();
+    private final Duration ttl;
+    private final int maxSessions;
+
+    public SessionStore(@Value("${auth.session.ttl-minutes:480}") long ttlMinutes,
+                        @Value("${auth.session.max-sessions:10000}") int maxSessions) {
+        this.ttl = Duration.ofMinutes(Math.max(1, ttlMinutes));
+        this.maxSessions = Math.max(1, maxSessions);
+    }
+
+    /** A new session and its bearer token. */
+    public static final class Issued {
+        public final String token;
+        public final SessionUser session;
+
+        Issued(String token, SessionUser session) {
+            this.token = token;
+            this.session = session;
+        }
+    }
+
+    /**
+     * The session is returned rather than looked up again: eviction or {@link #revokeUser} may already
+     * have removed it from the store by the time the caller reads it.
+     */
+    public Issued issue(UserEntity user) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        SessionUser session = new SessionUser(user.getId(), user.getEmail(), user.getName(), user.getRole(),
+                Instant.now().plus(ttl));
+        sessions.put(token, session);
+        issueOrder.add(token);
+        evict();
+        return new Issued(token, session);
+    }
+
+    /** @return the session's user, or null when the token is unknown, revoked or expired */
+    public SessionUser resolve(String token) {
+        if (token == null) return null;
+        SessionUser s = sessions.get(token);
+        if (s == null) return null;
+        if (!s.getExpiresAt().isAfter(Instant.now())) {
+            sessions.remove(token, s);
+            return null;
+        }
+        return s;
+    }
+
+    public void revoke(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    /** Ends every session of the user (account deleted or role changed). */
+    public void revokeUser(Long userId) {
+        sessions.values().removeIf(s -> s.getUserId().equals(userId));
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void evict() {
+        Instant now = Instant.now();
+        String head;
+        while ((head = issueOrder.peek()) != null) {
+            SessionUser s = sessions.get(head);
+            boolean drop = s == null || !s.getExpiresAt().isAfter(now) || sessions.size() > maxSessions;
+            if (!drop) break;
+            if (issueOrder.remove(head)) sessions.remove(head);
+        }
+    }
+}
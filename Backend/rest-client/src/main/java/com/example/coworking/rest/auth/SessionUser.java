@@ -0,0 +1,35 @@
+package com.example.coworking.rest.auth;
+
+import com.example.coworking.rest.user.UserRole;
+
+import java.time.Instant;
+
+/**
+ * The user behind a session token. Set by {@link SessionAuthFilter} as the request attribute
+ * {@link #REQUEST_ATTRIBUTE}; controllers read it with
+ * {@code @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false)}.
+ */
+public final class SessionUser {
+    public static final String REQUEST_ATTRIBUTE = "coworking.sessionUser";
+
+    private final Long userId;
+    private final String email;
+    private final String name;
+    private final UserRole role;
+    private final Instant expiresAt;
+
+    public SessionUser(Long userId, String email, String name, UserRole role, Instant expiresAt) {
+        this.userId = userId;
+        this.email = email;
+        this.name = name;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public String getName() { return name; }
+    public UserRole getRole() { return role; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public boolean isAdmin() { return role == UserRole.ADMIN; }
+}
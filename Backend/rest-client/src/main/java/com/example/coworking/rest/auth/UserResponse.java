@@ -14,13 +14,17 @@ public class UserResponse {
     private LocalDateTime createdAt;
 
     public static UserResponse from(UserEntity e) {
+        return of(e.getId(), e.getName(), e.getEmail(), e.getPhone(), e.getRole(), e.getCreatedAt());
+    }
+
+    public static UserResponse of(Long id, String name, String email, String phone, UserRole role, LocalDateTime createdAt) {
         UserResponse r = new UserResponse();
-        r.id = e.getId();
-        r.name = e.getName();
-        r.email = e.getEmail();
-        r.phone = e.getPhone();
-        r.role = e.getRole();
-        r.createdAt = e.getCreatedAt();
+        r.id = id;
+        r.name = name;
+        r.email = email;
+        r.phone = phone;
+        r.role = role;
+        r.createdAt = createdAt;
         return r;
     }
 
@@ -1,10 +1,18 @@
 package com.example.coworking.rest.config;
 
 import com.example.coworking.common.SalleService;
+import com.example.coworking.rest.rmi.BalancedSalleService;
+import com.example.coworking.rest.rmi.RmiNode;
+import com.example.coworking.rest.rmi.ShardedSalleService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.remoting.rmi.RmiProxyFactoryBean;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class RmiClientConfig {
@@ -15,20 +23,70 @@ public class RmiClientConfig {
     @Value("${rmi.port:1099}")
     private int rmiPort;
 
+    // Comma-separated host:port list of rmi-server replicas; empty means the single rmi.host:rmi.port
+    @Value("${rmi.endpoints:}")
+    private String rmiEndpoints;
+
+    // Comma-separated shard names; each lists its replicas in rmi.shard.<name>.endpoints
+    @Value("${rmi.shards:}")
+    private String rmiShards;
+
     @Value("${rmi.salleServiceName:SalleService}")
     private String salleServiceName;
 
+    @Value("${rmi.lb.strategy:least-outstanding}")
+    private String strategy;
+
+    @Value("${rmi.lb.eject-after-failures:2}")
+    private int ejectAfterFailures;
+
     @Bean
-    public RmiProxyFactoryBean salleService() {
+    public ShardedSalleService salleService(Environment env) {
+        List<ShardedSalleService.Shard> shards = new ArrayList<>();
+        for (String s : StringUtils.commaDelimitedListToStringArray(rmiShards)) {
+            String name = s.trim();
+            if (name.isEmpty()) continue;
+            List<String> endpoints = endpoints(env.getProperty("rmi.shard." + name + ".endpoints", ""));
+            if (endpoints.isEmpty()) throw new IllegalStateException("rmi.shard." + name + ".endpoints is not set");
+            shards.add(new ShardedSalleService.Shard(name, balanced(endpoints)));
+        }
+        if (shards.isEmpty()) {
+            List<String> endpoints = endpoints(rmiEndpoints);
+            if (endpoints.isEmpty()) endpoints.add(rmiHost + ":" + rmiPort);
+            shards.add(new ShardedSalleService.Shard("default", balanced(endpoints)));
+        }
+        return new ShardedSalleService(shards);
+    }
+
+    private BalancedSalleService balanced(List<String> endpoints) {
+        List<RmiNode> nodes = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            nodes.add(RmiNode.connect(endpoint, stub(endpoint)));
+        }
+        return new BalancedSalleService(nodes, strategy, ejectAfterFailures);
+    }
+
+    private List<String> endpoints(String list) {
+        List<String> out = new ArrayList<>();
+        for (String e : StringUtils.commaDelimitedListToStringArray(list)) {
+            String endpoint = e.trim();
+            if (endpoint.isEmpty()) continue;
+            out.add(endpoint.contains(":") ? endpoint : endpoint + ":" + rmiPort);
+        }
+        return out;
+    }
+
+    private SalleService stub(String endpoint) {
         RmiProxyFactoryBean proxy = new RmiProxyFactoryBean();
         proxy.setServiceInterface(SalleService.class);
-        proxy.setServiceUrl(String.format("rmi://%s:%d/%s", rmiHost, rmiPort, salleServiceName));
+        proxy.setServiceUrl(String.format("rmi://%s/%s", endpoint, salleServiceName));
         // Defer lookup so the REST app can start even if RMI registry/server is down at startup
         proxy.setLookupStubOnStartup(false);
         // Attempt to refresh the stub on failure at call time
         proxy.setRefreshStubOnConnectFailure(true);
         // Cache the stub between successful lookups
         proxy.setCacheStub(true);
-        return proxy;
+        proxy.afterPropertiesSet();
+        return (SalleService) proxy.getObject();
     }
 }
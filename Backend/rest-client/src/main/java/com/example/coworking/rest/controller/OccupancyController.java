@@ -0,0 +1,73 @@
+package com.example.coworking.rest.controller;
+
+import com.example.coworking.rest.occupancy.OccupancyReports;
+import com.example.coworking.rest.occupancy.OccupancyRollups;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utilization reporting (booked vs open hours) served from the occupancy rollups.
+ */
+@RestController
+@RequestMapping("/api/occupancy")
+@CrossOrigin(origins = "*")
+public class OccupancyController {
+    // Bounds the response: 31 days of hourly buckets or a year of daily ones
+    private static final int MAX_HOURLY_DAYS = 31;
+    private static final int MAX_DAILY_DAYS = 366;
+
+    private final OccupancyReports reports;
+    private final OccupancyRollups rollups;
+
+    public OccupancyController(OccupancyReports reports, OccupancyRollups rollups) {
+        this.reports = reports;
+        this.rollups = rollups;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> report(@RequestParam("from") String from,
+                                    @RequestParam("to") String to,
+                                    @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+                                    @RequestParam(value = "groupBy", defaultValue = "room") String groupBy,
+                                    @RequestParam(value = "roomId", required = false) Long roomId,
+                                    @RequestParam(value = "location", required = false) String location) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        OccupancyReports.Granularity g;
+        OccupancyReports.GroupBy by;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+            g = OccupancyReports.Granularity.valueOf(granularity.trim().toUpperCase());
+            by = OccupancyReports.GroupBy.valueOf(groupBy.trim().toUpperCase());
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body("Expected from/to as YYYY-MM-DD, granularity hour|day, groupBy room|location");
+        }
+        if (toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().body("to must not be before from");
+        }
+        int maxDays = g == OccupancyReports.Granularity.HOUR ? MAX_HOURLY_DAYS : MAX_DAILY_DAYS;
+        if (ChronoUnit.DAYS.between(fromDate, toDate) + 1 > maxDays) {
+            return ResponseEntity.badRequest().body("Range too large: at most " + maxDays + " days for " + g.name().toLowerCase() + " buckets");
+        }
+        String loc = location == null || location.trim().isEmpty() ? null : location.trim();
+        return ResponseEntity.ok(reports.report(g, by, fromDate, toDate, roomId, loc));
+    }
+
+    /** Recomputes the rollups from the reservations table (backfill / repair). */
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild() {
+        long t0 = System.currentTimeMillis();
+        int reservations = rollups.rebuild();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("reservations", reservations);
+        m.put("tookMs", System.currentTimeMillis() - t0);
+        return m;
+    }
+}
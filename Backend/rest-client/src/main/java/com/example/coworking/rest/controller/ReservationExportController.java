@@ -0,0 +1,116 @@
+package com.example.coworking.rest.controller;
+
+import com.example.coworking.rest.auth.SessionUser;
+import com.example.coworking.rest.reservation.ReservationQueries;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Bulk export of reservations as CSV or NDJSON. Rows are read from a forward-only cursor and written
+ * to the response as they arrive, so heap use does not depend on the number of rows exported.
+ * Same access rule as the reservation list: admins export everything, other users only their own rows.
+ */
+@RestController
+@RequestMapping("/api/reservations/export")
+@CrossOrigin(origins = "*")
+public class ReservationExportController {
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+    private static final String CSV_HEADER = "id,userId,userName,roomId,roomName,location,date,startTime,endTime,status";
+
+    private final ReservationQueries reservationQueries;
+    private final ObjectMapper objectMapper;
+
+    public ReservationExportController(ReservationQueries reservationQueries, ObjectMapper objectMapper) {
+        this.reservationQueries = reservationQueries;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> export(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                    @RequestParam(value = "from", required = false) String from,
+                                    @RequestParam(value = "to", required = false) String to,
+                                    @RequestParam(value = "roomId", required = false) Long roomId,
+                                    @RequestParam(value = "location", required = false) String location,
+                                    @RequestParam(value = "status", required = false) String status,
+                                    @RequestParam(value = "userId", required = false) Long userId,
+                                    @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) {
+        ResponseEntity<?> denied = ReservationsController.checkListAccess(sessionUser, userId);
+        if (denied != null) return denied;
+        if (!sessionUser.isAdmin()) {
+            userId = sessionUser.getUserId();
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().body("format must be csv or ndjson");
+        }
+        ReservationQueries.Filter filter = new ReservationQueries.Filter();
+        filter.userId = userId;
+        filter.roomId = roomId;
+        filter.location = location == null || location.trim().isEmpty() ? null : location.trim();
+        filter.status = status == null || status.trim().isEmpty() ? null : status.trim().toUpperCase();
+        try {
+            if (from != null && !from.trim().isEmpty()) filter.from = LocalDate.parse(from.trim());
+            if (to != null && !to.trim().isEmpty()) filter.to = LocalDate.parse(to.trim());
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body("Invalid date (expected YYYY-MM-DD)");
+        }
+
+        // Runs on an async thread after the handler returns: the connection is taken only once the
+        // client starts reading and is released when the last row is written or the client goes away
+        StreamingResponseBody body = out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) w.write(CSV_HEADER + "\n");
+            try {
+                reservationQueries.forEach(filter, r -> {
+                    ReservationsController.ReservationDTO dto = ReservationsController.toDto(r);
+                    try {
+                        w.write(csv ? toCsv(dto) : toJson(dto));
+                        w.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            w.flush();
+        };
+        String filename = "reservations." + (csv ? "csv" : "ndjson");
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private String toJson(ReservationsController.ReservationDTO dto) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private static String toCsv(ReservationsController.ReservationDTO d) {
+        return d.id + "," + csvField(d.userId) + "," + csvField(d.userName) + "," + csvField(d.roomId) + ","
+                + csvField(d.roomName) + "," + csvField(d.location) + "," + csvField(d.date) + ","
+                + csvField(d.startTime) + "," + csvField(d.endTime) + "," + csvField(d.status);
+    }
+
+    // RFC 4180 quoting: only when the value contains a separator, quote or line break
+    private static String csvField(String v) {
+        if (v == null) return "";
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,22 +1,40 @@
 package com.example.coworking.rest.controller;
 
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.RecurrenceRule;
 import com.example.coworking.common.ReservationResult;
+import com.example.coworking.common.SalleDTO;
 import com.example.coworking.common.SalleService;
+import com.example.coworking.rest.auth.SessionUser;
+import com.example.coworking.rest.occupancy.OccupancyRollups;
 import com.example.coworking.rest.room.SalleEntity;
+import com.example.coworking.rest.room.AvailabilityCache;
+import com.example.coworking.rest.room.CatalogMirror;
 import com.example.coworking.rest.room.SalleRepository;
+import com.example.coworking.rest.stats.StatsService;
+import com.example.coworking.rest.reservation.ConfirmedReservationIndex;
+import com.example.coworking.rest.reservation.ReservationArchiver;
 import com.example.coworking.rest.reservation.ReservationEntity;
+import com.example.coworking.rest.reservation.ReservationQueries;
 import com.example.coworking.rest.reservation.ReservationRepository;
-import com.example.coworking.rest.user.UserEntity;
-import com.example.coworking.rest.user.UserRepository;
+import com.example.coworking.rest.reservation.ReservationSummary;
+import com.example.coworking.rest.reservation.RoomOccupancyCounters;
+import com.example.coworking.rest.user.UserIdentity;
+import com.example.coworking.rest.user.UserIdentityCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.rmi.RemoteException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,18 +46,45 @@ public class ReservationsController {
     private final ReservationRepository reservationRepository;
     private final SalleRepository salleRepository;
     private final JdbcTemplate jdbcTemplate;
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final ConfirmedReservationIndex confirmedIndex;
+    private final RoomOccupancyCounters occupancyCounters;
+    private final AvailabilityCache availabilityCache;
+    private final ReservationQueries reservationQueries;
+    private final StatsService statsService;
+    private final OccupancyRollups occupancyRollups;
+    private final ReservationArchiver reservationArchiver;
+    private final CatalogMirror catalogMirror;
+    private final boolean fastReject;
 
     public ReservationsController(SalleService salleService,
                                   ReservationRepository reservationRepository,
                                   SalleRepository salleRepository,
                                   JdbcTemplate jdbcTemplate,
-                                  UserRepository userRepository) {
+                                  UserIdentityCache userIdentityCache,
+                                  ConfirmedReservationIndex confirmedIndex,
+                                  RoomOccupancyCounters occupancyCounters,
+                                  AvailabilityCache availabilityCache,
+                                  ReservationQueries reservationQueries,
+                                  StatsService statsService,
+                                  OccupancyRollups occupancyRollups,
+                                  ReservationArchiver reservationArchiver,
+                                  CatalogMirror catalogMirror,
+                                  @Value("${reservations.index.fast-reject:true}") boolean fastReject) {
         this.salleService = salleService;
         this.reservationRepository = reservationRepository;
         this.salleRepository = salleRepository;
         this.jdbcTemplate = jdbcTemplate;
-        this.userRepository = userRepository;
+        this.userIdentityCache = userIdentityCache;
+        this.confirmedIndex = confirmedIndex;
+        this.occupancyCounters = occupancyCounters;
+        this.availabilityCache = availabilityCache;
+        this.reservationQueries = reservationQueries;
+        this.statsService = statsService;
+        this.occupancyRollups = occupancyRollups;
+        this.reservationArchiver = reservationArchiver;
+        this.catalogMirror = catalogMirror;
+        this.fastReject = fastReject;
     }
 
     public static class CreateReservationRequest {
@@ -48,6 +93,7 @@ public class ReservationsController {
         public String date;      // YYYY-MM-DD
         public String startTime; // HH:mm
         public String endTime;   // HH:mm
+        public Long userId;      // optional; resolved from an email client when absent
 
         public Long getSalleId() { return salleId; }
         public void setSalleId(Long salleId) { this.salleId = salleId; }
@@ -59,11 +105,13 @@ public class ReservationsController {
         public void setStartTime(String startTime) { this.startTime = startTime; }
         public String getEndTime() { return endTime; }
         public void setEndTime(String endTime) { this.endTime = endTime; }
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
     }
 
     public static class ReservationDTO {
         public Long id;
-        public String userId; // not available yet, keep null
+        public String userId;
         public String userName;
         public String roomId;
         public String roomName;
@@ -74,161 +122,396 @@ public class ReservationsController {
         public String status;
     }
 
+    public static class ReservationPageDTO {
+        public List<ReservationDTO> items;
+        public String nextCursor; // null on the last page
+    }
+
+    public static class BatchReservationRequest {
+        public List<CreateReservationRequest> items;
+        public boolean atomic; // all or nothing
+    }
+
+    /** A weekly or daily series of one room and time slot; the dates come from the recurrence rule. */
+    public static class SeriesReservationRequest {
+        public Long salleId;
+        public String client;
+        public Long userId;
+        public String startTime; // HH:mm
+        public String endTime;   // HH:mm
+        public RecurrenceRule recurrence;
+        public boolean atomic;
+    }
+
+    public static class BatchResultDTO {
+        public int booked;
+        public int refused;
+        public List<String> dates; // series only, aligned with results
+        public List<ReservationResult> results; // in request (or occurrence) order
+    }
+
     @PostMapping
-    public ResponseEntity<ReservationResult> create(@RequestBody CreateReservationRequest request) throws Exception {
-        if (request == null || request.getSalleId() == null || request.getClient() == null || request.getClient().trim().isEmpty()) {
+    public ResponseEntity<ReservationResult> create(@RequestBody CreateReservationRequest request,
+                                                    @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) throws Exception {
+        String client = clientOf(request, sessionUser);
+        if (request == null || request.getSalleId() == null || client == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ReservationResult(false, "Missing salleId or client"));
         }
-        // If client supplied a time window, enforce no-overlap policy before accepting
-        LocalDateTime startAtForCheck = null;
-        LocalDateTime endAtForCheck = null;
+        // Parse the window locally (no I/O) to fail fast on malformed input and to keep the index
+        // current; the capacity check and the insert happen in one server-side transaction.
+        LocalDateTime startAt = null;
+        LocalDateTime endAt = null;
         if (request.getDate() != null && request.getStartTime() != null && request.getEndTime() != null) {
             try {
                 LocalDate date = LocalDate.parse(request.getDate());
-                LocalTime start = LocalTime.parse(request.getStartTime());
-                LocalTime end = LocalTime.parse(request.getEndTime());
-                startAtForCheck = LocalDateTime.of(date, start);
-                endAtForCheck = LocalDateTime.of(date, end);
-                if (!endAtForCheck.isAfter(startAtForCheck)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(new ReservationResult(false, "endTime must be after startTime"));
-                }
+                startAt = LocalDateTime.of(date, LocalTime.parse(request.getStartTime()));
+                endAt = LocalDateTime.of(date, LocalTime.parse(request.getEndTime()));
             } catch (Exception ex) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new ReservationResult(false, "Invalid date/time format"));
             }
-            try {
-                // Capacity rule: only approved (CONFIRMED) reservations count toward capacity
-                long overlaps = reservationRepository.countOverlaps(
-                        request.getSalleId(),
-                        startAtForCheck,
-                        endAtForCheck,
-                        java.util.Arrays.asList("CONFIRMED")
-                );
-                // Fetch capacity for the salle
-                Integer capacity = salleRepository.findById(request.getSalleId())
-                        .map(com.example.coworking.rest.room.SalleEntity::getCapacity)
-                        .orElse(null);
-                if (capacity == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                            .body(new ReservationResult(false, "Room not found"));
-                }
-                if (overlaps >= capacity) {
-                    return ResponseEntity.status(HttpStatus.CONFLICT)
-                            .body(new ReservationResult(false, "Room not available in requested interval"));
-                }
-            } catch (Exception ignore) {
-                // If overlap check fails unexpectedly, proceed rather than block creation
+            if (!endAt.isAfter(startAt)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ReservationResult(false, "endTime must be after startTime"));
             }
         }
-        // Create via legacy RMI signature (now returns PENDING)
-        ReservationResult result = salleService.reserverSalle(request.getSalleId(), request.getClient());
-        if (result.isSuccess()) {
-            // If we have a reservationId and date/time were provided, persist them to the row
-            if (result.getReservationId() != null
-                    && startAtForCheck != null && endAtForCheck != null) {
-                try {
-                    // Prefer JPA update; if entity not yet visible, fallback to direct SQL (Java 8 compatible)
-                    java.util.Optional<ReservationEntity> opt = reservationRepository.findById(result.getReservationId());
-                    if (opt.isPresent()) {
-                        ReservationEntity r = opt.get();
-                        r.setStartAt(startAtForCheck);
-                        r.setEndAt(endAtForCheck);
-                        // Auto-approve if under capacity per rules
-                        r.setStatus("CONFIRMED");
-                        reservationRepository.save(r);
-                        if (r.getSalle() != null) {
-                            updateRoomAvailability(r.getSalle());
-                        }
-                    } else {
-                        // Fallback to direct column update
-                        jdbcTemplate.update("UPDATE reservations SET start_at=?, end_at=?, status='CONFIRMED' WHERE id=?",
-                                java.sql.Timestamp.valueOf(startAtForCheck), java.sql.Timestamp.valueOf(endAtForCheck), result.getReservationId());
-                    }
-                } catch (Exception ignore) {
-                    // Leave times empty if parsing fails
-                }
+        if (startAt != null && fastReject) {
+            ReservationResult full = refuseIfFull(request.getSalleId(), startAt, endAt);
+            if (full != null) return ResponseEntity.status(statusFor(full)).body(full);
+        }
+        CreateReservationCommand command = new CreateReservationCommand(
+                request.getSalleId(), client, request.getDate(), request.getStartTime(), request.getEndTime());
+        command.setUserId(sessionUser != null ? sessionUser.getUserId() : resolveUserId(request));
+        // Exactly one remote call per booking
+        ReservationResult result = salleService.reserverSalle(command);
+        if (!result.isSuccess()) {
+            return ResponseEntity.status(statusFor(result)).body(result);
+        }
+        statsService.markDirty();
+        if ("CONFIRMED".equals(result.getStatus())) {
+            trackConfirmed(result.getReservationId(), request.getSalleId(), startAt, endAt);
+            occupancyRollups.add(result.getReservationId(), request.getSalleId(), startAt, endAt);
+            updateRoomAvailability(request.getSalleId());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    /**
+     * Books several items in one remote call and one server transaction. Each item gets its own
+     * result; with atomic=true nothing is booked unless every item can be.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(@RequestBody BatchReservationRequest request,
+                                         @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) throws Exception {
+        if (request == null || request.items == null || request.items.isEmpty()) {
+            return ResponseEntity.badRequest().body("items must not be empty");
+        }
+        List<CreateReservationCommand> commands = new ArrayList<>(request.items.size());
+        for (CreateReservationRequest item : request.items) {
+            String client = clientOf(item, sessionUser);
+            if (item == null || item.getSalleId() == null || client == null) {
+                return ResponseEntity.badRequest().body("Every item needs a salleId and a client");
             }
-            // Reflect auto-approval in the response payload
-            try {
-                result.setStatus("CONFIRMED");
-            } catch (Exception ignore) { }
-            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+            CreateReservationCommand c = new CreateReservationCommand(
+                    item.getSalleId(), client, item.getDate(), item.getStartTime(), item.getEndTime());
+            c.setUserId(sessionUser != null ? sessionUser.getUserId() : resolveUserId(item));
+            commands.add(c);
         }
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        List<ReservationResult> results = salleService.reserverSalles(commands, request.atomic);
+        return ResponseEntity.ok(applyBatch(commands, results, null));
     }
 
-    @GetMapping
-    public List<ReservationDTO> list(@RequestParam(value = "client", required = false) String client,
-                                     @RequestParam(value = "status", required = false) String status) {
-        List<ReservationEntity> list = new java.util.ArrayList<>();
+    /** Books a recurring series (e.g. every Tuesday 10:00-12:00 for a quarter) as one batch. */
+    @PostMapping("/series")
+    public ResponseEntity<?> createSeries(@RequestBody SeriesReservationRequest request,
+                                          @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) throws Exception {
+        String client = request == null ? null
+                : sessionUser != null ? sessionUser.getEmail() : blankToNull(request.client);
+        if (request == null || request.salleId == null || client == null
+                || request.startTime == null || request.endTime == null || request.recurrence == null) {
+            return ResponseEntity.badRequest().body("salleId, client, startTime, endTime and recurrence are required");
+        }
+        List<LocalDate> dates;
+        try {
+            dates = request.recurrence.occurrences();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+        CreateReservationRequest template = new CreateReservationRequest();
+        template.salleId = request.salleId;
+        template.client = request.client;
+        template.userId = request.userId;
+        CreateReservationCommand command = new CreateReservationCommand(
+                request.salleId, client, null, request.startTime, request.endTime);
+        command.setUserId(sessionUser != null ? sessionUser.getUserId() : resolveUserId(template));
+        List<ReservationResult> results = salleService.reserverSerie(command, request.recurrence, request.atomic);
+
+        List<CreateReservationCommand> booked = new ArrayList<>(dates.size());
+        for (LocalDate d : dates) {
+            booked.add(new CreateReservationCommand(request.salleId, client, d.toString(), request.startTime, request.endTime));
+        }
+        List<String> labels = dates.stream().map(LocalDate::toString).collect(Collectors.toList());
+        return ResponseEntity.ok(applyBatch(booked, results, labels));
+    }
+
+    // Mirrors the single-booking bookkeeping for every confirmed item, refreshing each room once
+    private BatchResultDTO applyBatch(List<CreateReservationCommand> commands, List<ReservationResult> results, List<String> dates) {
+        BatchResultDTO dto = new BatchResultDTO();
+        dto.results = results;
+        dto.dates = dates;
+        Set<Long> touchedRooms = new HashSet<>();
+        for (int i = 0; i < results.size(); i++) {
+            ReservationResult r = results.get(i);
+            if (!r.isSuccess()) {
+                dto.refused++;
+                continue;
+            }
+            dto.booked++;
+            CreateReservationCommand c = i < commands.size() ? commands.get(i) : null;
+            if (c == null || !"CONFIRMED".equals(r.getStatus())) continue;
+            LocalDate date = LocalDate.parse(c.getDate());
+            LocalDateTime startAt = LocalDateTime.of(date, LocalTime.parse(c.getStartTime()));
+            LocalDateTime endAt = LocalDateTime.of(date, LocalTime.parse(c.getEndTime()));
+            trackConfirmed(r.getReservationId(), c.getSalleId(), startAt, endAt);
+            occupancyRollups.add(r.getReservationId(), c.getSalleId(), startAt, endAt);
+            touchedRooms.add(c.getSalleId());
+        }
+        if (dto.booked > 0) statsService.markDirty();
+        touchedRooms.forEach(this::updateRoomAvailability);
+        return dto;
+    }
+
+    /**
+     * Admission fast path: refuses a window the confirmed-reservation index already shows full, without
+     * the remote call and the room lock. The index can lag behind by bookings made elsewhere, never by
+     * cancellations (they all go through this service), so it only ever refuses what the server would
+     * refuse too; a window it does not show full is admitted or refused by the server under the room lock.
+     *
+     * @return the refusal, or null to go on to the server
+     */
+    private ReservationResult refuseIfFull(Long salleId, LocalDateTime startAt, LocalDateTime endAt) {
+        if (!confirmedIndex.isLoaded()) return null;
+        SalleDTO room;
+        try {
+            room = catalogMirror.room(salleId);
+        } catch (RemoteException | RuntimeException ex) {
+            return null;
+        }
+        if (room == null || confirmedIndex.countOverlaps(salleId, startAt, endAt) < room.getCapacity()) return null;
+        return ReservationResult.failure(ReservationResult.CODE_UNAVAILABLE, "Salle indisponible sur ce créneau");
+    }
+
+    private static HttpStatus statusFor(ReservationResult refused) {
+        String code = refused.getCode();
+        if (ReservationResult.CODE_INVALID_REQUEST.equals(code)) return HttpStatus.BAD_REQUEST;
+        if (ReservationResult.CODE_ROOM_NOT_FOUND.equals(code)) return HttpStatus.NOT_FOUND;
+        if (ReservationResult.CODE_BUSY.equals(code)) return HttpStatus.SERVICE_UNAVAILABLE;
+        if (ReservationResult.CODE_WRONG_SHARD.equals(code)) return HttpStatus.SERVICE_UNAVAILABLE;
+        return HttpStatus.CONFLICT;
+    }
+
+    // With a session the booking is the signed-in user's; the client field only names the booker without one
+    private static String clientOf(CreateReservationRequest request, SessionUser sessionUser) {
+        if (request == null) return null;
+        return sessionUser != null ? sessionUser.getEmail() : blankToNull(request.getClient());
+    }
+
+    private Long resolveUserId(CreateReservationRequest request) {
+        if (request.getUserId() != null) return request.getUserId();
+        String c = request.getClient().trim();
+        if (!c.contains("@")) return null;
+        return userIdentityCache.findByEmail(c).map(UserIdentity::getId).orElse(null);
+    }
 
+    /**
+     * Reservations of a user are looked up by the indexed user_id. A client email is resolved to its
+     * user first; any other client value is matched exactly. The old fuzzy matching on the free-text
+     * client column (substring and display-name scans) only runs when legacyMatch=true.
+     *
+     * Without a limit the answer is capped at reservations.list.max-rows (the most recent ones); a
+     * capped answer carries X-Result-Capped: true and the full set is read page by page with limit/cursor.
+     *
+     * Requires a session; a user who is not an admin only ever gets their own reservations.
+     */
+    @GetMapping
+    public ResponseEntity<?> list(@RequestParam(value = "userId", required = false) Long userId,
+                                  @RequestParam(value = "client", required = false) String client,
+                                  @RequestParam(value = "status", required = false) String status,
+                                  @RequestParam(value = "legacyMatch", defaultValue = "false") boolean legacyMatch,
+                                  @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) {
+        ResponseEntity<?> denied = checkListAccess(sessionUser, userId);
+        if (denied != null) return denied;
+        if (!sessionUser.isAdmin()) {
+            userId = sessionUser.getUserId();
+            client = sessionUser.getEmail();
+        }
         boolean hasClient = client != null && !client.trim().isEmpty();
         boolean hasStatus = status != null && !status.trim().isEmpty();
         String c = hasClient ? client.trim() : null;
 
-        if (hasClient) {
-            // 1) Direct match (case-insensitive)
-            if (hasStatus) {
-                list = reservationRepository.findByClientIgnoreCaseAndStatusIgnoreCase(c, status);
-            } else {
-                list = reservationRepository.findByClientIgnoreCase(c);
-            }
+        if (userId == null && hasClient && c.contains("@")) {
+            userId = userIdentityCache.findByEmail(c).map(UserIdentity::getId).orElse(null);
+        }
 
-            // 2) If it looks like an email, try local-part contains match
-            if (list.isEmpty() && c.contains("@")) {
-                String local = c.substring(0, c.indexOf('@'));
-                if (hasStatus) {
-                    list = reservationRepository.findByClientContainingIgnoreCaseAndStatusIgnoreCase(local, status);
-                } else {
-                    list = reservationRepository.findByClientContainingIgnoreCase(local);
-                }
-            }
+        ReservationQueries.Filter filter = new ReservationQueries.Filter();
+        filter.status = hasStatus ? status.trim().toUpperCase() : null;
+        if (userId != null) {
+            filter.userId = userId;
+        } else {
+            filter.client = c;
+        }
+        List<ReservationSummary> list = reservationQueries.list(filter);
 
-            // 3) Try by the user's display name from users table
-            if (list.isEmpty()) {
-                java.util.Optional<com.example.coworking.rest.user.UserEntity> uo = userRepository.findByEmail(c);
-                if (uo.isPresent()) {
-                    String name = uo.get().getName();
-                    List<ReservationEntity> alt;
-                    if (hasStatus) {
-                        alt = reservationRepository.findByClientIgnoreCaseAndStatusIgnoreCase(name, status);
-                        if (alt.isEmpty()) {
-                            alt = reservationRepository.findByClientContainingIgnoreCaseAndStatusIgnoreCase(name, status);
-                        }
-                    } else {
-                        alt = reservationRepository.findByClientIgnoreCase(name);
-                        if (alt.isEmpty()) {
-                            alt = reservationRepository.findByClientContainingIgnoreCase(name);
-                        }
-                    }
-                    if (!alt.isEmpty()) {
-                        list = alt;
-                    }
-                }
-            }
+        if (list.isEmpty() && hasClient && legacyMatch) {
+            list = legacyClientMatch(c, filter.status);
+        }
 
-            // 4) Last resort: try contains on original input
-            if (list.isEmpty()) {
-                if (hasStatus) {
-                    list = reservationRepository.findByClientContainingIgnoreCaseAndStatusIgnoreCase(c, status);
-                } else {
-                    list = reservationRepository.findByClientContainingIgnoreCase(c);
+        List<ReservationDTO> body = list.stream().map(ReservationsController::toDto).collect(Collectors.toList());
+        boolean capped = body.size() >= reservationQueries.listMaxRows();
+        return ResponseEntity.ok().header("X-Result-Capped", String.valueOf(capped)).body(body);
+    }
+
+    /**
+     * Keyset-paginated list, selected when a limit is given. Pages are ordered by (start_at, id);
+     * pass the returned nextCursor back as cursor to continue. All filters are applied in SQL. Same
+     * access rule as the unpaged list.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> page(@RequestParam("limit") int limit,
+                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                  @RequestParam(value = "order", defaultValue = "asc") String order,
+                                  @RequestParam(value = "userId", required = false) Long userId,
+                                  @RequestParam(value = "client", required = false) String client,
+                                  @RequestParam(value = "status", required = false) String status,
+                                  @RequestParam(value = "roomId", required = false) Long roomId,
+                                  @RequestParam(value = "location", required = false) String location,
+                                  @RequestParam(value = "from", required = false) String from,
+                                  @RequestParam(value = "to", required = false) String to,
+                                  @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) {
+        ResponseEntity<?> denied = checkListAccess(sessionUser, userId);
+        if (denied != null) return denied;
+        if (!sessionUser.isAdmin()) {
+            userId = sessionUser.getUserId();
+            client = null;
+        }
+        if (limit < 1 || limit > ReservationQueries.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + ReservationQueries.MAX_PAGE_SIZE);
+        }
+        ReservationQueries.Filter filter = new ReservationQueries.Filter();
+        filter.userId = userId;
+        filter.client = blankToNull(client);
+        filter.status = status == null || status.trim().isEmpty() ? null : status.trim().toUpperCase();
+        filter.roomId = roomId;
+        filter.location = blankToNull(location);
+        ReservationQueries.Cursor after = null;
+        try {
+            if (from != null && !from.trim().isEmpty()) filter.from = LocalDate.parse(from.trim());
+            if (to != null && !to.trim().isEmpty()) filter.to = LocalDate.parse(to.trim());
+            if (cursor != null && !cursor.isEmpty()) after = ReservationQueries.Cursor.decode(cursor);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body("Invalid cursor or date (expected YYYY-MM-DD)");
+        }
+
+        ReservationQueries.Page page = reservationQueries.page(filter, after, limit, "desc".equalsIgnoreCase(order));
+        ReservationPageDTO dto = new ReservationPageDTO();
+        dto.items = page.items.stream().map(ReservationsController::toDto).collect(Collectors.toList());
+        dto.nextCursor = page.next == null ? null : page.next.encode();
+        return ResponseEntity.ok(dto);
+    }
+
+    // Listing needs a session; only an admin may ask for another user's reservations
+    static ResponseEntity<?> checkListAccess(SessionUser sessionUser, Long userId) {
+        if (sessionUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Sign in to list reservations");
+        }
+        if (!sessionUser.isAdmin() && userId != null && !userId.equals(sessionUser.getUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Cannot list another user's reservations");
+        }
+        return null;
+    }
+
+    private static ResponseEntity<?> checkAdmin(SessionUser sessionUser, String action) {
+        if (sessionUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Sign in to " + action);
+        }
+        if (!sessionUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins can " + action);
+        }
+        return null;
+    }
+
+    // Legacy rows without a user_id belong to whoever the client column names
+    private static boolean isOwner(ReservationEntity r, SessionUser sessionUser) {
+        if (r.getUserId() != null) return r.getUserId().equals(sessionUser.getUserId());
+        return r.getClient() != null && r.getClient().trim().equalsIgnoreCase(sessionUser.getEmail());
+    }
+
+    private static String blankToNull(String v) {
+        return v == null || v.trim().isEmpty() ? null : v.trim();
+    }
+
+    // Pre-user_id lookup on the free-text client column; unindexable, kept for unlinked legacy rows
+    private List<ReservationSummary> legacyClientMatch(String c, String status) {
+        // 1) Direct match (the column collation is case-insensitive)
+        List<ReservationSummary> list = reservationQueries.list(clientFilter(c, null, status));
+
+        // 2) If it looks like an email, try local-part contains match
+        if (list.isEmpty() && c.contains("@")) {
+            list = reservationQueries.list(clientFilter(null, c.substring(0, c.indexOf('@')), status));
+        }
+
+        // 3) Try by the user's display name from users table
+        if (list.isEmpty()) {
+            java.util.Optional<UserIdentity> uo = userIdentityCache.findByEmail(c);
+            if (uo.isPresent()) {
+                String name = uo.get().getName();
+                List<ReservationSummary> alt = reservationQueries.list(clientFilter(name, null, status));
+                if (alt.isEmpty()) {
+                    alt = reservationQueries.list(clientFilter(null, name, status));
+                }
+                if (!alt.isEmpty()) {
+                    list = alt;
                 }
             }
-        } else if (hasStatus) {
-            list = reservationRepository.findByStatus(status);
-        } else {
-            list = reservationRepository.findAll();
         }
 
-        return list.stream().map(this::toDto).collect(Collectors.toList());
+        // 4) Last resort: try contains on original input
+        if (list.isEmpty()) {
+            list = reservationQueries.list(clientFilter(null, c, status));
+        }
+        return list;
+    }
+
+    private static ReservationQueries.Filter clientFilter(String client, String contains, String status) {
+        ReservationQueries.Filter f = new ReservationQueries.Filter();
+        f.client = client;
+        f.clientContains = contains;
+        f.status = status;
+        return f;
+    }
+
+    /** Runs the archival job now instead of waiting for its schedule. Admins only. */
+    @PostMapping("/archive")
+    public ResponseEntity<?> archive(@RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) {
+        ResponseEntity<?> denied = checkAdmin(sessionUser, "archive reservations");
+        if (denied != null) return denied;
+        java.util.Map<String, Object> m = new java.util.LinkedHashMap<>();
+        m.put("archived", reservationArchiver.archive());
+        return ResponseEntity.ok(m);
     }
 
+    /** Requires a session; a user who is not an admin can only cancel their own reservations. */
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<?> cancel(@PathVariable("id") Long id) {
+    public ResponseEntity<?> cancel(@PathVariable("id") Long id,
+                                    @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) {
+        if (sessionUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Sign in to cancel a reservation");
+        }
         return reservationRepository.findById(id).map(r -> {
+            if (!sessionUser.isAdmin() && !isOwner(r, sessionUser)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Cannot cancel another user's reservation");
+            }
             // Allow cancelling only if the reservation has not yet started (upcoming-only rule)
             try {
                 if (r.getStartAt() != null) {
@@ -241,29 +524,31 @@ public class ReservationsController {
             } catch (Exception ignore) {
                 // If time comparison fails, proceed rather than block
             }
+            boolean wasConfirmed = "CONFIRMED".equals(r.getStatus());
             r.setStatus("CANCELLED");
             reservationRepository.save(r);
+            statsService.markDirty();
             // If a reservation is cancelled, recompute room availability
             SalleEntity salle = r.getSalle();
             if (salle != null) {
-                updateRoomAvailability(salle);
+                untrackConfirmed(r.getId(), salle.getId(), r.getStartAt(), r.getEndAt());
+                if (wasConfirmed) occupancyRollups.remove(r.getId(), salle.getId(), r.getStartAt(), r.getEndAt());
+                updateRoomAvailability(salle.getId());
             }
             return ResponseEntity.ok().build();
         }).orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     @PostMapping("/{id}/approve")
-    public ResponseEntity<?> approve(@PathVariable("id") Long id) {
+    public ResponseEntity<?> approve(@PathVariable("id") Long id,
+                                     @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) {
+        ResponseEntity<?> denied = checkAdmin(sessionUser, "approve reservations");
+        if (denied != null) return denied;
         return reservationRepository.findById(id).map(r -> {
             // Prevent approving a reservation that overlaps another already CONFIRMED reservation for the same room/time
             try {
                 if (r.getSalle() != null && r.getStartAt() != null && r.getEndAt() != null) {
-                    long overlaps = reservationRepository.countOverlaps(
-                            r.getSalle().getId(),
-                            r.getStartAt(),
-                            r.getEndAt(),
-                            java.util.Arrays.asList("CONFIRMED")
-                    );
+                    long overlaps = countConfirmedOverlaps(r.getSalle().getId(), r.getStartAt(), r.getEndAt());
                     if (overlaps > 0) {
                         return ResponseEntity.status(HttpStatus.CONFLICT)
                                 .body("Room already booked in the requested interval");
@@ -272,52 +557,76 @@ public class ReservationsController {
             } catch (Exception ignore) {
                 // If overlap check fails unexpectedly, we proceed to avoid blocking admin
             }
+            boolean wasConfirmed = "CONFIRMED".equals(r.getStatus());
             r.setStatus("CONFIRMED");
             reservationRepository.save(r);
+            statsService.markDirty();
             // On approve, set room availability based on capacity vs confirmed reservations
             SalleEntity salle = r.getSalle();
             if (salle != null) {
-                updateRoomAvailability(salle);
+                trackConfirmed(r.getId(), salle.getId(), r.getStartAt(), r.getEndAt());
+                if (!wasConfirmed) occupancyRollups.add(r.getId(), salle.getId(), r.getStartAt(), r.getEndAt());
+                updateRoomAvailability(salle.getId());
             }
             return ResponseEntity.ok().build();
         }).orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     @PostMapping("/{id}/reject")
-    public ResponseEntity<?> reject(@PathVariable("id") Long id) {
+    public ResponseEntity<?> reject(@PathVariable("id") Long id,
+                                    @RequestAttribute(value = SessionUser.REQUEST_ATTRIBUTE, required = false) SessionUser sessionUser) {
+        ResponseEntity<?> denied = checkAdmin(sessionUser, "reject reservations");
+        if (denied != null) return denied;
         return reservationRepository.findById(id).map(r -> {
+            boolean wasConfirmed = "CONFIRMED".equals(r.getStatus());
             r.setStatus("CANCELLED");
             reservationRepository.save(r);
+            statsService.markDirty();
             // Recompute room availability after rejection
             SalleEntity salle = r.getSalle();
             if (salle != null) {
-                updateRoomAvailability(salle);
+                untrackConfirmed(r.getId(), salle.getId(), r.getStartAt(), r.getEndAt());
+                if (wasConfirmed) occupancyRollups.remove(r.getId(), salle.getId(), r.getStartAt(), r.getEndAt());
+                updateRoomAvailability(salle.getId());
             }
             return ResponseEntity.ok().build();
         }).orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
-    private ReservationDTO toDto(ReservationEntity r) {
+    /**
+     * Confirmed bookings of the room overlapping [start, end). Served from the in-memory index once it
+     * is loaded; the JPQL query remains the fallback and the source of truth.
+     */
+    private long countConfirmedOverlaps(Long salleId, LocalDateTime start, LocalDateTime end) {
+        if (confirmedIndex.isLoaded()) {
+            return confirmedIndex.countOverlaps(salleId, start, end);
+        }
+        return reservationRepository.countOverlaps(salleId, start, end, java.util.Arrays.asList("CONFIRMED"));
+    }
+
+    static ReservationDTO toDto(ReservationSummary r) {
         ReservationDTO dto = new ReservationDTO();
         dto.id = r.getId();
-        dto.userId = null;
+        dto.userId = r.getUserId() == null ? null : String.valueOf(r.getUserId());
         dto.userName = r.getClient();
-        SalleEntity salle = r.getSalle();
-        if (salle != null) {
-            dto.roomId = String.valueOf(salle.getId());
-            dto.roomName = salle.getName();
-            dto.location = salle.getLocation();
-        }
-        if (r.getStartAt() != null) {
-            dto.date = r.getStartAt().toLocalDate().toString();
-            dto.startTime = r.getStartAt().toLocalTime().toString();
-        } else if (r.getCreatedAt() != null) {
+        if (r.getSalleId() != null) {
+            dto.roomId = String.valueOf(r.getSalleId());
+            dto.roomName = r.getRoomName();
+            dto.location = r.getLocation();
+        }
+        LocalDateTime startAt = r.getStartAt();
+        LocalDateTime createdAt = r.getCreatedAt();
+        LocalDateTime endAt = r.getEndAt();
+        if (startAt != null) {
+            dto.date = startAt.toLocalDate().toString();
+            dto.startTime = startAt.toLocalTime().toString();
+        } else if (createdAt != null) {
             // Fallback to createdAt to avoid "Invalid Date" and missing start time for legacy rows
-            dto.date = r.getCreatedAt().toLocalDate().toString();
-            dto.startTime = r.getCreatedAt().toLocalTime().withSecond(0).withNano(0).toString();
+            dto.date = createdAt.toLocalDate().toString();
+            dto.startTime = createdAt.toLocalTime().withSecond(0).withNano(0).toString();
         }
-        if (r.getEndAt() != null) {
-            dto.endTime = r.getEndAt().toLocalTime().toString();
+        if (endAt != null) {
+            dto.endTime = endAt.toLocalTime().toString();
         } else if (dto.startTime != null && !dto.startTime.isEmpty()) {
             // Provide a minimal endTime fallback (same as startTime) to avoid rendering "-"
             dto.endTime = dto.startTime;
@@ -326,22 +635,33 @@ public class ReservationsController {
         return dto;
     }
 
+    // Keep the in-memory views of CONFIRMED reservations in step with the database
+    private void trackConfirmed(Long reservationId, Long salleId, LocalDateTime startAt, LocalDateTime endAt) {
+        confirmedIndex.add(reservationId, salleId, startAt, endAt);
+        occupancyCounters.track(reservationId, salleId, endAt);
+        availabilityCache.invalidate(salleId, startAt, endAt);
+    }
+
+    private void untrackConfirmed(Long reservationId, Long salleId, LocalDateTime startAt, LocalDateTime endAt) {
+        confirmedIndex.remove(reservationId, salleId);
+        occupancyCounters.untrack(reservationId);
+        availabilityCache.invalidate(salleId, startAt, endAt);
+    }
+
     /**
-     * Toggle a room's availability based on the number of CONFIRMED reservations versus its capacity.
-     * For now, we consider all confirmed reservations (simple policy). If confirmedCount >= capacity, available=false.
-     * Otherwise available=true.
+     * Toggle a room's availability based on the number of CONFIRMED reservations that have not ended
+     * yet versus its capacity. If that count >= capacity, available=false; otherwise available=true.
+     * The count comes from the in-memory counters (O(1)); the flag is written in one statement that
+     * only touches the row when the value changes.
      */
-    private void updateRoomAvailability(SalleEntity salle) {
+    private void updateRoomAvailability(Long salleId) {
         try {
-            Long salleId = salle.getId();
-            int capacity = salle.getCapacity();
-            List<ReservationEntity> confirmed = reservationRepository.findBySalle_IdAndStatus(salleId, "CONFIRMED");
-            boolean available = confirmed.size() < capacity;
-            // Only update if changed to reduce writes
-            if (salle.isAvailable() != available) {
-                salle.setAvailable(available);
-                salleRepository.save(salle);
-            }
+            long active = occupancyCounters.isLoaded()
+                    ? occupancyCounters.activeCount(salleId)
+                    : reservationRepository.countActiveConfirmed(salleId, LocalDateTime.now());
+            int flipped = jdbcTemplate.update("UPDATE salles SET available = (capacite > ?) WHERE id = ? AND available <> (capacite > ?)",
+                    active, salleId, active);
+            if (flipped > 0) catalogMirror.catalogChanged();
         } catch (Exception ignore) {
             // Do not fail the request if availability recomputation fails
         }
@@ -0,0 +1,23 @@
+package com.example.coworking.rest.controller;
+
+import com.example.coworking.rest.rmi.RmiNode;
+import com.example.coworking.rest.rmi.ShardedSalleService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rmi/nodes")
+@CrossOrigin(origins = "*")
+public class RmiNodesController {
+    private final ShardedSalleService salleService;
+
+    public RmiNodesController(ShardedSalleService salleService) {
+        this.salleService = salleService;
+    }
+
+    @GetMapping
+    public List<RmiNode.Stats> get() {
+        return salleService.stats();
+    }
+}
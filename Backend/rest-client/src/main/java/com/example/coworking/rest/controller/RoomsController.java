@@ -1,18 +1,24 @@
 package com.example.coworking.rest.controller;
-import com.example.coworking.rest.reservation.ReservationEntity;
-import com.example.coworking.rest.reservation.ReservationRepository;
+import com.example.coworking.rest.room.AvailabilityCache;
+import com.example.coworking.rest.room.CatalogMirror;
+import com.example.coworking.rest.room.RoomAvailabilityService;
+import com.example.coworking.rest.stats.StatsService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.web.bind.annotation.*;
 
 import java.sql.PreparedStatement;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
 import java.sql.Types;
 
@@ -20,45 +26,21 @@ import java.sql.Types;
 @RequestMapping("/api/rooms")
 @CrossOrigin(origins = "*")
 public class RoomsController {
+    private static final int MAX_GRID_DAYS = 31;
+
     private final JdbcTemplate jdbcTemplate;
-    private final ReservationRepository reservationRepository;
+    private final RoomAvailabilityService availabilityService;
+    private final AvailabilityCache availabilityCache;
+    private final StatsService statsService;
+    private final CatalogMirror catalogMirror;
 
-    public RoomsController(JdbcTemplate jdbcTemplate, ReservationRepository reservationRepository) {
+    public RoomsController(JdbcTemplate jdbcTemplate, RoomAvailabilityService availabilityService,
+                           AvailabilityCache availabilityCache, StatsService statsService, CatalogMirror catalogMirror) {
         this.jdbcTemplate = jdbcTemplate;
-        this.reservationRepository = reservationRepository;
-    }
-
-    private void ensureSchema() {
-        try {
-            jdbcTemplate.execute(
-                    "CREATE TABLE IF NOT EXISTS salles (" +
-                            "id BIGINT PRIMARY KEY AUTO_INCREMENT," +
-                            "nom VARCHAR(255) NOT NULL," +
-                            "capacite INT NOT NULL" +
-                            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
-            );
-        } catch (Exception ignored) {}
-        try {
-            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN location VARCHAR(80)");
-        } catch (Exception ignored) {}
-        try {
-            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN image_url VARCHAR(512)");
-        } catch (Exception ignored) {}
-        try {
-            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN available TINYINT(1) NOT NULL DEFAULT 1");
-        } catch (Exception ignored) {}
-        try {
-            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS room_amenities (" +
-                    "room_id BIGINT NOT NULL, " +
-                    "name VARCHAR(60) NOT NULL, " +
-                    "PRIMARY KEY (room_id, name), " +
-                    "CONSTRAINT fk_room_amenities_room FOREIGN KEY (room_id) REFERENCES salles(id) ON DELETE CASCADE" +
-                    ")");
-        } catch (Exception ignored) {}
-        // Ensure optional pricing column exists
-        try {
-            jdbcTemplate.execute("ALTER TABLE salles ADD COLUMN price_per_hour DECIMAL(10,2) NULL");
-        } catch (Exception ignored) {}
+        this.availabilityService = availabilityService;
+        this.availabilityCache = availabilityCache;
+        this.statsService = statsService;
+        this.catalogMirror = catalogMirror;
     }
 
     public static class AvailabilitySlot {
@@ -78,44 +60,22 @@ public class RoomsController {
     @GetMapping("/{id}/availability")
     public ResponseEntity<?> availability(@PathVariable("id") Long id,
                                           @RequestParam("date") String dateStr) {
-        ensureSchema();
         LocalDate date;
         try {
             date = LocalDate.parse(dateStr);
         } catch (Exception ex) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid date format (expected YYYY-MM-DD)");
         }
-        // Load capacity
-        Integer capacity = null;
-        try {
-            capacity = jdbcTemplate.queryForObject("SELECT capacite FROM salles WHERE id=?", new Object[]{id}, Integer.class);
-        } catch (Exception ignored) {}
-        if (capacity == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Room not found");
-
-        LocalDateTime dayStart = date.atStartOfDay();
-        LocalDateTime dayEnd = date.atTime(LocalTime.of(23, 59, 59));
-        // Capacity rule counts only APPROVED (CONFIRMED) reservations
-        List<ReservationEntity> dayRes = reservationRepository.findForDay(id, dayStart, dayEnd,
-                Arrays.asList("CONFIRMED"));
+        final LocalDate day = date;
+        RoomAvailabilityService.RoomGrid g = availabilityCache.get(id, day, () -> {
+            List<RoomAvailabilityService.RoomGrid> grids = availabilityService.compute(day, day, null, id);
+            return grids.isEmpty() ? null : grids.get(0);
+        });
+        if (g == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Room not found");
 
-        // Build 30-min slots between 08:00 and 20:00
-        List<AvailabilitySlot> slots = new ArrayList<>();
-        LocalTime t = LocalTime.of(8, 0);
-        LocalTime close = LocalTime.of(20, 0);
-        while (t.isBefore(close)) {
-            LocalTime tEnd = t.plusMinutes(30);
-            LocalDateTime s = LocalDateTime.of(date, t);
-            LocalDateTime e = LocalDateTime.of(date, tEnd);
-            int overlapCount = 0;
-            for (ReservationEntity r : dayRes) {
-                if (r.getStartAt() != null && r.getEndAt() != null) {
-                    boolean overlaps = r.getStartAt().isBefore(e) && r.getEndAt().isAfter(s);
-                    if (overlaps) overlapCount++;
-                }
-            }
-            boolean available = overlapCount < capacity;
-            slots.add(new AvailabilitySlot(t.toString(), tEnd.toString(), available));
-            t = tEnd;
+        List<AvailabilitySlot> slots = new ArrayList<>(g.slotsPerDay);
+        for (int i = 0; i < g.slotsPerDay; i++) {
+            slots.add(new AvailabilitySlot(g.slotStart(i).toString(), g.slotStart(i + 1).toString(), g.isAvailable(0, i)));
         }
         AvailabilityResponse resp = new AvailabilityResponse();
         resp.date = date.toString();
@@ -123,6 +83,94 @@ public class RoomsController {
         return ResponseEntity.ok(resp);
     }
 
+    @GetMapping("/availability/cache")
+    public Map<String, Object> availabilityCacheStats() {
+        return availabilityCache.stats();
+    }
+
+    // Turn the availability cache on/off at runtime, e.g. to compare latency with and without it
+    @PostMapping("/availability/cache")
+    public Map<String, Object> setAvailabilityCache(@RequestParam("enabled") boolean enabled) {
+        availabilityCache.setEnabled(enabled);
+        return availabilityCache.stats();
+    }
+
+    public static class DayGrid {
+        public String date;
+        // Confirmed bookings per slot, in slot order
+        public int[] occupancy;
+        // One character per slot: '1' = bookable (occupancy below capacity), '0' = full
+        public String availability;
+    }
+
+    public static class RoomAvailabilityGrid {
+        public Long roomId;
+        public String name;
+        public String location;
+        public int capacity;
+        public String openTime;
+        public String closeTime;
+        public int slotMinutes;
+        public List<DayGrid> days;
+    }
+
+    public static class AvailabilityGridResponse {
+        public String from;
+        public String to;
+        public List<RoomAvailabilityGrid> rooms;
+    }
+
+    /**
+     * Availability of many rooms over a date range in one response (at most MAX_GRID_DAYS days).
+     * Each room uses its own opening hours and slot size.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> availabilityGrid(@RequestParam("from") String fromStr,
+                                              @RequestParam(value = "to", required = false) String toStr,
+                                              @RequestParam(value = "location", required = false) String location) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(fromStr);
+            to = (toStr == null || toStr.trim().isEmpty()) ? from : LocalDate.parse(toStr);
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid date format (expected YYYY-MM-DD)");
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_GRID_DAYS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Date range must be ordered and span at most " + MAX_GRID_DAYS + " days");
+        }
+        String loc = (location == null || location.trim().isEmpty()) ? null : location.trim();
+
+        List<RoomAvailabilityGrid> rooms = new ArrayList<>();
+        for (RoomAvailabilityService.RoomGrid g : availabilityService.compute(from, to, loc, null)) {
+            RoomAvailabilityGrid rg = new RoomAvailabilityGrid();
+            rg.roomId = g.roomId;
+            rg.name = g.name;
+            rg.location = g.location;
+            rg.capacity = g.capacity;
+            rg.openTime = g.open.toString();
+            rg.closeTime = g.close.toString();
+            rg.slotMinutes = g.slotMinutes;
+            rg.days = new ArrayList<>(g.occupancy.length);
+            for (int d = 0; d < g.occupancy.length; d++) {
+                DayGrid day = new DayGrid();
+                day.date = from.plusDays(d).toString();
+                day.occupancy = Arrays.copyOf(g.occupancy[d], g.slotsPerDay);
+                char[] bits = new char[g.slotsPerDay];
+                for (int i = 0; i < bits.length; i++) bits[i] = g.isAvailable(d, i) ? '1' : '0';
+                day.availability = new String(bits);
+                rg.days.add(day);
+            }
+            rooms.add(rg);
+        }
+        AvailabilityGridResponse resp = new AvailabilityGridResponse();
+        resp.from = from.toString();
+        resp.to = to.toString();
+        resp.rooms = rooms;
+        return ResponseEntity.ok(resp);
+    }
+
     // Local DTO to avoid classpath/version conflicts with the shared RMI DTO
     public static class RoomDTO {
         private Long id;
@@ -134,6 +182,10 @@ public class RoomsController {
         private boolean available;
         // Optional hourly price; null means not set
         private BigDecimal pricePerHour;
+        // Opening hours (HH:mm) and slot size for availability; null means the defaults apply
+        private String openTime;
+        private String closeTime;
+        private Integer slotMinutes;
 
         public Long getId() { return id; }
         public void setId(Long id) { this.id = id; }
@@ -151,88 +203,72 @@ public class RoomsController {
         public void setAvailable(boolean available) { this.available = available; }
         public BigDecimal getPricePerHour() { return pricePerHour; }
         public void setPricePerHour(BigDecimal pricePerHour) { this.pricePerHour = pricePerHour; }
+        public String getOpenTime() { return openTime; }
+        public void setOpenTime(String openTime) { this.openTime = openTime; }
+        public String getCloseTime() { return closeTime; }
+        public void setCloseTime(String closeTime) { this.closeTime = closeTime; }
+        public Integer getSlotMinutes() { return slotMinutes; }
+        public void setSlotMinutes(Integer slotMinutes) { this.slotMinutes = slotMinutes; }
+    }
+
+    private static final String ROOM_COLUMNS =
+            "id, nom, capacite, location, image_url, available, price_per_hour, open_time, close_time, slot_minutes";
+
+    private static final RowMapper<RoomDTO> ROOM_ROW_MAPPER = (rs, rowNum) -> {
+        RoomDTO dto = new RoomDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setName(rs.getString("nom"));
+        dto.setCapacity(rs.getInt("capacite"));
+        dto.setLocation(rs.getString("location"));
+        dto.setImageUrl(rs.getString("image_url"));
+        // Legacy rows may hold NULL; treat as available
+        boolean available = rs.getBoolean("available");
+        dto.setAvailable(available || rs.wasNull());
+        dto.setPricePerHour(rs.getBigDecimal("price_per_hour"));
+        java.sql.Time open = rs.getTime("open_time");
+        java.sql.Time close = rs.getTime("close_time");
+        dto.setOpenTime(open == null ? null : open.toLocalTime().toString());
+        dto.setCloseTime(close == null ? null : close.toLocalTime().toString());
+        int slot = rs.getInt("slot_minutes");
+        dto.setSlotMinutes(rs.wasNull() ? null : slot);
+        dto.setAmenities(new ArrayList<>());
+        return dto;
+    };
+
+    /**
+     * Loads rooms with their amenities in two set-based queries (rooms, then the matching
+     * amenity rows) and groups the amenities in memory. A null id loads the whole catalog.
+     */
+    private List<RoomDTO> loadRooms(Long id) {
+        List<RoomDTO> rooms = id == null
+                ? jdbcTemplate.query("SELECT " + ROOM_COLUMNS + " FROM salles ORDER BY id", ROOM_ROW_MAPPER)
+                : jdbcTemplate.query("SELECT " + ROOM_COLUMNS + " FROM salles WHERE id = ?", ROOM_ROW_MAPPER, id);
+        if (rooms.isEmpty()) return rooms;
+
+        Map<Long, RoomDTO> byId = new HashMap<>();
+        for (RoomDTO r : rooms) byId.put(r.getId(), r);
+        RowCallbackHandler collect = rs -> {
+            RoomDTO r = byId.get(rs.getLong(1));
+            if (r != null) r.getAmenities().add(rs.getString(2));
+        };
+        if (id == null) {
+            jdbcTemplate.query("SELECT room_id, name FROM room_amenities ORDER BY room_id, name", collect);
+        } else {
+            jdbcTemplate.query("SELECT room_id, name FROM room_amenities WHERE room_id = ? ORDER BY name", collect, id);
+        }
+        return rooms;
     }
 
     @GetMapping
     public List<RoomDTO> getAll() {
-        ensureSchema();
-        // Fetch base room data
-        List<RoomDTO> list = jdbcTemplate.query(
-                "SELECT * FROM salles",
-                (rs, rowNum) -> {
-                    RoomDTO dto = new RoomDTO();
-                    dto.setId(rs.getLong("id"));
-                    // name may be stored as 'nom' or 'name'
-                    try { dto.setName(rs.getString("nom")); } catch (Exception ignore) {
-                        try { dto.setName(rs.getString("name")); } catch (Exception ignored) { dto.setName("Room " + rs.getLong("id")); }
-                    }
-                    // capacity as 'capacite' or 'capacity'
-                    try { dto.setCapacity(rs.getInt("capacite")); } catch (Exception ignore) {
-                        try { dto.setCapacity(rs.getInt("capacity")); } catch (Exception ignored) { dto.setCapacity(0); }
-                    }
-                    try { dto.setLocation(rs.getString("location")); } catch (Exception ignore) { dto.setLocation(null); }
-                    try { dto.setImageUrl(rs.getString("image_url")); } catch (Exception ignore) { dto.setImageUrl(null); }
-                    try { dto.setPricePerHour(rs.getBigDecimal("price_per_hour")); } catch (Exception ignore) { dto.setPricePerHour(null); }
-                    boolean available = true;
-                    try { available = (rs.getObject("available") == null) ? true : rs.getBoolean("available"); } catch (Exception ignore) {}
-                    dto.setAvailable(available);
-                    dto.setAmenities(new ArrayList<>());
-                    return dto;
-                }
-        );
-        // Load amenities for each (ignore if table missing)
-        for (RoomDTO dto : list) {
-            try {
-                List<String> am = jdbcTemplate.query(
-                        "SELECT name FROM room_amenities WHERE room_id = ?",
-                        ps -> ps.setLong(1, dto.getId()),
-                        (rs, rn) -> rs.getString("name")
-                );
-                dto.setAmenities(am);
-            } catch (Exception ignored) {
-                dto.setAmenities(new ArrayList<>());
-            }
-        }
-        return list;
+        return loadRooms(null);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<RoomDTO> getById(@PathVariable("id") Long id) {
-        ensureSchema();
-        List<RoomDTO> res = jdbcTemplate.query(
-                "SELECT * FROM salles WHERE id = ?",
-                ps -> ps.setLong(1, id),
-                (rs, rowNum) -> {
-                    RoomDTO dto = new RoomDTO();
-                    dto.setId(rs.getLong("id"));
-                    try { dto.setName(rs.getString("nom")); } catch (Exception ignore) {
-                        try { dto.setName(rs.getString("name")); } catch (Exception ignored) { dto.setName("Room " + rs.getLong("id")); }
-                    }
-                    try { dto.setCapacity(rs.getInt("capacite")); } catch (Exception ignore) {
-                        try { dto.setCapacity(rs.getInt("capacity")); } catch (Exception ignored) { dto.setCapacity(0); }
-                    }
-                    try { dto.setLocation(rs.getString("location")); } catch (Exception ignore) { dto.setLocation(null); }
-                    try { dto.setImageUrl(rs.getString("image_url")); } catch (Exception ignore) { dto.setImageUrl(null); }
-                    boolean available = true;
-                    try { available = (rs.getObject("available") == null) ? true : rs.getBoolean("available"); } catch (Exception ignore) {}
-                    dto.setAvailable(available);
-                    try { dto.setPricePerHour(rs.getBigDecimal("price_per_hour")); } catch (Exception ignore) { dto.setPricePerHour(null); }
-                    return dto;
-                }
-        );
+        List<RoomDTO> res = loadRooms(id);
         if (res.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        RoomDTO dto = res.get(0);
-        try {
-            List<String> am = jdbcTemplate.query(
-                    "SELECT name FROM room_amenities WHERE room_id = ?",
-                    ps -> ps.setLong(1, id),
-                    (rs, rn) -> rs.getString("name")
-            );
-            dto.setAmenities(am);
-        } catch (Exception ignored) {
-            dto.setAmenities(new ArrayList<>());
-        }
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(res.get(0));
     }
 
     public static class RoomRequest {
@@ -244,18 +280,41 @@ public class RoomsController {
         public Boolean available;
         // Optional hourly price; null means unset; 0 is valid
         public BigDecimal pricePerHour;
+        // Optional opening hours (HH:mm) and slot size in minutes
+        public String openTime;
+        public String closeTime;
+        public Integer slotMinutes;
+    }
+
+    // Validates the optional hours/slot fields; returns null when they are usable
+    private static String invalidSchedule(RoomRequest req) {
+        try {
+            LocalTime open = req.openTime == null ? null : LocalTime.parse(req.openTime);
+            LocalTime close = req.closeTime == null ? null : LocalTime.parse(req.closeTime);
+            if (open != null && close != null && !close.isAfter(open)) return "closeTime must be after openTime";
+        } catch (Exception ex) {
+            return "Invalid openTime/closeTime (expected HH:mm)";
+        }
+        if (req.slotMinutes != null && (req.slotMinutes < 5 || req.slotMinutes > 240)) {
+            return "slotMinutes must be between 5 and 240";
+        }
+        return null;
+    }
+
+    private static java.sql.Time toSqlTime(String hhmm) {
+        return hhmm == null ? null : java.sql.Time.valueOf(LocalTime.parse(hhmm));
     }
 
     @PostMapping
     public ResponseEntity<RoomDTO> create(@RequestBody RoomRequest req) {
-        if (req == null || req.name == null || req.location == null || req.capacity == null) {
+        if (req == null || req.name == null || req.location == null || req.capacity == null || invalidSchedule(req) != null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
-        ensureSchema();
         // Insert with reliable generated key retrieval on the same connection
         Long id = jdbcTemplate.execute((java.sql.Connection con) -> {
             try (PreparedStatement ps = con.prepareStatement(
-                    "INSERT INTO salles(nom, capacite, location, image_url, available, price_per_hour) VALUES (?,?,?,?,?,?)",
+                    "INSERT INTO salles(nom, capacite, location, image_url, available, price_per_hour, open_time, close_time, slot_minutes) " +
+                            "VALUES (?,?,?,?,?,?,?,?,?)",
                     java.sql.Statement.RETURN_GENERATED_KEYS)) {
                 ps.setString(1, req.name);
                 ps.setInt(2, req.capacity);
@@ -263,6 +322,9 @@ public class RoomsController {
                 ps.setString(4, req.imageUrl);
                 ps.setBoolean(5, req.available == null ? true : req.available);
                 if (req.pricePerHour == null) ps.setNull(6, Types.DECIMAL); else ps.setBigDecimal(6, req.pricePerHour);
+                ps.setTime(7, toSqlTime(req.openTime));
+                ps.setTime(8, toSqlTime(req.closeTime));
+                if (req.slotMinutes == null) ps.setNull(9, Types.INTEGER); else ps.setInt(9, req.slotMinutes);
                 ps.executeUpdate();
                 try (java.sql.ResultSet rs = ps.getGeneratedKeys()) {
                     if (rs != null && rs.next()) return rs.getLong(1);
@@ -283,6 +345,8 @@ public class RoomsController {
                 } catch (Exception ignore) { /* join table may be missing; schema initializer should have created it */ }
             }
         }
+        statsService.markDirty();
+        catalogMirror.catalogChanged();
         // Build DTO
         RoomDTO dto = new RoomDTO();
         if (id != null) dto.setId(id);
@@ -293,12 +357,15 @@ public class RoomsController {
         dto.setImageUrl(req.imageUrl);
         dto.setAvailable(req.available == null ? true : req.available);
         dto.setPricePerHour(req.pricePerHour);
+        dto.setOpenTime(req.openTime);
+        dto.setCloseTime(req.closeTime);
+        dto.setSlotMinutes(req.slotMinutes);
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<RoomDTO> update(@PathVariable("id") Long id, @RequestBody RoomRequest req) {
-        ensureSchema();
+        if (invalidSchedule(req) != null) return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         // Check exists
         Integer exists = jdbcTemplate.queryForObject("SELECT COUNT(1) FROM salles WHERE id=?", new Object[]{id}, Integer.class);
         if (exists == null || exists == 0) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -312,8 +379,15 @@ public class RoomsController {
         if (req.imageUrl != null) { sql.append(first?"":" ,").append("image_url=?"); params.add(req.imageUrl); first=false; }
         if (req.available != null) { sql.append(first?"":" ,").append("available=?"); params.add(req.available); first=false; }
         if (req.pricePerHour != null) { sql.append(first?"":" ,").append("price_per_hour=?"); params.add(req.pricePerHour); first=false; }
+        if (req.openTime != null) { sql.append(first?"":" ,").append("open_time=?"); params.add(toSqlTime(req.openTime)); first=false; }
+        if (req.closeTime != null) { sql.append(first?"":" ,").append("close_time=?"); params.add(toSqlTime(req.closeTime)); first=false; }
+        if (req.slotMinutes != null) { sql.append(first?"":" ,").append("slot_minutes=?"); params.add(req.slotMinutes); first=false; }
         sql.append(" WHERE id=?"); params.add(id);
         if (!first) jdbcTemplate.update(sql.toString(), params.toArray());
+        statsService.markDirty();
+        if (req.capacity != null || req.openTime != null || req.closeTime != null || req.slotMinutes != null) {
+            availabilityCache.invalidateRoom(id);
+        }
         // Update amenities if provided
         if (req.amenities != null) {
             jdbcTemplate.update("DELETE FROM room_amenities WHERE room_id=?", id);
@@ -322,16 +396,19 @@ public class RoomsController {
                 jdbcTemplate.update("INSERT INTO room_amenities(room_id, name) VALUES (?,?)", id, a.trim());
             }
         }
+        catalogMirror.catalogChanged();
         return getById(id);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable("id") Long id) {
-        ensureSchema();
         Integer exists = jdbcTemplate.queryForObject("SELECT COUNT(1) FROM salles WHERE id=?", new Object[]{id}, Integer.class);
         if (exists == null || exists == 0) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         jdbcTemplate.update("DELETE FROM room_amenities WHERE room_id=?", id);
         jdbcTemplate.update("DELETE FROM salles WHERE id=?", id);
+        availabilityCache.invalidateRoom(id);
+        statsService.markDirty();
+        catalogMirror.catalogChanged();
         return ResponseEntity.noContent().build();
     }
 }
@@ -3,6 +3,7 @@ package com.example.coworking.rest.controller;
 import com.example.coworking.common.ReservationResult;
 import com.example.coworking.common.SalleDTO;
 import com.example.coworking.common.SalleService;
+import com.example.coworking.rest.room.CatalogMirror;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,14 +13,17 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class SalleController {
     private final SalleService salleService;
+    private final CatalogMirror catalogMirror;
 
-    public SalleController(SalleService salleService) {
+    public SalleController(SalleService salleService, CatalogMirror catalogMirror) {
         this.salleService = salleService;
+        this.catalogMirror = catalogMirror;
     }
 
+    // Served from the local mirror; only catalog changes travel over RMI
     @GetMapping
     public List<SalleDTO> getAllSalles() throws Exception {
-        return salleService.getAllSalles();
+        return catalogMirror.rooms();
     }
 
     @PostMapping("/reserver")
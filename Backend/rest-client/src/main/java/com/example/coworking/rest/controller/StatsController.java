@@ -0,0 +1,21 @@
+package com.example.coworking.rest.controller;
+
+import com.example.coworking.rest.stats.StatsService;
+import com.example.coworking.rest.stats.StatsSnapshot;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping
+    public StatsSnapshot get() {
+        return statsService.snapshot();
+    }
+}
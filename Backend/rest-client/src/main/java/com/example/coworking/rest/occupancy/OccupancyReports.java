@@ -0,0 +1,187 @@
+package com.example.coworking.rest.occupancy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read side of the occupancy rollups. Reports read only occupancy_hourly / occupancy_daily and the
+ * rooms table, never reservations, so their cost depends on the rooms and buckets in the requested
+ * range rather than on the size of the booking history.
+ *
+ * Utilization is booked minutes over capacity minutes (open minutes x room capacity), matching the
+ * capacity rule where a room admits up to {@code capacite} concurrent confirmed bookings.
+ */
+@Service
+public class OccupancyReports {
+    private static final String NO_LOCATION = "Unassigned";
+
+    public enum Granularity { HOUR, DAY }
+
+    public enum GroupBy { ROOM, LOCATION }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalTime defaultOpen;
+    private final LocalTime defaultClose;
+
+    public OccupancyReports(JdbcTemplate jdbcTemplate,
+                            @Value("${rooms.availability.open-time:08:00}") String defaultOpen,
+                            @Value("${rooms.availability.close-time:20:00}") String defaultClose) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultOpen = LocalTime.parse(defaultOpen);
+        this.defaultClose = LocalTime.parse(defaultClose);
+    }
+
+    public static class Point {
+        public String bucket; // yyyy-MM-ddTHH:mm for hours, yyyy-MM-dd for days
+        public long bookedMinutes;
+        public long openMinutes;
+        public double utilization;
+    }
+
+    public static class Group {
+        public String key; // room id or location
+        public String name;
+        public int rooms;
+        public long bookedMinutes;
+        public long openMinutes;
+        public long capacityMinutes;
+        public double utilization;
+        public List<Point> series = new ArrayList<>(); // buckets with bookings only
+
+        // Open and capacity minutes of the group per hour of day, and per day
+        final long[] openByHour = new long[24];
+        final long[] capacityByHour = new long[24];
+        long openPerDay;
+        long capacityPerDay;
+    }
+
+    public static class Report {
+        public String granularity;
+        public String groupBy;
+        public String from;
+        public String to;
+        public List<Group> groups = new ArrayList<>();
+    }
+
+    public Report report(Granularity granularity, GroupBy groupBy, LocalDate from, LocalDate to,
+                         Long roomId, String location) {
+        StringBuilder filter = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        if (roomId != null) { filter.append(" AND s.id = ?"); params.add(roomId); }
+        if (location != null) { filter.append(" AND s.location = ?"); params.add(location); }
+
+        Map<String, Group> groups = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT s.id, s.nom, s.location, s.capacite, s.open_time, s.close_time FROM salles s WHERE 1=1" + filter +
+                        (groupBy == GroupBy.ROOM ? " ORDER BY s.id" : " ORDER BY s.location, s.id"),
+                rs -> {
+                    String loc = rs.getString("location") == null ? NO_LOCATION : rs.getString("location");
+                    String key = groupBy == GroupBy.ROOM ? String.valueOf(rs.getLong("id")) : loc;
+                    Group g = groups.computeIfAbsent(key, k -> {
+                        Group n = new Group();
+                        n.key = k;
+                        return n;
+                    });
+                    g.name = groupBy == GroupBy.ROOM ? rs.getString("nom") : loc;
+                    g.rooms++;
+                    addOpenHours(g, rs.getTime("open_time"), rs.getTime("close_time"), rs.getInt("capacite"));
+                },
+                params.toArray());
+        if (groups.isEmpty()) return emptyReport(granularity, groupBy, from, to);
+
+        String keyColumn = groupBy == GroupBy.ROOM ? "s.id" : "s.location";
+        List<Object> seriesParams = new ArrayList<>();
+        String sql;
+        if (granularity == Granularity.HOUR) {
+            sql = "SELECT " + keyColumn + ", o.hour_start, SUM(o.booked_minutes) FROM occupancy_hourly o " +
+                    "JOIN salles s ON s.id = o.salle_id WHERE o.hour_start >= ? AND o.hour_start < ?" + filter +
+                    " GROUP BY " + keyColumn + ", o.hour_start ORDER BY 1, 2";
+            seriesParams.add(Timestamp.valueOf(from.atStartOfDay()));
+            seriesParams.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        } else {
+            sql = "SELECT " + keyColumn + ", o.day, SUM(o.booked_minutes) FROM occupancy_daily o " +
+                    "JOIN salles s ON s.id = o.salle_id WHERE o.day BETWEEN ? AND ?" + filter +
+                    " GROUP BY " + keyColumn + ", o.day ORDER BY 1, 2";
+            seriesParams.add(java.sql.Date.valueOf(from));
+            seriesParams.add(java.sql.Date.valueOf(to));
+        }
+        seriesParams.addAll(params);
+        jdbcTemplate.query(sql, rs -> {
+            String key = rs.getString(1) == null ? NO_LOCATION : rs.getString(1);
+            Group g = groups.get(key);
+            long booked = rs.getLong(3);
+            if (g == null || booked <= 0) return;
+            Point p = new Point();
+            p.bookedMinutes = booked;
+            long capacity;
+            if (granularity == Granularity.HOUR) {
+                Timestamp ts = rs.getTimestamp(2);
+                p.bucket = ts.toLocalDateTime().toString();
+                int hour = ts.toLocalDateTime().getHour();
+                p.openMinutes = g.openByHour[hour];
+                capacity = g.capacityByHour[hour];
+            } else {
+                p.bucket = rs.getDate(2).toLocalDate().toString();
+                p.openMinutes = g.openPerDay;
+                capacity = g.capacityPerDay;
+            }
+            p.utilization = ratio(booked, capacity);
+            g.series.add(p);
+            g.bookedMinutes += booked;
+        }, seriesParams.toArray());
+
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        Report r = emptyReport(granularity, groupBy, from, to);
+        for (Group g : groups.values()) {
+            g.openMinutes = g.openPerDay * days;
+            g.capacityMinutes = g.capacityPerDay * days;
+            g.utilization = ratio(g.bookedMinutes, g.capacityMinutes);
+            r.groups.add(g);
+        }
+        return r;
+    }
+
+    private void addOpenHours(Group g, Time openTime, Time closeTime, int capacity) {
+        LocalTime open = openTime == null ? defaultOpen : openTime.toLocalTime();
+        LocalTime close = closeTime == null ? defaultClose : closeTime.toLocalTime();
+        if (!close.isAfter(open)) {
+            open = defaultOpen;
+            close = defaultClose;
+        }
+        long perDay = Duration.between(open, close).toMinutes();
+        g.openPerDay += perDay;
+        g.capacityPerDay += perDay * capacity;
+        int openMin = open.toSecondOfDay() / 60;
+        int closeMin = close.toSecondOfDay() / 60;
+        for (int h = 0; h < 24; h++) {
+            int minutes = Math.max(0, Math.min(closeMin, (h + 1) * 60) - Math.max(openMin, h * 60));
+            g.openByHour[h] += minutes;
+            g.capacityByHour[h] += (long) minutes * capacity;
+        }
+    }
+
+    private static Report emptyReport(Granularity granularity, GroupBy groupBy, LocalDate from, LocalDate to) {
+        Report r = new Report();
+        r.granularity = granularity.name();
+        r.groupBy = groupBy.name();
+        r.from = from.toString();
+        r.to = to.toString();
+        return r;
+    }
+
+    private static double ratio(long booked, long capacity) {
+        return capacity <= 0 ? 0.0 : (double) booked / capacity;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.coworking.rest.occupancy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write side of the occupancy rollups: booked minutes of CONFIRMED reservations per room and hour
+ * (occupancy_hourly) and per room and day (occupancy_daily).
+ *
+ * Reservation state changes add or subtract their window incrementally with upserts. A rebuild
+ * recomputes the rollups from live and archived reservations room by room; it runs at startup when the
+ * rollups are empty, nightly to absorb any drift, and on demand for backfills.
+ *
+ * The booking is committed by the rmi-server before its delta arrives here, so a rebuild can run in
+ * between and already count it. Deltas are therefore idempotent per reservation: occupancy_applied
+ * holds the live reservations whose minutes are in the rollups, an add only applies when it inserts
+ * the reservation's row and a remove only when it deletes it, and a rebuild rewrites a room's rows in
+ * the same transaction as its buckets. Within one process the rebuild lock also keeps a delta from
+ * interleaving with a room rebuild; across several rest-client processes that interleaving can still
+ * lose or double one delta, which the nightly rebuild repairs.
+ */
+@Component
+public class OccupancyRollups {
+    private static final Logger log = LoggerFactory.getLogger(OccupancyRollups.class);
+
+    private static final String UPSERT_HOURLY =
+            "INSERT INTO occupancy_hourly (salle_id, hour_start, booked_minutes) VALUES (?,?,?) " +
+                    "ON DUPLICATE KEY UPDATE booked_minutes = booked_minutes + VALUES(booked_minutes)";
+    private static final String UPSERT_DAILY =
+            "INSERT INTO occupancy_daily (salle_id, day, booked_minutes) VALUES (?,?,?) " +
+                    "ON DUPLICATE KEY UPDATE booked_minutes = booked_minutes + VALUES(booked_minutes)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Incremental updates share the lock; a room rebuild takes it exclusively so no delta interleaves with it
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public OccupancyRollups(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /** Reservation {@code reservationId} of the room became CONFIRMED for [start, end). */
+    public void add(Long reservationId, Long salleId, LocalDateTime start, LocalDateTime end) {
+        apply(reservationId, salleId, start, end, 1);
+    }
+
+    /** CONFIRMED reservation {@code reservationId} of the room for [start, end) was cancelled or rejected. */
+    public void remove(Long reservationId, Long salleId, LocalDateTime start, LocalDateTime end) {
+        apply(reservationId, salleId, start, end, -1);
+    }
+
+    private void apply(Long reservationId, Long salleId, LocalDateTime start, LocalDateTime end, int sign) {
+        if (reservationId == null || salleId == null || start == null || end == null || !end.isAfter(start)) return;
+        Buckets b = new Buckets();
+        b.add(start, end);
+        rebuildLock.readLock().lock();
+        try {
+            transactionTemplate.execute(tx -> {
+                // Already counted (or already taken out) by a rebuild: nothing to apply
+                int marked = sign > 0
+                        ? jdbcTemplate.update("INSERT IGNORE INTO occupancy_applied (reservation_id, salle_id) VALUES (?,?)",
+                                reservationId, salleId)
+                        : jdbcTemplate.update("DELETE FROM occupancy_applied WHERE reservation_id = ?", reservationId);
+                if (marked > 0) write(salleId, b, sign);
+                return null;
+            });
+        } catch (Exception ex) {
+            // The nightly rebuild repairs the rollups; never fail the reservation request
+            log.warn("[ROLLUP] Could not update occupancy for room {}: {}", salleId, ex.getMessage());
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM occupancy_daily LIMIT 1) t", Integer.class);
+            if (rows != null && rows == 0) rebuild();
+        } catch (Exception ex) {
+            log.warn("[ROLLUP] Initial backfill skipped: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${occupancy.rollup.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("[ROLLUP] Scheduled rebuild failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes the rollups of every room from its CONFIRMED reservations. Each room is replaced in
+     * its own transaction, so readers always see a complete room and memory stays bounded by the
+     * hours spanned by a single room's bookings.
+     *
+     * @return the number of reservations rolled up
+     */
+    public synchronized int rebuild() {
+        long t0 = System.nanoTime();
+        List<Long> roomIds = jdbcTemplate.queryForList(
+                "SELECT id FROM salles UNION SELECT DISTINCT salle_id FROM occupancy_daily", Long.class);
+        int total = 0;
+        for (Long salleId : roomIds) {
+            total += rebuildRoom(salleId);
+        }
+        log.info("[ROLLUP] Rebuilt occupancy of {} room(s) from {} reservation(s) in {} ms",
+                roomIds.size(), total, (System.nanoTime() - t0) / 1_000_000);
+        return total;
+    }
+
+    private int rebuildRoom(Long salleId) {
+        rebuildLock.writeLock().lock();
+        try {
+            Integer counted = transactionTemplate.execute(tx -> {
+                Buckets b = new Buckets();
+                int[] n = {0};
+                List<Object[]> applied = new ArrayList<>();
+                // Archived reservations keep their history in the rollups; only live ones can still change
+                jdbcTemplate.query(
+                        "SELECT id, start_at, end_at, 1 FROM reservations " +
+                                "WHERE salle_id = ? AND status = 'CONFIRMED' AND start_at IS NOT NULL AND end_at > start_at " +
+                                "UNION ALL SELECT id, start_at, end_at, 0 FROM reservations_archive " +
+                                "WHERE salle_id = ? AND status = 'CONFIRMED' AND start_at IS NOT NULL AND end_at > start_at",
+                        rs -> {
+                            b.add(rs.getTimestamp(2).toLocalDateTime(), rs.getTimestamp(3).toLocalDateTime());
+                            if (rs.getInt(4) == 1) applied.add(new Object[]{rs.getLong(1), salleId});
+                            n[0]++;
+                        },
+                        salleId, salleId);
+                jdbcTemplate.update("DELETE FROM occupancy_hourly WHERE salle_id = ?", salleId);
+                jdbcTemplate.update("DELETE FROM occupancy_daily WHERE salle_id = ?", salleId);
+                jdbcTemplate.update("DELETE FROM occupancy_applied WHERE salle_id = ?", salleId);
+                write(salleId, b, 1);
+                jdbcTemplate.batchUpdate("INSERT INTO occupancy_applied (reservation_id, salle_id) VALUES (?,?)", applied);
+                return n[0];
+            });
+            return counted == null ? 0 : counted;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void write(Long salleId, Buckets b, int sign) {
+        List<Object[]> hourly = new ArrayList<>(b.hourly.size());
+        for (Map.Entry<LocalDateTime, Integer> e : b.hourly.entrySet()) {
+            hourly.add(new Object[]{salleId, Timestamp.valueOf(e.getKey()), sign * e.getValue()});
+        }
+        List<Object[]> daily = new ArrayList<>(b.daily.size());
+        for (Map.Entry<LocalDate, Integer> e : b.daily.entrySet()) {
+            daily.add(new Object[]{salleId, Date.valueOf(e.getKey()), sign * e.getValue()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_HOURLY, hourly);
+        jdbcTemplate.batchUpdate(UPSERT_DAILY, daily);
+    }
+
+    /** Booked minutes of one or more windows split on hour and day boundaries. */
+    static final class Buckets {
+        final Map<LocalDateTime, Integer> hourly = new TreeMap<>();
+        final Map<LocalDate, Integer> daily = new TreeMap<>();
+
+        void add(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+            while (hour.isBefore(end)) {
+                LocalDateTime next = hour.plusHours(1);
+                LocalDateTime from = start.isAfter(hour) ? start : hour;
+                LocalDateTime to = end.isBefore(next) ? end : next;
+                int minutes = (int) Duration.between(from, to).toMinutes();
+                if (minutes > 0) {
+                    hourly.merge(hour, minutes, Integer::sum);
+                    daily.merge(hour.toLocalDate(), minutes, Integer::sum);
+                }
+                hour = next;
+            }
+        }
+    }
+}
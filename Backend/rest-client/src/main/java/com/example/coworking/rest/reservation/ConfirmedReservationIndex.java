@@ -0,0 +1,211 @@
+package com.example.coworking.rest.reservation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of CONFIRMED reservation windows per room, used as the fast path for
+ * "how many confirmed bookings overlap [start, end)". The database stays the source of truth:
+ * the index is loaded from it at startup and kept current by the reservation write paths.
+ *
+ * A load builds a new map and swaps it in, so readers never see a partial index. Writes that arrive
+ * while the load query runs go to the current map and are also replayed onto the new one before the
+ * swap; adding and removing are idempotent, so a write the query already saw is harmless.
+ *
+ * Each room keeps its start and end instants in two independently sorted primitive arrays.
+ * Since every interval has start <= end, the overlap count is
+ * #(starts &lt; end) - #(ends &lt;= start), i.e. two binary searches.
+ */
+@Component
+public class ConfirmedReservationIndex {
+    private static final Logger log = LoggerFactory.getLogger(ConfirmedReservationIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Map<Long, RoomIntervals> rooms = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private List<Consumer<Map<Long, RoomIntervals>>> writesDuringLoad; // non-null while loading; guarded by this
+
+    public ConfirmedReservationIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            if (writesDuringLoad != null) return; // already loading
+            writesDuringLoad = new ArrayList<>();
+        }
+        Map<Long, RoomIntervals> fresh = new ConcurrentHashMap<>();
+        try {
+            jdbcTemplate.query(
+                    "SELECT id, salle_id, start_at, end_at FROM reservations " +
+                            "WHERE status = 'CONFIRMED' AND salle_id IS NOT NULL " +
+                            "AND start_at IS NOT NULL AND end_at IS NOT NULL",
+                    rs -> {
+                        fresh.computeIfAbsent(rs.getLong("salle_id"), k -> new RoomIntervals())
+                                .append(rs.getLong("id"), toKey(rs.getTimestamp("start_at")), toKey(rs.getTimestamp("end_at")));
+                    });
+        } catch (Exception ex) {
+            // Leave the index as it was; callers fall back to the database query while it is unloaded
+            log.warn("[INDEX] Could not load confirmed reservations: {}", ex.getMessage());
+            synchronized (this) {
+                writesDuringLoad = null;
+            }
+            return;
+        }
+        int total = 0;
+        for (RoomIntervals ri : fresh.values()) {
+            ri.sort();
+            total += ri.size;
+        }
+        synchronized (this) {
+            for (Consumer<Map<Long, RoomIntervals>> write : writesDuringLoad) write.accept(fresh);
+            writesDuringLoad = null;
+            rooms = fresh;
+        }
+        loaded = true;
+        log.info("[INDEX] Loaded {} confirmed reservation(s) across {} room(s)", total, fresh.size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Number of indexed confirmed reservations of the room intersecting [start, end).
+     */
+    public long countOverlaps(Long salleId, LocalDateTime start, LocalDateTime end) {
+        RoomIntervals ri = rooms.get(salleId);
+        return ri == null ? 0 : ri.countOverlaps(toKey(start), toKey(end));
+    }
+
+    public void add(Long reservationId, Long salleId, LocalDateTime start, LocalDateTime end) {
+        if (reservationId == null || salleId == null || start == null || end == null || end.isBefore(start)) return;
+        long from = toKey(start);
+        long to = toKey(end);
+        write(m -> m.computeIfAbsent(salleId, k -> new RoomIntervals()).insert(reservationId, from, to));
+    }
+
+    public void remove(Long reservationId, Long salleId) {
+        if (reservationId == null || salleId == null) return;
+        write(m -> {
+            RoomIntervals ri = m.get(salleId);
+            if (ri != null) ri.delete(reservationId);
+        });
+    }
+
+    // Applies a write to the current map, and remembers it for the new map while a load is running
+    private void write(Consumer<Map<Long, RoomIntervals>> change) {
+        Map<Long, RoomIntervals> target;
+        synchronized (this) {
+            if (writesDuringLoad != null) writesDuringLoad.add(change);
+            target = rooms;
+        }
+        change.accept(target);
+    }
+
+    static long toKey(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long toKey(Timestamp t) {
+        return toKey(t.toLocalDateTime());
+    }
+
+    /** Sorted start/end arrays for one room plus the window of each reservation for removal. */
+    private static final class RoomIntervals {
+        private long[] starts = new long[8];
+        private long[] ends = new long[8];
+        private int size;
+        private final Map<Long, long[]> byReservation = new HashMap<>();
+
+        // Bulk load only: values are sorted once at the end
+        void append(long id, long start, long end) {
+            if (end < start || byReservation.containsKey(id)) return;
+            ensureCapacity();
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+            byReservation.put(id, new long[]{start, end});
+        }
+
+        void sort() {
+            Arrays.sort(starts, 0, size);
+            Arrays.sort(ends, 0, size);
+        }
+
+        synchronized long countOverlaps(long start, long end) {
+            return lowerBound(starts, size, end) - upperBound(ends, size, start);
+        }
+
+        synchronized void insert(long id, long start, long end) {
+            if (byReservation.containsKey(id)) return;
+            ensureCapacity();
+            insertSorted(starts, size, start);
+            insertSorted(ends, size, end);
+            size++;
+            byReservation.put(id, new long[]{start, end});
+        }
+
+        synchronized void delete(long id) {
+            long[] w = byReservation.remove(id);
+            if (w == null) return;
+            removeSorted(starts, size, w[0]);
+            removeSorted(ends, size, w[1]);
+            size--;
+        }
+
+        private void ensureCapacity() {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+        }
+
+        private static void insertSorted(long[] a, int n, long v) {
+            int i = upperBound(a, n, v);
+            System.arraycopy(a, i, a, i + 1, n - i);
+            a[i] = v;
+        }
+
+        private static void removeSorted(long[] a, int n, long v) {
+            int i = lowerBound(a, n, v);
+            System.arraycopy(a, i + 1, a, i, n - i - 1);
+        }
+
+        // First index with a[i] >= v, i.e. the number of values < v
+        private static int lowerBound(long[] a, int n, long v) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < v) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        // First index with a[i] > v, i.e. the number of values <= v
+        private static int upperBound(long[] a, int n, long v) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] <= v) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.coworking.rest.reservation;
+
+import com.example.coworking.rest.stats.StatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves reservations that ended more than {@code reservations.archive.after-days} days ago from
+ * {@code reservations} to {@code reservations_archive}, in batches, each batch copied and deleted in
+ * one transaction. The booking hot paths (overlap counts, day views, the in-memory index) therefore
+ * only ever see the live set, while {@link ReservationQueries} reads both tables for reporting and
+ * "my reservations".
+ *
+ * The archive has the same columns as the live table plus archived_at; a column added to
+ * reservations must be added to the archive and to {@link #COLUMNS} as well.
+ */
+@Component
+public class ReservationArchiver {
+    private static final Logger log = LoggerFactory.getLogger(ReservationArchiver.class);
+
+    public static final String LIVE_TABLE = "reservations";
+    public static final String ARCHIVE_TABLE = "reservations_archive";
+    static final String COLUMNS = "id, client, user_id, created_at, start_at, end_at, status, salle_id";
+    /** Oldest ended rows, locked for one batch: (cutoff, batch size). Public for the query plan check. */
+    public static final String CANDIDATES_SQL =
+            "SELECT id, salle_id, status FROM " + LIVE_TABLE + " WHERE end_at < ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfirmedReservationIndex confirmedIndex;
+    private final StatsService statsService;
+    private final int afterDays;
+    private final int batchSize;
+
+    public ReservationArchiver(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               ConfirmedReservationIndex confirmedIndex,
+                               StatsService statsService,
+                               @Value("${reservations.archive.after-days:90}") int afterDays,
+                               @Value("${reservations.archive.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.confirmedIndex = confirmedIndex;
+        this.statsService = statsService;
+        this.afterDays = Math.max(1, afterDays);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(cron = "${reservations.archive.cron:0 15 3 * * *}")
+    public void scheduledArchive() {
+        try {
+            archive();
+        } catch (Exception ex) {
+            log.warn("[ARCHIVE] Scheduled archival failed: {}", ex.getMessage());
+        }
+    }
+
+    /** @return the number of reservations moved to the archive */
+    public synchronized int archive() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(afterDays));
+        int moved = 0;
+        while (true) {
+            Integer n = transactionTemplate.execute(tx -> archiveBatch(cutoff));
+            if (n == null || n == 0) break;
+            moved += n;
+            if (n < batchSize) break;
+        }
+        if (moved > 0) {
+            statsService.markArchiveDirty();
+            log.info("[ARCHIVE] Moved {} reservation(s) that ended before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    private int archiveBatch(Timestamp cutoff) {
+        List<Long> ids = new ArrayList<>();
+        List<Long[]> confirmed = new ArrayList<>();
+        // Lock the batch so a concurrent status change cannot slip in between copy and delete
+        jdbcTemplate.query(
+                CANDIDATES_SQL,
+                rs -> {
+                    long id = rs.getLong(1);
+                    ids.add(id);
+                    long salleId = rs.getLong(2);
+                    if (!rs.wasNull() && "CONFIRMED".equals(rs.getString(3))) confirmed.add(new Long[]{id, salleId});
+                },
+                cutoff, batchSize);
+        if (ids.isEmpty()) return 0;
+
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+        jdbcTemplate.update("INSERT INTO " + ARCHIVE_TABLE + " (" + COLUMNS + ", archived_at) " +
+                "SELECT " + COLUMNS + ", NOW() FROM " + LIVE_TABLE + " WHERE id IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM " + LIVE_TABLE + " WHERE id IN (" + in + ")", args);
+        // Long-past windows never overlap a new booking; drop them from the in-memory index too
+        for (Long[] c : confirmed) confirmedIndex.remove(c[0], c[1]);
+        return ids.size();
+    }
+}
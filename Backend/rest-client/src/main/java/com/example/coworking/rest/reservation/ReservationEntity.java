@@ -6,7 +6,15 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // Overlap counts, day views and per-room status lookups (covering for countOverlaps)
+        @Index(name = "idx_reservations_room_status_window", columnList = "salle_id, status, start_at, end_at"),
+        @Index(name = "idx_reservations_status_start", columnList = "status, start_at, end_at"),
+        @Index(name = "idx_reservations_client_status", columnList = "client, status"),
+        @Index(name = "idx_reservations_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_reservations_start_id", columnList = "start_at, id"),
+        @Index(name = "idx_reservations_end", columnList = "end_at")
+})
 public class ReservationEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,6 +23,10 @@ public class ReservationEntity {
     @Column(nullable = false)
     private String client;
 
+    // Booking user (FK to users.id); null for legacy rows whose client could not be resolved
+    @Column(name = "user_id")
+    private Long userId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -34,6 +46,8 @@ public class ReservationEntity {
     public Long getId() { return id; }
     public String getClient() { return client; }
     public void setClient(String client) { this.client = client; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getStartAt() { return startAt; }
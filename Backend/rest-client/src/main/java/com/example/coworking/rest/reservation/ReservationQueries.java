@@ -0,0 +1,252 @@
+package com.example.coworking.rest.reservation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-side queries for the reservation list, mapped straight to {@link ReservationSummary} rows.
+ * Each call is one SQL statement joining the room's name and location; no entities are hydrated,
+ * so nothing is lazily loaded per row and nothing is tracked by the persistence context.
+ *
+ * Pages are keyset-paginated on (start_at, id): each page continues strictly after the last row of
+ * the previous one, so the cost of a page does not grow with its position and nothing beyond
+ * {@code limit + 1} rows is ever read into memory. Exports walk a forward-only cursor instead and
+ * hand each row to the caller as it arrives.
+ *
+ * These are the reporting reads, so they span the live table and the archive alike (see
+ * {@link ReservationArchiver}); the booking hot paths query the live table only.
+ */
+@Component
+public class ReservationQueries {
+    public static final int MAX_PAGE_SIZE = 500;
+
+    static final String SUMMARY_COLUMNS =
+            "r.id, r.user_id, r.client, r.salle_id, s.nom, s.location, r.created_at, r.start_at, r.end_at, r.status";
+
+    static final RowMapper<ReservationSummary> SUMMARY_ROW_MAPPER = (rs, n) -> {
+        long userId = rs.getLong("user_id");
+        Long user = rs.wasNull() ? null : userId;
+        long salleId = rs.getLong("salle_id");
+        Long salle = rs.wasNull() ? null : salleId;
+        return new ReservationSummary(rs.getLong("id"), user, rs.getString("client"), salle,
+                rs.getString("nom"), rs.getString("location"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("start_at")),
+                toLocalDateTime(rs.getTimestamp("end_at")),
+                rs.getString("status"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int listMaxRows;
+    // Same pool, but statements fetch in small batches (needs useCursorFetch=true on MySQL)
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public ReservationQueries(JdbcTemplate jdbcTemplate,
+                              @Value("${reservations.export.fetch-size:500}") int exportFetchSize,
+                              @Value("${reservations.list.max-rows:1000}") int listMaxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listMaxRows = Math.max(1, listMaxRows);
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Math.max(1, exportFetchSize));
+    }
+
+    /** Optional list filters; null fields are ignored. Dates bound start_at to [from, to]. */
+    public static class Filter {
+        public Long userId;
+        public String client;
+        public String clientContains; // substring match; unindexable, legacy lookups only
+        public String status;
+        public Long roomId;
+        public String location;
+        public LocalDate from;
+        public LocalDate to;
+    }
+
+    /** Position after the last row of a page, exchanged with clients as an opaque token. */
+    public static final class Cursor {
+        final LocalDateTime startAt;
+        final long id;
+
+        public Cursor(LocalDateTime startAt, long id) {
+            this.startAt = startAt;
+            this.id = id;
+        }
+
+        public String encode() {
+            String raw = startAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** @throws IllegalArgumentException when the token was not produced by {@link #encode()} */
+        public static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
+    public static class Page {
+        public final List<ReservationSummary> items;
+        public final Cursor next; // null on the last page
+
+        Page(List<ReservationSummary> items, Cursor next) {
+            this.items = items;
+            this.next = next;
+        }
+    }
+
+    /**
+     * The most recent reservations matching the filter, live or archived, in id order; at most
+     * reservations.list.max-rows of them ({@link #listMaxRows()}). Use {@link #page} to read a larger set.
+     */
+    public List<ReservationSummary> list(Filter filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = listSql(filter, listMaxRows, params);
+        List<ReservationSummary> rows = jdbcTemplate.query(sql, SUMMARY_ROW_MAPPER, params.toArray());
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    public int listMaxRows() {
+        return listMaxRows;
+    }
+
+    /**
+     * Streams every reservation matching the filter to {@code action} one row at a time: archived rows
+     * first, then live ones, each table in id order. The tables are read one after the other, each with
+     * a query that walks its own index, so no temporary table or sort sits in front of the first row.
+     * Only a fetch-size batch is buffered; a pooled connection is held while each table is read and
+     * returned as soon as its last row has been handed over or {@code action} throws.
+     */
+    public void forEach(Filter filter, Consumer<ReservationSummary> action) {
+        for (String table : new String[]{ReservationArchiver.ARCHIVE_TABLE, ReservationArchiver.LIVE_TABLE}) {
+            List<Object> params = new ArrayList<>();
+            streamingJdbcTemplate.query(exportSql(table, filter, params),
+                    rs -> { action.accept(SUMMARY_ROW_MAPPER.mapRow(rs, 0)); },
+                    params.toArray());
+        }
+    }
+
+    /**
+     * One page of reservations, live or archived, ordered by (start_at, id), ascending or descending.
+     * Rows without a start_at (legacy rows that could not be backfilled) have no position in that
+     * order and are skipped.
+     */
+    public Page page(Filter filter, Cursor after, int limit, boolean descending) {
+        int size = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        List<Object> params = new ArrayList<>();
+        String sql = pageSql(filter, after, size, descending, params);
+
+        List<ReservationSummary> rows = jdbcTemplate.query(sql, SUMMARY_ROW_MAPPER, params.toArray());
+        Cursor next = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            ReservationSummary last = rows.get(size - 1);
+            next = new Cursor(last.getStartAt(), last.getId());
+        }
+        return new Page(rows, next);
+    }
+
+    // The statement builders below are public so the query plan check EXPLAINs the SQL that actually runs
+
+    /** Statement of {@link #list}; appends its parameters to {@code params}. */
+    public static String listSql(Filter filter, int maxRows, List<Object> params) {
+        // Each table contributes at most max-rows of its newest rows, read backwards along its primary key
+        List<Object> tailParams = new ArrayList<>();
+        tailParams.add(maxRows);
+        String sql = unionOfBothTables("1=1", filter, " ORDER BY r.id DESC LIMIT ?", params, tailParams)
+                + " ORDER BY id DESC LIMIT ?";
+        params.add(maxRows);
+        return sql;
+    }
+
+    /** Statement of {@link #forEach} for one of the two tables; appends its parameters to {@code params}. */
+    public static String exportSql(String table, Filter filter, List<Object> params) {
+        StringBuilder cond = new StringBuilder("1=1");
+        appendFilter(cond, params, filter);
+        return select(table, cond, " ORDER BY r.id");
+    }
+
+    /** Statement of {@link #page}, fetching {@code size + 1} rows; appends its parameters to {@code params}. */
+    public static String pageSql(Filter filter, Cursor after, int size, boolean descending, List<Object> params) {
+        String dir = descending ? " DESC" : " ASC";
+        StringBuilder tail = new StringBuilder();
+        List<Object> tailParams = new ArrayList<>();
+        if (after != null) {
+            String cmp = descending ? "<" : ">";
+            // Expanded row comparison so MySQL can range-scan the (start_at, id) index
+            tail.append(" AND (r.start_at ").append(cmp).append(" ? OR (r.start_at = ? AND r.id ").append(cmp).append(" ?))");
+            Timestamp ts = Timestamp.valueOf(after.startAt);
+            tailParams.add(ts);
+            tailParams.add(ts);
+            tailParams.add(after.id);
+        }
+        // Each table contributes at most one page; one extra row tells whether another page exists
+        tail.append(" ORDER BY r.start_at").append(dir).append(", r.id").append(dir).append(" LIMIT ?");
+        tailParams.add(size + 1);
+
+        String sql = unionOfBothTables("r.start_at IS NOT NULL", filter, tail.toString(), params, tailParams)
+                + " ORDER BY start_at" + dir + ", id" + dir + " LIMIT ?";
+        params.add(size + 1);
+        return sql;
+    }
+
+    /**
+     * Same filtered select against the live table and the archive, combined with UNION ALL. Each
+     * branch keeps its own WHERE clause so both can use their indexes; a row lives in exactly one table.
+     */
+    private static String unionOfBothTables(String where, Filter filter, String tail, List<Object> params,
+                                            List<Object> tailParams) {
+        StringBuilder cond = new StringBuilder(where);
+        List<Object> condParams = new ArrayList<>();
+        appendFilter(cond, condParams, filter);
+        StringBuilder sql = new StringBuilder();
+        for (String table : new String[]{ReservationArchiver.LIVE_TABLE, ReservationArchiver.ARCHIVE_TABLE}) {
+            if (sql.length() > 0) sql.append(" UNION ALL ");
+            sql.append("(").append(select(table, cond, tail)).append(")");
+            params.addAll(condParams);
+            params.addAll(tailParams);
+        }
+        return sql.toString();
+    }
+
+    private static String select(String table, CharSequence cond, String tail) {
+        return "SELECT " + SUMMARY_COLUMNS + " FROM " + table + " r LEFT JOIN salles s ON s.id = r.salle_id WHERE "
+                + cond + tail;
+    }
+
+    static void appendFilter(StringBuilder sql, List<Object> params, Filter f) {
+        if (f == null) return;
+        if (f.userId != null) { sql.append(" AND r.user_id = ?"); params.add(f.userId); }
+        if (f.client != null) { sql.append(" AND r.client = ?"); params.add(f.client); }
+        if (f.clientContains != null) {
+            sql.append(" AND r.client LIKE ? ESCAPE '!'");
+            params.add("%" + f.clientContains.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+        if (f.status != null) { sql.append(" AND r.status = ?"); params.add(f.status); }
+        if (f.roomId != null) { sql.append(" AND r.salle_id = ?"); params.add(f.roomId); }
+        if (f.location != null) { sql.append(" AND s.location = ?"); params.add(f.location); }
+        if (f.from != null) { sql.append(" AND r.start_at >= ?"); params.add(Timestamp.valueOf(f.from.atStartOfDay())); }
+        if (f.to != null) { sql.append(" AND r.start_at < ?"); params.add(Timestamp.valueOf(f.to.plusDays(1).atStartOfDay())); }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp t) {
+        return t == null ? null : t.toLocalDateTime();
+    }
+}
@@ -13,6 +13,10 @@ public interface ReservationRepository extends JpaRepository<ReservationEntity,
     List<ReservationEntity> findByStatus(String status);
     List<ReservationEntity> findByClientAndStatus(String client, String status);
 
+    // "My reservations": indexed lookup on (user_id, status)
+    List<ReservationEntity> findByUserId(Long userId);
+    List<ReservationEntity> findByUserIdAndStatus(Long userId, String status);
+
     // Case-insensitive helpers
     List<ReservationEntity> findByClientIgnoreCase(String client);
     List<ReservationEntity> findByClientIgnoreCaseAndStatusIgnoreCase(String client, String status);
@@ -24,6 +28,11 @@ public interface ReservationRepository extends JpaRepository<ReservationEntity,
     // For availability toggling: count/find reservations for a specific room by status
     List<ReservationEntity> findBySalle_IdAndStatus(Long salleId, String status);
 
+    // Confirmed reservations of a room that have not ended yet (availability fallback when counters are not loaded)
+    @Query("SELECT COUNT(r) FROM ReservationEntity r " +
+           "WHERE r.salle.id = :salleId AND r.status = 'CONFIRMED' AND r.endAt > :now")
+    long countActiveConfirmed(@Param("salleId") Long salleId, @Param("now") java.time.LocalDateTime now);
+
     // Overlap count for a time window: (start < :end AND end > :start)
     @Query("SELECT COUNT(r) FROM ReservationEntity r " +
            "WHERE r.salle.id = :salleId " +
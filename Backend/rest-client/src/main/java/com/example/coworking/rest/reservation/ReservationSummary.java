@@ -0,0 +1,44 @@
+package com.example.coworking.rest.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the reservation list: the reservation columns plus its room's name and location.
+ */
+public class ReservationSummary {
+    private final Long id;
+    private final Long userId;
+    private final String client;
+    private final Long salleId;
+    private final String roomName;
+    private final String location;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime startAt;
+    private final LocalDateTime endAt;
+    private final String status;
+
+    public ReservationSummary(Long id, Long userId, String client, Long salleId, String roomName, String location,
+                              LocalDateTime createdAt, LocalDateTime startAt, LocalDateTime endAt, String status) {
+        this.id = id;
+        this.userId = userId;
+        this.client = client;
+        this.salleId = salleId;
+        this.roomName = roomName;
+        this.location = location;
+        this.createdAt = createdAt;
+        this.startAt = startAt;
+        this.endAt = endAt;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getClient() { return client; }
+    public Long getSalleId() { return salleId; }
+    public String getRoomName() { return roomName; }
+    public String getLocation() { return location; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartAt() { return startAt; }
+    public LocalDateTime getEndAt() { return endAt; }
+    public String getStatus() { return status; }
+}
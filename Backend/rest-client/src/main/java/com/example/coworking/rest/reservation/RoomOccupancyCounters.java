@@ -0,0 +1,112 @@
+package com.example.coworking.rest.reservation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-room count of CONFIRMED reservations that have not ended yet, maintained incrementally by
+ * the reservation write paths and rebuilt from the database at startup.
+ *
+ * Bookings leave the count when their end time passes: entries sit in a queue ordered by end
+ * time and are drained lazily on read, so a read costs O(1) amortized.
+ */
+@Component
+public class RoomOccupancyCounters {
+    private static final Logger log = LoggerFactory.getLogger(RoomOccupancyCounters.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> tracked = new ConcurrentHashMap<>();
+    private final PriorityQueue<Entry> byEnd = new PriorityQueue<>(Comparator.comparing((Entry e) -> e.endAt));
+    private volatile boolean loaded;
+
+    public RoomOccupancyCounters(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            jdbcTemplate.query(
+                    "SELECT id, salle_id, end_at FROM reservations " +
+                            "WHERE status = 'CONFIRMED' AND salle_id IS NOT NULL AND end_at > ?",
+                    rs -> {
+                        Timestamp end = rs.getTimestamp("end_at");
+                        track(rs.getLong("id"), rs.getLong("salle_id"), end.toLocalDateTime());
+                    },
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } catch (Exception ex) {
+            // Leave the counters unloaded; callers fall back to a database count
+            log.warn("[COUNTERS] Could not load room occupancy: {}", ex.getMessage());
+            return;
+        }
+        loaded = true;
+        log.info("[COUNTERS] Tracking {} upcoming confirmed reservation(s) across {} room(s)", tracked.size(), counts.size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Confirmed reservations of the room that have not ended yet. */
+    public int activeCount(Long salleId) {
+        expire(LocalDateTime.now());
+        AtomicInteger c = counts.get(salleId);
+        return c == null ? 0 : c.get();
+    }
+
+    public void track(Long reservationId, Long salleId, LocalDateTime endAt) {
+        if (reservationId == null || salleId == null || endAt == null || !endAt.isAfter(LocalDateTime.now())) return;
+        Entry e = new Entry(reservationId, salleId, endAt);
+        if (tracked.putIfAbsent(reservationId, e) != null) return;
+        counts.computeIfAbsent(salleId, k -> new AtomicInteger()).incrementAndGet();
+        synchronized (byEnd) {
+            byEnd.add(e);
+        }
+    }
+
+    public void untrack(Long reservationId) {
+        if (reservationId == null) return;
+        Entry e = tracked.remove(reservationId);
+        if (e != null) {
+            // The queue entry stays behind and is skipped when it expires
+            counts.get(e.salleId).decrementAndGet();
+        }
+    }
+
+    private void expire(LocalDateTime now) {
+        synchronized (byEnd) {
+            Entry head;
+            while ((head = byEnd.peek()) != null && !head.endAt.isAfter(now)) {
+                byEnd.poll();
+                if (tracked.remove(head.reservationId, head)) {
+                    counts.get(head.salleId).decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Long reservationId;
+        final Long salleId;
+        final LocalDateTime endAt;
+
+        Entry(Long reservationId, Long salleId, LocalDateTime endAt) {
+            this.reservationId = reservationId;
+            this.salleId = salleId;
+            this.endAt = endAt;
+        }
+    }
+}
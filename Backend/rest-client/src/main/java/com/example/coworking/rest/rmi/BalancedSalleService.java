@@ -0,0 +1,187 @@
+package com.example.coworking.rest.rmi;
+
+import com.example.coworking.common.CatalogDelta;
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.RecurrenceRule;
+import com.example.coworking.common.ReservationResult;
+import com.example.coworking.common.SalleDTO;
+import com.example.coworking.common.SalleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.remoting.RemoteAccessException;
+import org.springframework.remoting.RemoteConnectFailureException;
+import org.springframework.remoting.RemoteLookupFailureException;
+
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link SalleService} spread over several rmi-server replicas (rmi.endpoints).
+ *
+ * Each call goes to the healthy node with the fewest calls in flight (least-outstanding, ties broken
+ * round-robin), or simply to the next healthy node with rmi.lb.strategy=round-robin. A node is ejected
+ * when a call cannot reach it, or after rmi.lb.eject-after-failures consecutive failures; a probe
+ * ({@link SalleService#ping()}) every rmi.lb.probe-ms readmits it. Ejected nodes are still tried as a
+ * last resort, so a wrong health verdict never takes the service down.
+ *
+ * Reads (catalog, ping) fail over to the next node on any remote failure. Writes fail over only when
+ * the call never reached a server (connection refused, lookup failed), since a booking that failed
+ * after reaching a server may have been committed there. Any other exception is counted against the
+ * node and rethrown as is.
+ *
+ * Catalog versions are local to the replica that issued them, so {@link #getSallesSince(long)} sticks
+ * to the replica that answered the last one and moves only when it fails; the new replica is then
+ * asked for its full catalog, whose version the caller keeps from there on.
+ */
+public class BalancedSalleService implements SalleService {
+    private static final Logger log = LoggerFactory.getLogger(BalancedSalleService.class);
+
+    @FunctionalInterface
+    interface Call<T> {
+        T apply(SalleService s) throws RemoteException;
+    }
+
+    private final List<RmiNode> nodes;
+    private final boolean roundRobin;
+    private final int ejectAfter;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile RmiNode catalogNode; // replica whose catalog version the caller holds
+
+    public BalancedSalleService(List<RmiNode> nodes, String strategy, int ejectAfter) {
+        if (nodes.isEmpty()) throw new IllegalArgumentException("No rmi-server endpoint configured");
+        this.nodes = nodes;
+        this.roundRobin = "round-robin".equalsIgnoreCase(strategy);
+        this.ejectAfter = Math.max(1, ejectAfter);
+    }
+
+    public List<RmiNode.Stats> stats() {
+        List<RmiNode.Stats> out = new ArrayList<>(nodes.size());
+        for (RmiNode n : nodes) out.add(n.stats());
+        return out;
+    }
+
+    @Override
+    public String ping() throws RemoteException {
+        return invoke(true, SalleService::ping);
+    }
+
+    @Override
+    public List<SalleDTO> getAllSalles() throws RemoteException {
+        return invoke(true, SalleService::getAllSalles);
+    }
+
+    @Override
+    public CatalogDelta getSallesSince(long version) throws RemoteException {
+        RmiNode pinned = catalogNode;
+        SalleService pinnedStub = pinned == null ? null : pinned.stub();
+        return invoke(true, pinned, s -> {
+            // Another replica's versions mean nothing here: -1 is below any floor and gets everything
+            CatalogDelta delta = s.getSallesSince(s == pinnedStub ? version : -1);
+            for (RmiNode n : nodes) if (n.stub() == s) catalogNode = n;
+            return delta;
+        });
+    }
+
+    @Override
+    public ReservationResult reserverSalle(Long salleId, String client) throws RemoteException {
+        return invoke(false, s -> s.reserverSalle(salleId, client));
+    }
+
+    @Override
+    public ReservationResult reserverSalle(CreateReservationCommand command) throws RemoteException {
+        return invoke(false, s -> s.reserverSalle(command));
+    }
+
+    @Override
+    public List<ReservationResult> reserverSalles(List<CreateReservationCommand> commands, boolean atomic) throws RemoteException {
+        return invoke(false, s -> s.reserverSalles(commands, atomic));
+    }
+
+    @Override
+    public List<ReservationResult> reserverSerie(CreateReservationCommand template, RecurrenceRule rule, boolean atomic) throws RemoteException {
+        return invoke(false, s -> s.reserverSerie(template, rule, atomic));
+    }
+
+    /** Pings every node; scheduled by {@link ShardedSalleService#probe()}. */
+    public void probe() {
+        for (RmiNode node : nodes) {
+            try {
+                node.stub().ping();
+                if (node.probeSucceeded()) log.info("[RMI-LB] {} is back", node.endpoint());
+            } catch (Exception ex) {
+                if (node.probeFailed(ex)) log.warn("[RMI-LB] Ejected {}: {}", node.endpoint(), ex.getMessage());
+            }
+        }
+    }
+
+    private <T> T invoke(boolean idempotent, Call<T> call) throws RemoteException {
+        return invoke(idempotent, null, call);
+    }
+
+    /** @param preferred node tried first while it is healthy, or null */
+    private <T> T invoke(boolean idempotent, RmiNode preferred, Call<T> call) throws RemoteException {
+        RemoteException last = null;
+        for (RmiNode node : order(preferred)) {
+            node.begin();
+            long t0 = System.nanoTime();
+            try {
+                T result = call.apply(node.stub());
+                node.succeeded(System.nanoTime() - t0);
+                return result;
+            } catch (RemoteException | RemoteAccessException ex) {
+                boolean unreached = neverReachedServer(ex);
+                if (node.failed(System.nanoTime() - t0, ex, unreached, ejectAfter)) {
+                    log.warn("[RMI-LB] Ejected {}: {}", node.endpoint(), ex.getMessage());
+                }
+                RemoteException re = ex instanceof RemoteException
+                        ? (RemoteException) ex : new RemoteException(ex.getMessage(), ex);
+                if (!idempotent && !unreached) throw re;
+                last = re;
+            } catch (RuntimeException ex) {
+                // Thrown by the call itself (a server-side bug surfacing through the proxy): another
+                // replica would fail the same way, so it is recorded and rethrown without failover
+                node.erred(System.nanoTime() - t0, ex);
+                throw ex;
+            } finally {
+                node.end();
+            }
+        }
+        throw last;
+    }
+
+    // Healthy nodes first (preferred, then by strategy), then ejected ones as a last resort
+    private List<RmiNode> order(RmiNode preferred) {
+        int n = nodes.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        List<RmiNode> healthy = new ArrayList<>(n);
+        List<RmiNode> ejected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            RmiNode node = nodes.get((start + i) % n);
+            (node.isHealthy() ? healthy : ejected).add(node);
+        }
+        // Stable sort keeps the rotated order among equally loaded nodes
+        if (!roundRobin) healthy.sort(Comparator.comparingInt(RmiNode::outstanding));
+        if (preferred != null && healthy.remove(preferred)) healthy.add(0, preferred);
+        healthy.addAll(ejected);
+        return healthy;
+    }
+
+    private static boolean neverReachedServer(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof ConnectIOException || t instanceof UnknownHostException
+                    || t instanceof NotBoundException || t instanceof RemoteConnectFailureException
+                    || t instanceof RemoteLookupFailureException) {
+                return true;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+}
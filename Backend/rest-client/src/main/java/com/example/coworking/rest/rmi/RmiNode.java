@@ -0,0 +1,120 @@
+package com.example.coworking.rest.rmi;
+
+import com.example.coworking.common.SalleService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** One rmi-server replica: its stub, health state and call metrics. */
+public final class RmiNode {
+    private final String endpoint; // host:port
+    private final SalleService stub;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile boolean healthy = true;
+    private volatile String lastError;
+    private volatile long lastErrorAt;
+
+    private RmiNode(String endpoint, SalleService stub) {
+        this.endpoint = endpoint;
+        this.stub = stub;
+    }
+
+    public static RmiNode connect(String endpoint, SalleService stub) {
+        return new RmiNode(endpoint, stub);
+    }
+
+    String endpoint() { return endpoint; }
+    SalleService stub() { return stub; }
+    boolean isHealthy() { return healthy; }
+    int outstanding() { return outstanding.get(); }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    /** Pairs with {@link #begin()} however the call ended. */
+    void end() {
+        outstanding.decrementAndGet();
+    }
+
+    void succeeded(long nanos) {
+        calls.increment();
+        latencyNanos.add(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        consecutiveFailures.set(0);
+    }
+
+    /** @return true when this failure ejected the node */
+    boolean failed(long nanos, Throwable error, boolean ejectNow, int ejectAfter) {
+        erred(nanos, error);
+        int failures = consecutiveFailures.incrementAndGet();
+        if (healthy && (ejectNow || failures >= ejectAfter)) {
+            healthy = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A call the node answered with an unexpected exception (a bug or a bad argument, not a transport
+     * failure): counted as an error but it does not count towards ejection.
+     */
+    void erred(long nanos, Throwable error) {
+        calls.increment();
+        errors.increment();
+        latencyNanos.add(nanos);
+        lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        lastErrorAt = System.currentTimeMillis();
+    }
+
+    /** @return true when a successful probe brought the node back */
+    boolean probeSucceeded() {
+        consecutiveFailures.set(0);
+        boolean readmitted = !healthy;
+        healthy = true;
+        return readmitted;
+    }
+
+    /** @return true when this failed probe ejected the node */
+    boolean probeFailed(Throwable error) {
+        lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        lastErrorAt = System.currentTimeMillis();
+        boolean ejected = healthy;
+        healthy = false;
+        return ejected;
+    }
+
+    public static class Stats {
+        public String shard;
+        public String endpoint;
+        public boolean healthy;
+        public int outstanding;
+        public long calls;
+        public long errors;
+        public double avgLatencyMs;
+        public double maxLatencyMs;
+        public String lastError;
+        public Long lastErrorAt; // epoch millis
+    }
+
+    Stats stats() {
+        Stats s = new Stats();
+        s.endpoint = endpoint;
+        s.healthy = healthy;
+        s.outstanding = outstanding.get();
+        s.calls = calls.sum();
+        s.errors = errors.sum();
+        s.avgLatencyMs = s.calls == 0 ? 0.0 : latencyNanos.sum() / 1e6 / s.calls;
+        s.maxLatencyMs = maxLatencyNanos.get() / 1e6;
+        s.lastError = lastError;
+        s.lastErrorAt = lastErrorAt == 0 ? null : lastErrorAt;
+        return s;
+    }
+}
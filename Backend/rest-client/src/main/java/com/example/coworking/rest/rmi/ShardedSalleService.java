@@ -0,0 +1,325 @@
+package com.example.coworking.rest.rmi;
+
+import com.example.coworking.common.CatalogDelta;
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.RecurrenceRule;
+import com.example.coworking.common.ReservationResult;
+import com.example.coworking.common.SalleDTO;
+import com.example.coworking.common.SalleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link SalleService} over location-sharded booking nodes (rmi.shards). Each shard is a set of
+ * rmi-server replicas ({@link BalancedSalleService}) owning some locations (shard.locations on the
+ * server), so it only serves and books the rooms of those locations.
+ *
+ * Catalog reads are a scatter-gather: every shard is asked for its changes in parallel and the answers
+ * are merged under one version of this process; a shard that does not answer keeps contributing its
+ * last known rooms. The merged catalog tells which shard serves each room's location, and bookings are
+ * routed by it; a node answering WRONG_SHARD (a room moved location) refreshes the routes and the
+ * booking is retried once on the new owner. A room no shard lists is only reported missing once every
+ * shard has answered at least once; until then it may belong to the silent one, and the booking gets
+ * BUSY instead. A batch spanning shards is split per shard when not
+ * atomic; an atomic one must stay within one shard, as shards share no transaction.
+ *
+ * With a single shard every call is passed through unchanged.
+ */
+public class ShardedSalleService implements SalleService, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ShardedSalleService.class);
+
+    public static final class Shard {
+        final String name;
+        final BalancedSalleService service;
+        // Last catalog answered by the shard; guarded by the ShardedSalleService
+        long version = -1;
+        Map<Long, SalleDTO> rooms = new HashMap<>();
+
+        public Shard(String name, BalancedSalleService service) {
+            this.name = name;
+            this.service = service;
+        }
+    }
+
+    private final List<Shard> shards;
+    private final ExecutorService scatter;
+
+    private volatile Map<Long, Shard> roomShards = Collections.emptyMap();
+    private long version = System.currentTimeMillis(); // merged catalog version; guarded by this
+
+    public ShardedSalleService(List<Shard> shards) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("No rmi-server shard configured");
+        this.shards = shards;
+        AtomicInteger seq = new AtomicInteger();
+        this.scatter = shards.size() == 1 ? null : Executors.newFixedThreadPool(shards.size(), r -> {
+            Thread t = new Thread(r, "rmi-scatter-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public List<RmiNode.Stats> stats() {
+        List<RmiNode.Stats> out = new ArrayList<>();
+        for (Shard shard : shards) {
+            for (RmiNode.Stats s : shard.service.stats()) {
+                s.shard = shard.name;
+                out.add(s);
+            }
+        }
+        return out;
+    }
+
+    @Scheduled(fixedDelayString = "${rmi.lb.probe-ms:5000}")
+    public void probe() {
+        for (Shard shard : shards) shard.service.probe();
+    }
+
+    @Override
+    public void destroy() {
+        if (scatter != null) scatter.shutdownNow();
+    }
+
+    @Override
+    public String ping() throws RemoteException {
+        if (single()) return shards.get(0).service.ping();
+        List<String> names = new ArrayList<>();
+        for (Shard shard : shards) names.add(shard.name + "=" + shard.service.ping());
+        return String.join(",", names);
+    }
+
+    @Override
+    public synchronized List<SalleDTO> getAllSalles() throws RemoteException {
+        if (single()) return shards.get(0).service.getAllSalles();
+        refresh();
+        return merged();
+    }
+
+    @Override
+    public synchronized CatalogDelta getSallesSince(long callerVersion) throws RemoteException {
+        if (single()) return shards.get(0).service.getSallesSince(callerVersion);
+        long before = version;
+        Changes c = refresh();
+        if (callerVersion != before) return CatalogDelta.full(version, merged());
+        if (c.changed.isEmpty() && c.removed.isEmpty()) return CatalogDelta.unchanged(version);
+        return CatalogDelta.delta(version, new ArrayList<>(c.changed.values()), new ArrayList<>(c.removed));
+    }
+
+    @Override
+    public ReservationResult reserverSalle(Long salleId, String client) throws RemoteException {
+        if (single()) return shards.get(0).service.reserverSalle(salleId, client);
+        Shard shard = route(salleId);
+        if (shard == null) return unrouted();
+        ReservationResult r = shard.service.reserverSalle(salleId, client);
+        if (!ReservationResult.CODE_WRONG_SHARD.equals(r.getCode())) return r;
+        Shard owner = reroute(salleId, shard);
+        return owner == null ? r : owner.service.reserverSalle(salleId, client);
+    }
+
+    @Override
+    public ReservationResult reserverSalle(CreateReservationCommand command) throws RemoteException {
+        if (single()) return shards.get(0).service.reserverSalle(command);
+        Shard shard = route(command == null ? null : command.getSalleId());
+        if (shard == null) return unrouted();
+        ReservationResult r = shard.service.reserverSalle(command);
+        if (!ReservationResult.CODE_WRONG_SHARD.equals(r.getCode())) return r;
+        Shard owner = reroute(command.getSalleId(), shard);
+        return owner == null ? r : owner.service.reserverSalle(command);
+    }
+
+    @Override
+    public List<ReservationResult> reserverSerie(CreateReservationCommand template, RecurrenceRule rule, boolean atomic) throws RemoteException {
+        if (single()) return shards.get(0).service.reserverSerie(template, rule, atomic);
+        // One room, so one shard; the series is expanded by its node
+        Shard shard = route(template == null ? null : template.getSalleId());
+        if (shard == null) return Collections.singletonList(unrouted());
+        return shard.service.reserverSerie(template, rule, atomic);
+    }
+
+    @Override
+    public List<ReservationResult> reserverSalles(List<CreateReservationCommand> commands, boolean atomic) throws RemoteException {
+        if (single() || commands == null || commands.isEmpty()) {
+            return shards.get(0).service.reserverSalles(commands, atomic);
+        }
+        ReservationResult[] results = new ReservationResult[commands.size()];
+        Map<Shard, List<Integer>> byShard = new LinkedHashMap<>();
+        for (int k = 0; k < commands.size(); k++) {
+            CreateReservationCommand c = commands.get(k);
+            Shard shard = route(c == null ? null : c.getSalleId());
+            if (shard == null) {
+                results[k] = c == null || c.getSalleId() == null
+                        ? ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "Paramètres manquants")
+                        : unrouted();
+            } else {
+                byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(k);
+            }
+        }
+        if (atomic && (byShard.size() > 1 || (!byShard.isEmpty() && anyFilled(results)))) {
+            String message = byShard.size() > 1
+                    ? "Un lot atomique doit concerner des salles d'un même site"
+                    : "Non appliquée : une autre réservation du lot a été refusée";
+            String code = byShard.size() > 1 ? ReservationResult.CODE_INVALID_REQUEST : ReservationResult.CODE_NOT_APPLIED;
+            for (int k = 0; k < results.length; k++) {
+                if (results[k] == null) results[k] = ReservationResult.failure(code, message);
+            }
+            return Arrays.asList(results);
+        }
+
+        // Shards book independently: one node failing must not hide what the others booked
+        Map<Shard, CompletableFuture<List<ReservationResult>>> calls = new LinkedHashMap<>();
+        for (Map.Entry<Shard, List<Integer>> e : byShard.entrySet()) {
+            List<CreateReservationCommand> part = new ArrayList<>(e.getValue().size());
+            for (int k : e.getValue()) part.add(commands.get(k));
+            Shard shard = e.getKey();
+            calls.put(shard, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return shard.service.reserverSalles(part, atomic);
+                } catch (RemoteException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, scatter));
+        }
+        for (Map.Entry<Shard, List<Integer>> e : byShard.entrySet()) {
+            List<Integer> positions = e.getValue();
+            List<ReservationResult> part;
+            try {
+                part = calls.get(e.getKey()).join();
+            } catch (CompletionException ex) {
+                log.warn("[SHARD] Batch on {} failed: {}", e.getKey().name, ex.getCause().getMessage());
+                part = Collections.nCopies(positions.size(), ReservationResult.failure(ReservationResult.CODE_BUSY,
+                        "Nœud de réservation injoignable, réservation non confirmée"));
+            }
+            for (int j = 0; j < positions.size(); j++) results[positions.get(j)] = part.get(j);
+        }
+        return Arrays.asList(results);
+    }
+
+    private boolean single() {
+        return shards.size() == 1;
+    }
+
+    private Shard route(Long salleId) throws RemoteException {
+        if (salleId == null) return null;
+        Shard shard = roomShards.get(salleId);
+        if (shard != null) return shard;
+        // A room created since the last catalog read
+        synchronized (this) {
+            refresh();
+        }
+        return roomShards.get(salleId);
+    }
+
+    private Shard reroute(Long salleId, Shard previous) throws RemoteException {
+        synchronized (this) {
+            refresh();
+        }
+        Shard owner = roomShards.get(salleId);
+        return owner == previous ? null : owner;
+    }
+
+    private static final class Changes {
+        final Map<Long, SalleDTO> changed = new TreeMap<>();
+        final Set<Long> removed = new HashSet<>();
+    }
+
+    // Caller holds the monitor
+    private Changes refresh() throws RemoteException {
+        Map<Shard, CompletableFuture<CatalogDelta>> calls = new LinkedHashMap<>();
+        for (Shard shard : shards) {
+            long since = shard.version;
+            calls.put(shard, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return shard.service.getSallesSince(since);
+                } catch (RemoteException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, scatter));
+        }
+        Changes c = new Changes();
+        RemoteException failure = null;
+        int answered = 0;
+        for (Map.Entry<Shard, CompletableFuture<CatalogDelta>> e : calls.entrySet()) {
+            Shard shard = e.getKey();
+            CatalogDelta d;
+            try {
+                d = e.getValue().join();
+                answered++;
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                failure = cause instanceof RemoteException ? (RemoteException) cause : new RemoteException(cause.getMessage(), cause);
+                log.warn("[SHARD] {} unreachable, keeping its last {} room(s): {}", shard.name, shard.rooms.size(), cause.getMessage());
+                continue;
+            }
+            apply(shard, d, c);
+        }
+        if (answered == 0 && roomShards.isEmpty()) throw failure;
+
+        // A room that moved location is removed from one shard and added to another
+        Map<Long, Shard> routes = new HashMap<>();
+        for (Shard shard : shards) {
+            for (Long id : shard.rooms.keySet()) routes.put(id, shard);
+        }
+        c.removed.removeAll(routes.keySet());
+        roomShards = routes;
+        if (!c.changed.isEmpty() || !c.removed.isEmpty()) version++;
+        return c;
+    }
+
+    private static void apply(Shard shard, CatalogDelta d, Changes c) {
+        shard.version = d.getVersion();
+        if (d.isUnchanged()) return;
+        if (d.isFull()) {
+            Map<Long, SalleDTO> rooms = new HashMap<>();
+            for (SalleDTO room : d.getChanged()) rooms.put(room.getId(), room);
+            for (Long id : shard.rooms.keySet()) if (!rooms.containsKey(id)) c.removed.add(id);
+            shard.rooms = rooms;
+        } else {
+            for (SalleDTO room : d.getChanged()) shard.rooms.put(room.getId(), room);
+            for (Long id : d.getRemoved()) {
+                if (shard.rooms.remove(id) != null) c.removed.add(id);
+            }
+        }
+        for (SalleDTO room : d.getChanged()) c.changed.put(room.getId(), room);
+    }
+
+    // Caller holds the monitor
+    private List<SalleDTO> merged() {
+        Map<Long, SalleDTO> byId = new TreeMap<>();
+        for (Shard shard : shards) byId.putAll(shard.rooms);
+        return Collections.unmodifiableList(new ArrayList<>(byId.values()));
+    }
+
+    private static boolean anyFilled(ReservationResult[] results) {
+        for (ReservationResult r : results) if (r != null) return true;
+        return false;
+    }
+
+    // Result for a room absent from every shard's catalog
+    private synchronized ReservationResult unrouted() {
+        for (Shard shard : shards) {
+            if (shard.version == -1) {
+                return ReservationResult.failure(ReservationResult.CODE_BUSY,
+                        "Nœud de réservation injoignable, réessayez");
+            }
+        }
+        return ReservationResult.failure(ReservationResult.CODE_ROOM_NOT_FOUND, "Salle introuvable");
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.coworking.rest.room;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of computed single-day availability, keyed by (roomId, date).
+ *
+ * Availability only changes when a reservation is confirmed or released, or when a room's
+ * capacity/hours change, so those paths invalidate exactly the affected room and days.
+ * A generation counter guards against caching a value computed before a concurrent invalidation.
+ */
+@Component
+public class AvailabilityCache {
+
+    private final int maxEntries;
+    private volatile boolean enabled;
+    private final Map<Key, RoomAvailabilityService.RoomGrid> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AvailabilityCache(@Value("${rooms.availability.cache.enabled:true}") boolean enabled,
+                             @Value("${rooms.availability.cache.max-entries:2000}") int maxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<Key, RoomAvailabilityService.RoomGrid>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, RoomAvailabilityService.RoomGrid> eldest) {
+                if (size() > AvailabilityCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached grid for the room and day, computing it on a miss. A null result from the
+     * loader (unknown room) is not cached.
+     */
+    public RoomAvailabilityService.RoomGrid get(Long roomId, LocalDate date, Supplier<RoomAvailabilityService.RoomGrid> loader) {
+        if (!enabled) return loader.get();
+        Key key = new Key(roomId, date);
+        synchronized (entries) {
+            RoomAvailabilityService.RoomGrid cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        long gen = generation.get();
+        RoomAvailabilityService.RoomGrid computed = loader.get();
+        if (computed != null) {
+            synchronized (entries) {
+                if (generation.get() == gen) entries.put(key, computed);
+            }
+        }
+        return computed;
+    }
+
+    /** Drops the room's entries for every day touched by [start, end). */
+    public void invalidate(Long roomId, LocalDateTime start, LocalDateTime end) {
+        if (roomId == null) return;
+        if (start == null || end == null) {
+            invalidateRoom(roomId);
+            return;
+        }
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        synchronized (entries) {
+            generation.incrementAndGet();
+            for (LocalDate d = start.toLocalDate(); !d.isAfter(last); d = d.plusDays(1)) {
+                if (entries.remove(new Key(roomId, d)) != null) invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateRoom(Long roomId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<Key> it = entries.keySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().roomId.equals(roomId)) {
+                    it.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.clear();
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        synchronized (entries) {
+            m.put("size", entries.size());
+        }
+        m.put("maxEntries", maxEntries);
+        m.put("hits", hits.get());
+        m.put("misses", misses.get());
+        m.put("evictions", evictions.get());
+        m.put("invalidations", invalidations.get());
+        long total = hits.get() + misses.get();
+        m.put("hitRatio", total == 0 ? 0.0 : (double) hits.get() / total);
+        return m;
+    }
+
+    private static final class Key {
+        final Long roomId;
+        final LocalDate date;
+
+        Key(Long roomId, LocalDate date) {
+            this.roomId = roomId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return roomId.equals(k.roomId) && date.equals(k.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * roomId.hashCode() + date.hashCode();
+        }
+    }
+}
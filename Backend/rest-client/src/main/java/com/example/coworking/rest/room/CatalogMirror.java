@@ -0,0 +1,108 @@
+package com.example.coworking.rest.room;
+
+import com.example.coworking.common.CatalogDelta;
+import com.example.coworking.common.SalleDTO;
+import com.example.coworking.common.SalleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local copy of the rmi-server's room catalog, kept current with {@link SalleService#getSallesSince}:
+ * only changed and removed rooms cross the wire, and nothing but the version while the catalog is
+ * unchanged. A sync happens at most every catalog.mirror.max-age-ms, or on the next read after a
+ * local write to the catalog ({@link #catalogChanged()}).
+ *
+ * If the rmi-server is unreachable the last copy keeps being served.
+ */
+@Component
+public class CatalogMirror {
+    private static final Logger log = LoggerFactory.getLogger(CatalogMirror.class);
+
+    private final SalleService salleService;
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxAgeNanos;
+
+    private volatile List<SalleDTO> rooms; // id order, unmodifiable
+    private volatile Map<Long, SalleDTO> byId = Collections.emptyMap(); // same rooms, unmodifiable
+    private volatile long syncedAt;
+    private volatile boolean stale = true;
+    private long version; // guarded by this
+
+    public CatalogMirror(SalleService salleService, JdbcTemplate jdbcTemplate,
+                         @Value("${catalog.mirror.max-age-ms:1000}") long maxAgeMs) {
+        this.salleService = salleService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxAgeMs));
+    }
+
+    public List<SalleDTO> rooms() throws RemoteException {
+        List<SalleDTO> r = rooms;
+        if (r != null && !stale && System.nanoTime() - syncedAt < maxAgeNanos) return r;
+        synchronized (this) {
+            r = rooms;
+            if (r != null && !stale && System.nanoTime() - syncedAt < maxAgeNanos) return r;
+            try {
+                sync();
+            } catch (RemoteException | RuntimeException ex) {
+                if (r == null) throw ex;
+                log.warn("[CATALOG] Sync failed, serving the last copy: {}", ex.getMessage());
+            }
+            return rooms;
+        }
+    }
+
+    /** One room of the local copy (synced as for {@link #rooms()}), or null when it is not in the catalog. */
+    public SalleDTO room(Long id) throws RemoteException {
+        rooms();
+        return byId.get(id);
+    }
+
+    /**
+     * Called after this process wrote salles or room_amenities. Bumps the shared catalog_version so
+     * the rmi-server rebuilds its snapshot, and makes the next read sync.
+     */
+    public void catalogChanged() {
+        try {
+            jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+        } catch (Exception ex) {
+            log.warn("[CATALOG] Could not bump catalog_version: {}", ex.getMessage());
+        }
+        stale = true;
+    }
+
+    // Caller holds the monitor
+    private void sync() throws RemoteException {
+        // Clear first: a write landing during the call marks the mirror stale again
+        stale = false;
+        CatalogDelta d;
+        try {
+            d = salleService.getSallesSince(version);
+        } catch (RemoteException | RuntimeException ex) {
+            stale = true;
+            throw ex;
+        }
+        if (!d.isUnchanged()) {
+            Map<Long, SalleDTO> byId = new TreeMap<>();
+            if (!d.isFull() && rooms != null) {
+                for (SalleDTO room : rooms) byId.put(room.getId(), room);
+            }
+            for (SalleDTO room : d.getChanged()) byId.put(room.getId(), room);
+            for (Long id : d.getRemoved()) byId.remove(id);
+            this.byId = Collections.unmodifiableMap(byId);
+            rooms = Collections.unmodifiableList(new ArrayList<>(byId.values()));
+        }
+        version = d.getVersion();
+        syncedAt = System.nanoTime();
+    }
+}
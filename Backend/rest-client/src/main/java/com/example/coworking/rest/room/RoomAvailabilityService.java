@@ -0,0 +1,171 @@
+package com.example.coworking.rest.room;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes per-slot occupancy (CONFIRMED reservations only) for many rooms over a date range.
+ *
+ * Two set-based queries: the rooms, then every confirmed reservation intersecting the range for
+ * those rooms. Each reservation is swept into a per-room, per-day difference array (+1 at its first
+ * slot, -1 after its last) and a prefix sum turns the arrays into occupancy counts, so the cost is
+ * O(reservations + rooms x days x slots) instead of slots x reservations per room and day.
+ */
+@Service
+public class RoomAvailabilityService {
+    // Keeps a wide grid bounded: at most 288 slots per room and day
+    static final int MIN_SLOT_MINUTES = 5;
+
+    /**
+     * Confirmed reservations overlapping [from, to): (to, from), then the room filter. Only APPROVED
+     * (CONFIRMED) reservations count toward capacity. Public for the query plan check.
+     */
+    public static final String CONFIRMED_IN_WINDOW_SQL =
+            "SELECT r.salle_id, r.start_at, r.end_at FROM reservations r JOIN salles s ON s.id = r.salle_id " +
+                    "WHERE r.status = 'CONFIRMED' AND r.start_at < ? AND r.end_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalTime defaultOpen;
+    private final LocalTime defaultClose;
+    private final int defaultSlotMinutes;
+
+    public RoomAvailabilityService(JdbcTemplate jdbcTemplate,
+                                   @Value("${rooms.availability.open-time:08:00}") String defaultOpen,
+                                   @Value("${rooms.availability.close-time:20:00}") String defaultClose,
+                                   @Value("${rooms.availability.slot-minutes:30}") int defaultSlotMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultOpen = LocalTime.parse(defaultOpen);
+        this.defaultClose = LocalTime.parse(defaultClose);
+        this.defaultSlotMinutes = defaultSlotMinutes;
+    }
+
+    /** Occupancy of one room over consecutive days; occupancy[d][i] counts bookings in slot i of day d. */
+    public static class RoomGrid {
+        public final long roomId;
+        public final String name;
+        public final String location;
+        public final int capacity;
+        public final LocalTime open;
+        public final LocalTime close;
+        public final int slotMinutes;
+        public final int slotsPerDay;
+        public final int[][] occupancy;
+
+        RoomGrid(long roomId, String name, String location, int capacity,
+                 LocalTime open, LocalTime close, int slotMinutes, int days) {
+            this.roomId = roomId;
+            this.name = name;
+            this.location = location;
+            this.capacity = capacity;
+            this.open = open;
+            this.close = close;
+            this.slotMinutes = slotMinutes;
+            long openMinutes = Duration.between(open, close).toMinutes();
+            this.slotsPerDay = (int) ((openMinutes + slotMinutes - 1) / slotMinutes);
+            // One extra cell per day for the sweep's closing -1
+            this.occupancy = new int[days][slotsPerDay + 1];
+        }
+
+        public LocalTime slotStart(int slot) {
+            return open.plusMinutes((long) slot * slotMinutes);
+        }
+
+        public boolean isAvailable(int day, int slot) {
+            return occupancy[day][slot] < capacity;
+        }
+
+        void sweep(LocalDate from, LocalDateTime start, LocalDateTime end) {
+            long slotSeconds = slotMinutes * 60L;
+            long gridSeconds = slotsPerDay * slotSeconds;
+            for (LocalDate d = start.toLocalDate(); d.atStartOfDay().isBefore(end); d = d.plusDays(1)) {
+                int day = (int) ChronoUnit.DAYS.between(from, d);
+                if (day < 0) continue;
+                if (day >= occupancy.length) break;
+                LocalDateTime dayOpen = d.atTime(open);
+                long s = Math.max(0, Duration.between(dayOpen, start).getSeconds());
+                long e = Math.min(gridSeconds, Duration.between(dayOpen, end).getSeconds());
+                if (e <= s) continue;
+                // Slot i covers [i*slot, (i+1)*slot): it overlaps [s, e) for i in [floor(s/slot), ceil(e/slot))
+                occupancy[day][(int) (s / slotSeconds)]++;
+                occupancy[day][(int) ((e + slotSeconds - 1) / slotSeconds)]--;
+            }
+        }
+
+        void accumulate() {
+            for (int[] day : occupancy) {
+                for (int i = 1; i < day.length; i++) {
+                    day[i] += day[i - 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * @param roomId   restrict to one room, or null
+     * @param location restrict to one location, or null
+     * @return grids in room id order; empty when no room matches
+     */
+    public List<RoomGrid> compute(LocalDate from, LocalDate to, String location, Long roomId) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+
+        StringBuilder filter = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        if (roomId != null) { filter.append(" AND s.id = ?"); params.add(roomId); }
+        if (location != null) { filter.append(" AND s.location = ?"); params.add(location); }
+
+        List<RoomGrid> grids = jdbcTemplate.query(
+                "SELECT s.id, s.nom, s.location, s.capacite, s.open_time, s.close_time, s.slot_minutes " +
+                        "FROM salles s WHERE 1=1" + filter + " ORDER BY s.id",
+                (rs, n) -> {
+                    LocalTime open = toLocalTime(rs.getTime("open_time"), defaultOpen);
+                    LocalTime close = toLocalTime(rs.getTime("close_time"), defaultClose);
+                    if (!close.isAfter(open)) {
+                        open = defaultOpen;
+                        close = defaultClose;
+                    }
+                    int slot = rs.getInt("slot_minutes");
+                    if (rs.wasNull() || slot <= 0) slot = defaultSlotMinutes;
+                    slot = Math.max(MIN_SLOT_MINUTES, slot);
+                    return new RoomGrid(rs.getLong("id"), rs.getString("nom"), rs.getString("location"),
+                            rs.getInt("capacite"), open, close, slot, days);
+                },
+                params.toArray());
+        if (grids.isEmpty()) return grids;
+
+        Map<Long, RoomGrid> byId = new HashMap<>();
+        for (RoomGrid g : grids) byId.put(g.roomId, g);
+
+        List<Object> resParams = new ArrayList<>();
+        resParams.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        resParams.add(Timestamp.valueOf(from.atStartOfDay()));
+        resParams.addAll(params);
+        jdbcTemplate.query(CONFIRMED_IN_WINDOW_SQL + filter,
+                rs -> {
+                    RoomGrid g = byId.get(rs.getLong(1));
+                    if (g != null) {
+                        g.sweep(from, rs.getTimestamp(2).toLocalDateTime(), rs.getTimestamp(3).toLocalDateTime());
+                    }
+                },
+                resParams.toArray());
+
+        for (RoomGrid g : grids) g.accumulate();
+        return grids;
+    }
+
+    private static LocalTime toLocalTime(Time t, LocalTime fallback) {
+        return t == null ? fallback : t.toLocalTime();
+    }
+}
@@ -5,7 +5,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "salles")
+@Table(name = "salles", indexes = {
+        @Index(name = "idx_salles_location", columnList = "location")
+})
 public class SalleEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,10 +28,21 @@ public class SalleEntity {
     @Column(name = "price_per_hour", precision = 10, scale = 2)
     private java.math.BigDecimal pricePerHour;
 
+    // Opening hours and slot size for availability; null means the configured defaults
+    @Column(name = "open_time")
+    private java.time.LocalTime openTime;
+
+    @Column(name = "close_time")
+    private java.time.LocalTime closeTime;
+
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes;
+
     @Column(nullable = false)
     private Boolean available = true; // use wrapper to avoid NPE if legacy rows are NULL
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Lazy: rooms are listed through RoomsController.loadRooms, reservations only need the room row
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "room_amenities", joinColumns = @JoinColumn(name = "room_id"))
     @Column(name = "name", length = 60)
     private List<String> amenities = new ArrayList<>();
@@ -45,6 +58,12 @@ public class SalleEntity {
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
     public java.math.BigDecimal getPricePerHour() { return pricePerHour; }
     public void setPricePerHour(java.math.BigDecimal pricePerHour) { this.pricePerHour = pricePerHour; }
+    public java.time.LocalTime getOpenTime() { return openTime; }
+    public void setOpenTime(java.time.LocalTime openTime) { this.openTime = openTime; }
+    public java.time.LocalTime getCloseTime() { return closeTime; }
+    public void setCloseTime(java.time.LocalTime closeTime) { this.closeTime = closeTime; }
+    public Integer getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(Integer slotMinutes) { this.slotMinutes = slotMinutes; }
     public boolean isAvailable() { return Boolean.TRUE.equals(available); }
     public void setAvailable(boolean available) { this.available = available; }
     public void setAvailable(Boolean available) { this.available = available; }
@@ -0,0 +1,235 @@
+package com.example.coworking.rest.schema;
+
+import com.example.coworking.rest.reservation.ReservationArchiver;
+import com.example.coworking.rest.reservation.ReservationQueries;
+import com.example.coworking.rest.room.RoomAvailabilityService;
+import com.example.coworking.rest.user.UserQueries;
+import com.example.coworking.rest.user.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs EXPLAIN on the hot-path queries and reports any that would scan a whole table (access type ALL)
+ * or put a temporary table or filesort over many rows. Statements built by the JDBC read paths are
+ * taken from the classes that run them; repository JPQL is written out as the SQL Hibernate emits.
+ *
+ * Enabled with schema.explain-check.enabled; with schema.explain-check.fail=true a regression stops
+ * startup, so running the service once against a seeded database acts as the check. QueryPlanVerifierTest
+ * runs it on every build against a seeded H2 schema, whose plans only tell full scans apart.
+ *
+ * The optimizer legitimately prefers a full scan on tiny tables, and sorting a few rows is cheap, so
+ * tables and plan rows below schema.explain-check.min-rows (estimated) rows are not judged.
+ */
+@Component
+public class QueryPlanVerifier {
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    // H2 names the access path in a comment after each table; a full scan reads /* PUBLIC.T.tableScan */
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("/\\* \\w+\\.(\\w+)\\.tableScan");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final boolean failOnFinding;
+    private final long minRows;
+
+    public QueryPlanVerifier(JdbcTemplate jdbcTemplate,
+                             @Value("${schema.explain-check.enabled:false}") boolean enabled,
+                             @Value("${schema.explain-check.fail:false}") boolean failOnFinding,
+                             @Value("${schema.explain-check.min-rows:1000}") long minRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.failOnFinding = failOnFinding;
+        this.minRows = minRows;
+    }
+
+    static final class HotQuery {
+        final String name;
+        final String sql;
+        final Object[] params;
+        final boolean readsWholeTable; // an export: the scan is the point, only a sort in front of it is not
+
+        HotQuery(String name, String sql, Object... params) {
+            this(name, false, sql, params);
+        }
+
+        HotQuery(String name, boolean readsWholeTable, String sql, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+            this.readsWholeTable = readsWholeTable;
+        }
+    }
+
+    static List<HotQuery> hotQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp from = Timestamp.valueOf(now);
+        Timestamp to = Timestamp.valueOf(now.plusHours(2));
+        List<HotQuery> queries = new ArrayList<>();
+
+        // Repository JPQL, as the SQL Hibernate generates for it
+        queries.add(new HotQuery("countOverlaps",
+                "SELECT COUNT(*) FROM reservations r WHERE r.salle_id = ? AND r.status IN ('CONFIRMED') " +
+                        "AND r.start_at IS NOT NULL AND r.end_at IS NOT NULL AND r.start_at < ? AND r.end_at > ?",
+                1L, to, from));
+        queries.add(new HotQuery("findForDay",
+                "SELECT * FROM reservations r WHERE r.salle_id = ? AND r.status IN ('CONFIRMED', 'PENDING') " +
+                        "AND r.start_at IS NOT NULL AND r.end_at IS NOT NULL AND r.start_at < ? AND r.end_at > ?",
+                1L, to, from));
+        queries.add(new HotQuery("findBySalle_IdAndStatus",
+                "SELECT * FROM reservations r WHERE r.salle_id = ? AND r.status = ?", 1L, "CONFIRMED"));
+        queries.add(new HotQuery("countActiveConfirmed",
+                "SELECT COUNT(*) FROM reservations r WHERE r.salle_id = ? AND r.status = 'CONFIRMED' AND r.end_at > ?",
+                1L, from));
+        queries.add(new HotQuery("findByClientAndStatus",
+                "SELECT * FROM reservations r WHERE r.client = ? AND r.status = ?", "someone@example.com", "CONFIRMED"));
+        queries.add(new HotQuery("findByUserIdAndStatus",
+                "SELECT * FROM reservations r WHERE r.user_id = ? AND r.status = ?", 1L, "CONFIRMED"));
+
+        // JDBC read paths, with the SQL their classes build
+        queries.add(new HotQuery("availabilityGrid", RoomAvailabilityService.CONFIRMED_IN_WINDOW_SQL, to, from));
+        ReservationQueries.Filter mine = new ReservationQueries.Filter();
+        mine.userId = 1L;
+        mine.status = "CONFIRMED";
+        queries.add(built("reservationList", false, params -> ReservationQueries.listSql(mine, 1000, params)));
+        queries.add(built("reservationPage", false, params -> ReservationQueries.pageSql(
+                new ReservationQueries.Filter(), new ReservationQueries.Cursor(now, 1L), 50, false, params)));
+        queries.add(built("reservationExport", true, params -> ReservationQueries.exportSql(
+                ReservationArchiver.LIVE_TABLE, new ReservationQueries.Filter(), params)));
+        queries.add(new HotQuery("archiveCandidates", ReservationArchiver.CANDIDATES_SQL,
+                Timestamp.valueOf(now.minusDays(90)), 1000));
+        queries.add(new HotQuery("userList", UserQueries.LIST_SQL, 1000));
+        UserQueries.Filter users = new UserQueries.Filter();
+        users.role = UserRole.USER;
+        queries.add(built("userDirectoryPage", false, params -> UserQueries.pageSql(
+                users, new UserQueries.Cursor("m", 1L), 50, params)));
+        UserQueries.Filter search = new UserQueries.Filter();
+        search.prefix = "m";
+        queries.add(built("userSearchPage", false, params -> UserQueries.pageSql(search, null, 50, params)));
+        return queries;
+    }
+
+    private static HotQuery built(String name, boolean readsWholeTable, Function<List<Object>, String> builder) {
+        List<Object> params = new ArrayList<>();
+        String sql = builder.apply(params);
+        return new HotQuery(name, readsWholeTable, sql, params.toArray());
+    }
+
+    public static class Finding {
+        public final String query;
+        public final String table;
+        public final String type;
+        public final String key;
+        public final String problem;
+
+        Finding(String query, String table, String type, String key, String problem) {
+            this.query = query;
+            this.table = table;
+            this.type = type;
+            this.key = key;
+            this.problem = problem;
+        }
+
+        @Override
+        public String toString() {
+            return query + " -> " + table + ": " + problem + " (type=" + type + " key=" + key + ")";
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        if (!enabled) return;
+        List<Finding> findings = verify();
+        if (findings.isEmpty()) {
+            log.info("[EXPLAIN] All {} hot-path queries use an index and sort no large row set", hotQueries().size());
+            return;
+        }
+        for (Finding f : findings) log.warn("[EXPLAIN] {}", f);
+        if (failOnFinding) {
+            throw new IllegalStateException("Hot-path query plans regressed: " + findings);
+        }
+    }
+
+    /** @return the plan rows of hot-path queries that scan or sort a sizeable table */
+    public List<Finding> verify() {
+        List<Finding> findings = new ArrayList<>();
+        for (HotQuery q : hotQueries()) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + q.sql, q.params)) {
+                if (row.containsKey("PLAN")) {
+                    findings.addAll(judgeH2Plan(q, (String) row.get("PLAN")));
+                    continue;
+                }
+                String table = (String) row.get("table");
+                // <unionN,M> and <derivedN> rows merge branches that are already limited
+                if (table == null || table.startsWith("<")) continue;
+                String type = (String) row.get("type");
+                Number planRows = (Number) row.get("rows");
+                String problem = problem(q.readsWholeTable, type, (String) row.get("Extra"),
+                        planRows == null ? 0 : planRows.longValue(), () -> estimatedRows(tableName(table)), minRows);
+                if (problem != null) findings.add(new Finding(q.name, table, type, (String) row.get("key"), problem));
+            }
+        }
+        return findings;
+    }
+
+    /** What is wrong with one MySQL plan row, or null; the table size is only looked up for a full scan. */
+    static String problem(boolean readsWholeTable, String type, String extra, long planRows, LongSupplier tableRows,
+                          long minRows) {
+        if (!readsWholeTable && "ALL".equals(type) && tableRows.getAsLong() >= minRows) return "full table scan";
+        if (extra == null || planRows < minRows) return null;
+        if (extra.contains("Using temporary")) return "temporary table over ~" + planRows + " rows";
+        if (extra.contains("Using filesort")) return "filesort over ~" + planRows + " rows";
+        return null;
+    }
+
+    // H2 prints one plan text per statement and only says which tables are scanned, not how rows are sorted
+    private List<Finding> judgeH2Plan(HotQuery q, String plan) {
+        List<Finding> findings = new ArrayList<>();
+        if (q.readsWholeTable) return findings;
+        Matcher m = H2_TABLE_SCAN.matcher(plan);
+        while (m.find()) {
+            String table = m.group(1).toLowerCase(Locale.ROOT);
+            if (estimatedRows(table) >= minRows) {
+                findings.add(new Finding(q.name, table, "tableScan", null, "full table scan"));
+            }
+        }
+        return findings;
+    }
+
+    // EXPLAIN reports the alias; every hot query aliases reservations (live or archive) as r, salles as s and users as u
+    private static String tableName(String alias) {
+        if ("r".equals(alias)) return "reservations";
+        if ("s".equals(alias)) return "salles";
+        if ("u".equals(alias)) return "users";
+        return alias;
+    }
+
+    private long estimatedRows(String table) {
+        try {
+            List<Long> n = jdbcTemplate.queryForList(
+                    "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                    Long.class, table);
+            return n.isEmpty() || n.get(0) == null ? 0 : n.get(0);
+        } catch (DataAccessException ex) {
+            // No table_rows statistics (H2): count instead; the name comes from a plan, not from input
+            Long n = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+            return n == null ? 0 : n;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.coworking.rest.schema;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * One versioned schema change. Versions are applied in ascending order and recorded
+ * in the schema_version table so each migration runs exactly once per database.
+ */
+public class SchemaMigration {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(JdbcTemplate jdbcTemplate);
+    }
+
+    private final int version;
+    private final String description;
+    private final Step step;
+
+    public SchemaMigration(int version, String description, Step step) {
+        this.version = version;
+        this.description = description;
+        this.step = step;
+    }
+
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+
+    public void apply(JdbcTemplate jdbcTemplate) {
+        step.apply(jdbcTemplate);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.coworking.rest.schema;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered catalog of schema migrations. Append new entries with the next version number;
+ * never edit or renumber a migration that has already shipped.
+ *
+ * Steps are written to be safe on databases created before versioning existed
+ * (columns may already be present), so they check the catalog instead of relying on
+ * DDL failing.
+ */
+public final class SchemaMigrations {
+
+    private SchemaMigrations() {}
+
+    public static List<SchemaMigration> all() {
+        List<SchemaMigration> list = new ArrayList<>();
+
+        list.add(new SchemaMigration(1, "create salles base table", jdbc ->
+                jdbc.execute("CREATE TABLE IF NOT EXISTS salles (" +
+                        "id BIGINT PRIMARY KEY AUTO_INCREMENT," +
+                        "nom VARCHAR(255) NOT NULL," +
+                        "capacite INT NOT NULL" +
+                        ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4")));
+
+        list.add(new SchemaMigration(2, "add salles location/image_url/available/price_per_hour", jdbc -> {
+            addColumnIfMissing(jdbc, "salles", "location", "VARCHAR(80)");
+            addColumnIfMissing(jdbc, "salles", "image_url", "VARCHAR(512)");
+            addColumnIfMissing(jdbc, "salles", "available", "TINYINT(1) NOT NULL DEFAULT 1");
+            addColumnIfMissing(jdbc, "salles", "price_per_hour", "DECIMAL(10,2) NULL");
+            // Ensure 'available' has a default to avoid INSERT errors when client omits it
+            jdbc.execute("ALTER TABLE salles MODIFY available TINYINT(1) NOT NULL DEFAULT 1");
+        }));
+
+        list.add(new SchemaMigration(3, "create room_amenities", jdbc ->
+                jdbc.execute("CREATE TABLE IF NOT EXISTS room_amenities (" +
+                        "room_id BIGINT NOT NULL, " +
+                        "name VARCHAR(60) NOT NULL, " +
+                        "PRIMARY KEY (room_id, name), " +
+                        "CONSTRAINT fk_room_amenities_room FOREIGN KEY (room_id) REFERENCES salles(id) ON DELETE CASCADE" +
+                        ")")));
+
+        list.add(new SchemaMigration(4, "backfill reservations start_at/end_at for legacy rows", jdbc -> {
+            if (!tableExists(jdbc, "reservations")) return;
+            // Avoid "Invalid Date" / missing times in UI for rows created before time windows existed
+            jdbc.execute("UPDATE reservations SET start_at = created_at WHERE start_at IS NULL AND created_at IS NOT NULL");
+            jdbc.execute("UPDATE reservations SET end_at = start_at WHERE end_at IS NULL AND start_at IS NOT NULL");
+        }));
+
+        list.add(new SchemaMigration(5, "add per-room opening hours and slot size", jdbc -> {
+            // NULL means the rooms.availability.* defaults apply
+            addColumnIfMissing(jdbc, "salles", "open_time", "TIME NULL");
+            addColumnIfMissing(jdbc, "salles", "close_time", "TIME NULL");
+            addColumnIfMissing(jdbc, "salles", "slot_minutes", "INT NULL");
+        }));
+
+        list.add(new SchemaMigration(6, "link reservations to users.id and backfill legacy client values", jdbc -> {
+            addColumnIfMissing(jdbc, "reservations", "user_id", "BIGINT NULL");
+            createIndexIfMissing(jdbc, "reservations", "idx_reservations_user_status", "user_id, status");
+            if (!constraintExists(jdbc, "reservations", "fk_reservations_user")) {
+                jdbc.execute("ALTER TABLE reservations ADD CONSTRAINT fk_reservations_user " +
+                        "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL");
+            }
+            // Resolve the free-text client the way the legacy lookup did: email, then unambiguous
+            // display name, then unambiguous email local part
+            jdbc.update("UPDATE reservations r JOIN users u ON LOWER(u.email) = LOWER(TRIM(r.client)) " +
+                    "SET r.user_id = u.id WHERE r.user_id IS NULL");
+            jdbc.update("UPDATE reservations r JOIN (" +
+                    "SELECT MIN(id) AS id, LOWER(name) AS n FROM users GROUP BY LOWER(name) HAVING COUNT(*) = 1" +
+                    ") u ON u.n = LOWER(TRIM(r.client)) SET r.user_id = u.id WHERE r.user_id IS NULL");
+            jdbc.update("UPDATE reservations r JOIN (" +
+                    "SELECT MIN(id) AS id, LOWER(SUBSTRING_INDEX(email, '@', 1)) AS lp FROM users " +
+                    "GROUP BY LOWER(SUBSTRING_INDEX(email, '@', 1)) HAVING COUNT(*) = 1" +
+                    ") u ON u.lp = LOWER(TRIM(r.client)) SET r.user_id = u.id WHERE r.user_id IS NULL");
+        }));
+
+        list.add(new SchemaMigration(7, "index reservations for keyset pagination on (start_at, id)", jdbc ->
+                createIndexIfMissing(jdbc, "reservations", "idx_reservations_start_id", "start_at, id")));
+
+        list.add(new SchemaMigration(8, "create hourly and daily occupancy rollups", jdbc -> {
+            // Booked minutes of CONFIRMED reservations per room and bucket; rebuilt from reservations on demand
+            jdbc.execute("CREATE TABLE IF NOT EXISTS occupancy_hourly (" +
+                    "salle_id BIGINT NOT NULL, " +
+                    "hour_start DATETIME NOT NULL, " +
+                    "booked_minutes INT NOT NULL, " +
+                    "PRIMARY KEY (salle_id, hour_start), " +
+                    "KEY idx_occupancy_hourly_hour (hour_start)" +
+                    ") ENGINE=InnoDB");
+            jdbc.execute("CREATE TABLE IF NOT EXISTS occupancy_daily (" +
+                    "salle_id BIGINT NOT NULL, " +
+                    "day DATE NOT NULL, " +
+                    "booked_minutes INT NOT NULL, " +
+                    "PRIMARY KEY (salle_id, day), " +
+                    "KEY idx_occupancy_daily_day (day)" +
+                    ") ENGINE=InnoDB");
+        }));
+
+        list.add(new SchemaMigration(9, "create reservations_archive and index reservations.end_at", jdbc -> {
+            // Same columns and indexes as the live table; rows keep their original id
+            jdbc.execute("CREATE TABLE IF NOT EXISTS reservations_archive LIKE reservations");
+            addColumnIfMissing(jdbc, "reservations_archive", "archived_at", "DATETIME NULL");
+            createIndexIfMissing(jdbc, "reservations", "idx_reservations_end", "end_at");
+        }));
+
+        list.add(new SchemaMigration(10, "composite indexes for overlap, listing and location queries", jdbc -> {
+            // Also declared on the entities; same names so ddl-auto never duplicates them
+            for (String table : new String[]{"reservations", "reservations_archive"}) {
+                createIndexIfMissing(jdbc, table, "idx_reservations_room_status_window", "salle_id, status, start_at, end_at");
+                createIndexIfMissing(jdbc, table, "idx_reservations_status_start", "status, start_at, end_at");
+                createIndexIfMissing(jdbc, table, "idx_reservations_client_status", "client, status");
+            }
+            createIndexIfMissing(jdbc, "salles", "idx_salles_location", "location");
+        }));
+
+        list.add(new SchemaMigration(11, "index users for directory order, role filter and name prefix search", jdbc -> {
+            // On a fresh database the entity declares them when ddl-auto creates the table
+            if (!tableExists(jdbc, "users")) return;
+            createIndexIfMissing(jdbc, "users", "idx_users_name", "name");
+            createIndexIfMissing(jdbc, "users", "idx_users_role_name", "role, name");
+        }));
+
+        list.add(new SchemaMigration(12, "create catalog_version change counter for the room catalog", jdbc -> {
+            // Bumped by every write to salles/room_amenities; the rmi-server polls it to rebuild its catalog
+            jdbc.execute("CREATE TABLE IF NOT EXISTS catalog_version (" +
+                    "id TINYINT PRIMARY KEY, " +
+                    "version BIGINT NOT NULL" +
+                    ") ENGINE=InnoDB");
+            jdbc.execute("INSERT IGNORE INTO catalog_version (id, version) VALUES (1, 0)");
+        }));
+
+        list.add(new SchemaMigration(13, "track reservations counted in the occupancy rollups", jdbc -> {
+            // One row per live CONFIRMED reservation whose minutes are in the rollups; makes deltas idempotent
+            jdbc.execute("CREATE TABLE IF NOT EXISTS occupancy_applied (" +
+                    "reservation_id BIGINT PRIMARY KEY, " +
+                    "salle_id BIGINT NOT NULL, " +
+                    "KEY idx_occupancy_applied_room (salle_id)" +
+                    ") ENGINE=InnoDB");
+            // Existing rollups have no applied rows; empty them so the startup backfill rebuilds both
+            jdbc.execute("DELETE FROM occupancy_hourly");
+            jdbc.execute("DELETE FROM occupancy_daily");
+        }));
+
+        return Collections.unmodifiableList(list);
+    }
+
+    static boolean tableExists(JdbcTemplate jdbc, String table) {
+        Integer n = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, table);
+        return n != null && n > 0;
+    }
+
+    static boolean columnExists(JdbcTemplate jdbc, String table, String column) {
+        Integer n = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+                Integer.class, table, column);
+        return n != null && n > 0;
+    }
+
+    static boolean indexExists(JdbcTemplate jdbc, String table, String index) {
+        Integer n = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                Integer.class, table, index);
+        return n != null && n > 0;
+    }
+
+    static boolean constraintExists(JdbcTemplate jdbc, String table, String constraint) {
+        Integer n = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.table_constraints WHERE table_schema = DATABASE() AND table_name = ? AND constraint_name = ?",
+                Integer.class, table, constraint);
+        return n != null && n > 0;
+    }
+
+    static void createIndexIfMissing(JdbcTemplate jdbc, String table, String index, String columns) {
+        if (!indexExists(jdbc, table, index)) {
+            jdbc.execute("CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    static void addColumnIfMissing(JdbcTemplate jdbc, String table, String column, String definition) {
+        if (!columnExists(jdbc, table, column)) {
+            jdbc.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+}
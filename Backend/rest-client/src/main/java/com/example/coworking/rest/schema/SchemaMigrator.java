@@ -0,0 +1,57 @@
+package com.example.coworking.rest.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies pending {@link SchemaMigration}s and records each applied version in schema_version.
+ * Runs once at startup; nothing on the request path issues DDL.
+ */
+@Component
+public class SchemaMigrator {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the number of migrations applied by this call
+     */
+    public synchronized int migrate(List<SchemaMigration> migrations) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, " +
+                "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+
+        Set<Integer> applied = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT version FROM schema_version", Integer.class));
+
+        int count = 0;
+        for (SchemaMigration m : migrations) {
+            if (applied.contains(m.getVersion())) continue;
+            log.info("[SCHEMA] Applying V{}: {}", m.getVersion(), m.getDescription());
+            try {
+                m.apply(jdbcTemplate);
+            } catch (RuntimeException ex) {
+                // Stop here: later migrations may depend on this one, and the version stays unrecorded for a retry
+                throw new IllegalStateException("Schema migration V" + m.getVersion() + " failed: " + ex.getMessage(), ex);
+            }
+            jdbcTemplate.update("INSERT INTO schema_version(version, description) VALUES (?,?)",
+                    m.getVersion(), m.getDescription());
+            count++;
+        }
+        Integer current = jdbcTemplate.queryForObject("SELECT MAX(version) FROM schema_version", Integer.class);
+        log.info("[SCHEMA] Schema at V{} ({} migration(s) applied)", current, count);
+        return count;
+    }
+}
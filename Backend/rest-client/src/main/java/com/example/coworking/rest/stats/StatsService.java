@@ -0,0 +1,138 @@
+package com.example.coworking.rest.stats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the admin statistics with three GROUP BY queries (rooms, reservations, users) and keeps
+ * the result until a write path marks it dirty or it is older than stats.max-age-seconds. The age
+ * bound covers writes made outside this process (the rmi-server inserting reservations).
+ *
+ * Archived reservations are counted too. The archive only changes when the archiver runs, so its
+ * per-location/status counts are kept separately and recomputed only after an archival.
+ */
+@Service
+public class StatsService {
+    private static final String NO_LOCATION = "Unassigned";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration maxAge;
+
+    private volatile StatsSnapshot current;
+    private volatile boolean dirty = true;
+    // location, status, count rows of reservations_archive
+    private volatile List<Object[]> archiveCounts;
+
+    public StatsService(JdbcTemplate jdbcTemplate,
+                        @Value("${stats.max-age-seconds:30}") long maxAgeSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAge = Duration.ofSeconds(Math.max(0, maxAgeSeconds));
+    }
+
+    /** Called by the room, reservation and user write paths. */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /** Called by the archiver after it moved reservations. */
+    public void markArchiveDirty() {
+        archiveCounts = null;
+        dirty = true;
+    }
+
+    public StatsSnapshot snapshot() {
+        StatsSnapshot s = current;
+        if (s != null && !dirty && s.generatedAt.plus(maxAge).isAfter(Instant.now())) {
+            return s;
+        }
+        synchronized (this) {
+            // Another request may have refreshed while this one waited
+            s = current;
+            if (s != null && !dirty && s.generatedAt.plus(maxAge).isAfter(Instant.now())) {
+                return s;
+            }
+            dirty = false;
+            s = compute();
+            current = s;
+            return s;
+        }
+    }
+
+    private StatsSnapshot compute() {
+        StatsSnapshot s = new StatsSnapshot();
+        s.generatedAt = Instant.now();
+        s.maxAgeSeconds = maxAge.getSeconds();
+        Map<String, StatsSnapshot.LocationStats> byLocation = new LinkedHashMap<>();
+
+        jdbcTemplate.query(
+                "SELECT location, COUNT(*), SUM(available = 1), " +
+                        "SUM(capacite <= 6), SUM(capacite BETWEEN 7 AND 10), SUM(capacite > 10) " +
+                        "FROM salles GROUP BY location ORDER BY location",
+                rs -> {
+                    StatsSnapshot.LocationStats l = location(byLocation, rs.getString(1));
+                    l.rooms = rs.getLong(2);
+                    l.available = rs.getLong(3);
+                    l.reserved = l.rooms - l.available;
+                    s.totalRooms += l.rooms;
+                    s.availableRooms += l.available;
+                    s.smallRooms += rs.getLong(4);
+                    s.mediumRooms += rs.getLong(5);
+                    s.largeRooms += rs.getLong(6);
+                });
+        s.reservedRooms = s.totalRooms - s.availableRooms;
+
+        List<Object[]> archived = archiveCounts;
+        if (archived == null) {
+            archived = countReservations("reservations_archive");
+            archiveCounts = archived;
+        }
+        for (List<Object[]> rows : java.util.Arrays.asList(countReservations("reservations"), archived)) {
+            for (Object[] row : rows) {
+                String status = row[1] == null ? "CONFIRMED" : ((String) row[1]).toUpperCase();
+                long n = (Long) row[2];
+                s.totalReservations += n;
+                s.reservationsByStatus.merge(status, n, Long::sum);
+                if ("CONFIRMED".equals(status)) {
+                    location(byLocation, (String) row[0]).confirmedBookings += n;
+                }
+            }
+        }
+
+        jdbcTemplate.query("SELECT role, COUNT(*) FROM users GROUP BY role",
+                rs -> {
+                    long n = rs.getLong(2);
+                    s.totalUsers += n;
+                    if ("ADMIN".equals(rs.getString(1))) s.adminUsers += n; else s.regularUsers += n;
+                });
+
+        s.locations.addAll(byLocation.values());
+        return s;
+    }
+
+    private List<Object[]> countReservations(String table) {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT s.location, r.status, COUNT(*) FROM " + table + " r LEFT JOIN salles s ON s.id = r.salle_id " +
+                        "GROUP BY s.location, r.status",
+                rs -> {
+                    rows.add(new Object[]{rs.getString(1), rs.getString(2), rs.getLong(3)});
+                });
+        return rows;
+    }
+
+    private static StatsSnapshot.LocationStats location(Map<String, StatsSnapshot.LocationStats> byLocation, String name) {
+        return byLocation.computeIfAbsent(name == null ? NO_LOCATION : name, n -> {
+            StatsSnapshot.LocationStats l = new StatsSnapshot.LocationStats();
+            l.name = n;
+            return l;
+        });
+    }
+}
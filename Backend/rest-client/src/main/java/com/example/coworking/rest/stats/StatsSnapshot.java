@@ -0,0 +1,38 @@
+package com.example.coworking.rest.stats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Aggregates shown on the admin statistics page. */
+public class StatsSnapshot {
+    public Instant generatedAt;
+    public long maxAgeSeconds;
+
+    public long totalRooms;
+    public long availableRooms;
+    public long reservedRooms;
+    // Small (1-6), Medium (7-10), Large (11+)
+    public long smallRooms;
+    public long mediumRooms;
+    public long largeRooms;
+
+    public long totalReservations;
+    public Map<String, Long> reservationsByStatus = new LinkedHashMap<>();
+
+    public long totalUsers;
+    public long adminUsers;
+    public long regularUsers;
+
+    public List<LocationStats> locations = new ArrayList<>();
+
+    public static class LocationStats {
+        public String name;
+        public long rooms;
+        public long available;
+        public long reserved;
+        public long confirmedBookings;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.coworking.rest.user;
+
+/** Registration hit the uk_users_email unique constraint. */
+public class EmailAlreadyRegisteredException extends RuntimeException {
+    public EmailAlreadyRegisteredException(String email) {
+        super("Email already registered: " + email);
+    }
+}
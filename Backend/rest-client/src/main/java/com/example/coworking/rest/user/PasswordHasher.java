@@ -0,0 +1,89 @@
+package com.example.coworking.rest.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt off the request threads. Hashing is pure CPU, so the pool has one thread per core
+ * (auth.hashing.threads) and a short bounded queue (auth.hashing.queue-size); when both are full the
+ * call fails at once with {@link PasswordHashingBusyException}, answered as 503, instead of piling up
+ * behind a login burst while every other endpoint waits for a worker thread.
+ */
+@Component
+public class PasswordHasher {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-size:64}") int queueSize) {
+        this.passwordEncoder = passwordEncoder;
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks the password and, when it matches a hash made with an older work factor, computes the
+     * replacement hash in the same task (the plain password is only available now).
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String storedHash) {
+        return submit(() -> {
+            if (storedHash == null || !passwordEncoder.matches(rawPassword, storedHash)) {
+                return Verification.MISMATCH;
+            }
+            String upgraded = passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(rawPassword) : null;
+            return new Verification(true, upgraded);
+        });
+    }
+
+    public static final class Verification {
+        static final Verification MISMATCH = new Verification(false, null);
+
+        private final boolean matches;
+        private final String upgradedHash;
+
+        Verification(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean matches() { return matches; }
+        /** @return a hash at the configured cost to store instead of the old one, or null */
+        public String upgradedHash() { return upgradedHash; }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException ex) {
+            throw new PasswordHashingBusyException();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
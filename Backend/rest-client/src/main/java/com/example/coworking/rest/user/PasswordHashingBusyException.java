@@ -0,0 +1,8 @@
+package com.example.coworking.rest.user;
+
+/** All password hashing threads are busy and the queue is full; the client should retry shortly. */
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException() {
+        super("Too many concurrent sign-ins, please retry");
+    }
+}
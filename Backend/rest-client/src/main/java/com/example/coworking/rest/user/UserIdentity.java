@@ -0,0 +1,25 @@
+package com.example.coworking.rest.user;
+
+/** The identity fields of a user (no password hash, no contact details), as cached by {@link UserIdentityCache}. */
+public final class UserIdentity {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final UserRole role;
+
+    public UserIdentity(Long id, String name, String email, UserRole role) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+    }
+
+    static UserIdentity of(UserEntity u) {
+        return new UserIdentity(u.getId(), u.getName(), u.getEmail(), u.getRole());
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public UserRole getRole() { return role; }
+}
@@ -0,0 +1,111 @@
+package com.example.coworking.rest.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of user identities, looked up by email or id. Entries live at most
+ * users.identity-cache.ttl-seconds and the least recently used ones are evicted past
+ * users.identity-cache.max-entries. The users endpoints invalidate a user whenever they change or
+ * delete it; the TTL bounds staleness for changes made outside this process.
+ *
+ * Unknown emails are not cached, so a user who registers is found right away.
+ */
+@Component
+public class UserIdentityCache {
+
+    private static final class Entry {
+        final UserIdentity identity;
+        final long loadedAt;
+
+        Entry(UserIdentity identity, long loadedAt) {
+            this.identity = identity;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    // Guarded by byId; emails are keyed in lower case like the case-insensitive column collation
+    private final Map<Long, Entry> byId;
+    private final Map<String, Long> idByEmail = new HashMap<>();
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${users.identity-cache.ttl-seconds:300}") long ttlSeconds,
+                             @Value("${users.identity-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = Duration.ofSeconds(Math.max(0, ttlSeconds)).toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.byId = new LinkedHashMap<Long, Entry>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > UserIdentityCache.this.maxEntries) {
+                    idByEmail.remove(key(eldest.getValue().identity.getEmail()), eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<UserIdentity> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        synchronized (byId) {
+            Long id = idByEmail.get(key(email));
+            UserIdentity cached = id == null ? null : fresh(id);
+            if (cached != null) return Optional.of(cached);
+        }
+        return userRepository.findByEmail(email).map(this::put);
+    }
+
+    public Optional<UserIdentity> findById(Long id) {
+        if (id == null) return Optional.empty();
+        synchronized (byId) {
+            UserIdentity cached = fresh(id);
+            if (cached != null) return Optional.of(cached);
+        }
+        return userRepository.findById(id).map(this::put);
+    }
+
+    /** Caches a user just loaded or saved elsewhere (login, registration). */
+    public UserIdentity put(UserEntity user) {
+        UserIdentity identity = UserIdentity.of(user);
+        synchronized (byId) {
+            Entry previous = byId.put(identity.getId(), new Entry(identity, System.nanoTime()));
+            if (previous != null) idByEmail.remove(key(previous.identity.getEmail()), identity.getId());
+            idByEmail.put(key(identity.getEmail()), identity.getId());
+        }
+        return identity;
+    }
+
+    public void invalidate(Long id) {
+        synchronized (byId) {
+            Entry removed = byId.remove(id);
+            if (removed != null) idByEmail.remove(key(removed.identity.getEmail()), id);
+        }
+    }
+
+    // Caller holds the lock
+    private UserIdentity fresh(Long id) {
+        Entry e = byId.get(id);
+        if (e == null) return null;
+        if (System.nanoTime() - e.loadedAt > ttlNanos) {
+            byId.remove(id);
+            idByEmail.remove(key(e.identity.getEmail()), id);
+            return null;
+        }
+        return e.identity;
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
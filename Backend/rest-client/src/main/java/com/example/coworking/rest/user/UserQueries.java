@@ -0,0 +1,180 @@
+package com.example.coworking.rest.user;
+
+import com.example.coworking.rest.auth.UserResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Read-side queries for the user directory. Pages are keyset-paginated on (name, id) and every
+ * filter maps to an index: idx_users_name / idx_users_role_name for the order, the role filter and
+ * name prefixes, uk_users_email for email prefixes. A search on both columns runs one indexed branch
+ * per column and merges them with UNION.
+ *
+ * Totals are estimates: the table statistics without filters, otherwise a count that stops at
+ * {@link #COUNT_CAP}, so no page ever pays for a full COUNT(*).
+ */
+@Component
+public class UserQueries {
+    public static final int MAX_PAGE_SIZE = 200;
+    static final int COUNT_CAP = 1000;
+
+    private static final String COLUMNS = "u.id, u.name, u.email, u.phone, u.role, u.created_at";
+    /** Statement of {@link #list()}; public, like {@link #pageSql}, for the query plan check. */
+    public static final String LIST_SQL = "SELECT " + COLUMNS + " FROM users u ORDER BY u.name, u.id LIMIT ?";
+
+    private static final RowMapper<UserResponse> ROW_MAPPER = (rs, n) -> {
+        Timestamp created = rs.getTimestamp("created_at");
+        return UserResponse.of(rs.getLong("id"), rs.getString("name"), rs.getString("email"), rs.getString("phone"),
+                UserRole.valueOf(rs.getString("role")), created == null ? null : created.toLocalDateTime());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int listMaxRows;
+
+    public UserQueries(JdbcTemplate jdbcTemplate, @Value("${users.list.max-rows:1000}") int listMaxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listMaxRows = Math.max(1, listMaxRows);
+    }
+
+    /** Optional filters; null fields are ignored. */
+    public static class Filter {
+        public UserRole role;
+        public String prefix; // matched against the start of name or email
+    }
+
+    /** Position after the last row of a page, exchanged with clients as an opaque token. */
+    public static final class Cursor {
+        final String name;
+        final long id;
+
+        public Cursor(String name, long id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        public String encode() {
+            String raw = id + "|" + name;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** @throws IllegalArgumentException when the token was not produced by {@link #encode()} */
+        public static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(raw.substring(sep + 1), Long.parseLong(raw.substring(0, sep)));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
+    public static class Page {
+        public final List<UserResponse> items;
+        public final Cursor next; // null on the last page
+
+        Page(List<UserResponse> items, Cursor next) {
+            this.items = items;
+            this.next = next;
+        }
+    }
+
+    public static class Total {
+        public final long count;
+        public final boolean exact;
+
+        Total(long count, boolean exact) {
+            this.count = count;
+            this.exact = exact;
+        }
+    }
+
+    /** The first users.list.max-rows users ({@link #listMaxRows()}) in directory order. */
+    public List<UserResponse> list() {
+        return jdbcTemplate.query(LIST_SQL, ROW_MAPPER, listMaxRows);
+    }
+
+    public int listMaxRows() {
+        return listMaxRows;
+    }
+
+    public Page page(Filter filter, Cursor after, int limit) {
+        int size = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        List<Object> params = new ArrayList<>();
+        String sql = pageSql(filter, after, size, params);
+        List<UserResponse> rows = jdbcTemplate.query(sql, ROW_MAPPER, params.toArray());
+        Cursor next = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            UserResponse last = rows.get(size - 1);
+            next = new Cursor(last.getName(), last.getId());
+        }
+        return new Page(rows, next);
+    }
+
+    /** Statement of {@link #page}, fetching {@code size + 1} rows; appends its parameters to {@code params}. */
+    public static String pageSql(Filter filter, Cursor after, int size, List<Object> params) {
+        if (filter.prefix == null) {
+            return branch(filter.role, null, null, after, size, params);
+        }
+        // UNION (not ALL): a user whose name and email both match appears once
+        String sql = "(" + branch(filter.role, "u.name", filter.prefix, after, size, params) + ") UNION (" +
+                branch(filter.role, "u.email", filter.prefix, after, size, params) + ") ORDER BY name, id LIMIT ?";
+        params.add(size + 1);
+        return sql;
+    }
+
+    public Total estimateTotal(Filter filter) {
+        if (filter.role == null && filter.prefix == null) {
+            List<Long> rows = jdbcTemplate.queryForList(
+                    "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'users'",
+                    Long.class);
+            return new Total(rows.isEmpty() || rows.get(0) == null ? 0 : rows.get(0), false);
+        }
+        StringBuilder where = new StringBuilder("1=1");
+        List<Object> params = new ArrayList<>();
+        if (filter.role != null) { where.append(" AND u.role = ?"); params.add(filter.role.name()); }
+        if (filter.prefix != null) {
+            where.append(" AND (u.name LIKE ? ESCAPE '!' OR u.email LIKE ? ESCAPE '!')");
+            params.add(likePrefix(filter.prefix));
+            params.add(likePrefix(filter.prefix));
+        }
+        params.add(COUNT_CAP + 1);
+        Long n = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM users u WHERE " + where + " LIMIT ?) t", Long.class, params.toArray());
+        long count = n == null ? 0 : n;
+        return count > COUNT_CAP ? new Total(COUNT_CAP, false) : new Total(count, true);
+    }
+
+    private static String branch(UserRole role, String prefixColumn, String prefix, Cursor after, int size,
+                                 List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM users u WHERE 1=1");
+        if (role != null) { sql.append(" AND u.role = ?"); params.add(role.name()); }
+        if (prefixColumn != null) {
+            sql.append(" AND ").append(prefixColumn).append(" LIKE ? ESCAPE '!'");
+            params.add(likePrefix(prefix));
+        }
+        if (after != null) {
+            // Expanded row comparison so MySQL can range-scan the name index
+            sql.append(" AND (u.name > ? OR (u.name = ? AND u.id > ?))");
+            params.add(after.name);
+            params.add(after.name);
+            params.add(after.id);
+        }
+        sql.append(" ORDER BY u.name, u.id LIMIT ?");
+        params.add(size + 1);
+        return sql.toString();
+    }
+
+    private static String likePrefix(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
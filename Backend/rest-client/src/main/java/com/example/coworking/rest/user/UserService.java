@@ -1,44 +1,120 @@
 package com.example.coworking.rest.user;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.coworking.rest.stats.StatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registration and sign-in. Password hashing runs on the {@link PasswordHasher} pool, so both return
+ * futures. The lookup before hashing runs in place; the database work after it (insert, rehash) and
+ * whatever the caller chains on runs on a small pool of its own (auth.persistence.threads), so the
+ * hashing threads go back to hashing as soon as a hash is done. Its queue needs no bound: the hashing
+ * pool's bound already caps how many completions can be waiting.
+ */
 @Service
 public class UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final StatsService statsService;
+    private final UserIdentityCache identityCache;
+    private final ThreadPoolExecutor persistence;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher, StatsService statsService,
+                       UserIdentityCache identityCache,
+                       @Value("${auth.persistence.threads:4}") int persistenceThreads) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.statsService = statsService;
+        this.identityCache = identityCache;
+        int n = Math.max(1, persistenceThreads);
+        AtomicInteger seq = new AtomicInteger();
+        this.persistence = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "auth-persistence-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public CompletableFuture<UserEntity> register(String name, String email, String rawPassword) {
+        return register(name, email, rawPassword, null);
     }
 
-    public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+    /**
+     * Inserts without checking the email first: the uk_users_email constraint rejects a duplicate,
+     * which completes the future with {@link EmailAlreadyRegisteredException}.
+     *
+     * @throws PasswordHashingBusyException when the hashing pool is saturated
+     */
+    public CompletableFuture<UserEntity> register(String name, String email, String rawPassword, String phone) {
+        return passwordHasher.encode(rawPassword).thenApplyAsync(hash -> {
+            UserEntity entity = new UserEntity();
+            entity.setName(name);
+            entity.setEmail(email);
+            entity.setPasswordHash(hash);
+            if (phone != null && !phone.trim().isEmpty()) {
+                entity.setPhone(phone.trim());
+            }
+            entity.setRole(UserRole.USER);
+            UserEntity saved;
+            try {
+                saved = userRepository.save(entity);
+            } catch (DataIntegrityViolationException ex) {
+                if (isDuplicateEmail(ex)) throw new EmailAlreadyRegisteredException(email);
+                throw ex;
+            }
+            statsService.markDirty();
+            identityCache.put(saved);
+            return saved;
+        }, persistence);
     }
 
-    @Transactional
-    public UserEntity register(String name, String email, String rawPassword) {
-        return register(name, email, rawPassword, null);
+    /**
+     * Completes with the user, or null when the email is unknown or the password is wrong. A hash
+     * made with an older work factor (auth.bcrypt.cost) is replaced after a successful check.
+     *
+     * @throws PasswordHashingBusyException when the hashing pool is saturated
+     */
+    public CompletableFuture<UserEntity> authenticate(String email, String rawPassword) {
+        Optional<UserEntity> user = userRepository.findByEmail(email);
+        if (!user.isPresent()) return CompletableFuture.completedFuture(null);
+        UserEntity u = user.get();
+        return passwordHasher.verify(rawPassword, u.getPasswordHash()).thenApplyAsync(v -> {
+            if (!v.matches()) return null;
+            identityCache.put(u);
+            if (v.upgradedHash() != null) {
+                try {
+                    u.setPasswordHash(v.upgradedHash());
+                    return userRepository.save(u);
+                } catch (Exception ex) {
+                    // The old hash still works; the next login retries the upgrade
+                    log.warn("[AUTH] Could not rehash password of user {}: {}", u.getId(), ex.getMessage());
+                }
+            }
+            return u;
+        }, persistence);
     }
 
-    @Transactional
-    public UserEntity register(String name, String email, String rawPassword, String phone) {
-        UserEntity entity = new UserEntity();
-        entity.setName(name);
-        entity.setEmail(email);
-        entity.setPasswordHash(passwordEncoder.encode(rawPassword));
-        if (phone != null && !phone.trim().isEmpty()) {
-            entity.setPhone(phone.trim());
-        }
-        entity.setRole(UserRole.USER);
-        return userRepository.save(entity);
+    @PreDestroy
+    public void shutdown() {
+        persistence.shutdown();
     }
 
-    public UserEntity authenticate(String email, String rawPassword) {
-        return userRepository.findByEmail(email)
-                .filter(u -> passwordEncoder.matches(rawPassword, u.getPasswordHash()))
-                .orElse(null);
+    private static boolean isDuplicateEmail(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.contains("uk_users_email");
     }
 }
@@ -1,6 +1,8 @@
 package com.example.coworking.rest.user;
 
+import com.example.coworking.rest.auth.SessionStore;
 import com.example.coworking.rest.auth.UserResponse;
+import com.example.coworking.rest.stats.StatsService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -9,7 +11,6 @@ import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -17,14 +18,77 @@ import java.util.stream.Collectors;
 public class UsersController {
 
     private final UserRepository userRepository;
+    private final StatsService statsService;
+    private final SessionStore sessionStore;
+    private final UserIdentityCache identityCache;
+    private final UserQueries userQueries;
 
-    public UsersController(UserRepository userRepository) {
+    public UsersController(UserRepository userRepository, StatsService statsService, SessionStore sessionStore,
+                           UserIdentityCache identityCache, UserQueries userQueries) {
         this.userRepository = userRepository;
+        this.statsService = statsService;
+        this.sessionStore = sessionStore;
+        this.identityCache = identityCache;
+        this.userQueries = userQueries;
     }
 
+    public static class UserPageDTO {
+        public List<UserResponse> items;
+        public String nextCursor; // null on the last page
+        public Long total;        // first page only
+        public Boolean totalExact;
+    }
+
+    /**
+     * Without a limit, the first users.list.max-rows users in directory order; a capped answer carries
+     * X-Result-Capped: true and the full directory is read page by page with limit/cursor.
+     */
     @GetMapping
-    public List<UserResponse> list() {
-        return userRepository.findAll().stream().map(UserResponse::from).collect(Collectors.toList());
+    public ResponseEntity<List<UserResponse>> list() {
+        List<UserResponse> users = userQueries.list();
+        boolean capped = users.size() >= userQueries.listMaxRows();
+        return ResponseEntity.ok().header("X-Result-Capped", String.valueOf(capped)).body(users);
+    }
+
+    /**
+     * Keyset-paginated directory, selected when a limit is given. Ordered by (name, id); q matches the
+     * start of the name or the email. The first page (no cursor) also carries an estimated total.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> page(@RequestParam("limit") int limit,
+                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                  @RequestParam(value = "role", required = false) String role,
+                                  @RequestParam(value = "q", required = false) String q) {
+        if (limit < 1 || limit > UserQueries.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + UserQueries.MAX_PAGE_SIZE);
+        }
+        UserQueries.Filter filter = new UserQueries.Filter();
+        if (role != null && !role.trim().isEmpty()) {
+            try {
+                filter.role = UserRole.valueOf(role.trim().toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().body("role must be USER or ADMIN");
+            }
+        }
+        filter.prefix = q == null || q.trim().isEmpty() ? null : q.trim();
+        UserQueries.Cursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = UserQueries.Cursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().body(ex.getMessage());
+            }
+        }
+        UserQueries.Page page = userQueries.page(filter, after, limit);
+        UserPageDTO dto = new UserPageDTO();
+        dto.items = page.items;
+        dto.nextCursor = page.next == null ? null : page.next.encode();
+        if (after == null) {
+            UserQueries.Total total = userQueries.estimateTotal(filter);
+            dto.total = total.count;
+            dto.totalExact = total.exact;
+        }
+        return ResponseEntity.ok(dto);
     }
 
     @GetMapping("/{id}")
@@ -48,6 +112,9 @@ public class UsersController {
             if (req.phone != null) u.setPhone(req.phone);
             if (req.role != null) u.setRole(req.role);
             u = userRepository.save(u);
+            statsService.markDirty();
+            sessionStore.revokeUser(u.getId());
+            identityCache.invalidate(u.getId());
             return ResponseEntity.ok(UserResponse.from(u));
         }).orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
@@ -58,6 +125,9 @@ public class UsersController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
         userRepository.deleteById(id);
+        statsService.markDirty();
+        sessionStore.revokeUser(id);
+        identityCache.invalidate(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -66,6 +136,9 @@ public class UsersController {
         return userRepository.findById(id).map(u -> {
             u.setRole(UserRole.ADMIN);
             u = userRepository.save(u);
+            statsService.markDirty();
+            sessionStore.revokeUser(u.getId());
+            identityCache.invalidate(u.getId());
             return ResponseEntity.ok(UserResponse.from(u));
         }).orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
@@ -75,6 +148,9 @@ public class UsersController {
         return userRepository.findById(id).map(u -> {
             u.setRole(UserRole.USER);
             u = userRepository.save(u);
+            statsService.markDirty();
+            sessionStore.revokeUser(u.getId());
+            identityCache.invalidate(u.getId());
             return ResponseEntity.ok(UserResponse.from(u));
         }).orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
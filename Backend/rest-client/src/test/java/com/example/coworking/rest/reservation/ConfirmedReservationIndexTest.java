@@ -0,0 +1,80 @@
+package com.example.coworking.rest.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A reload swaps in a complete index: readers keep the previous one until then, and writes made
+ * while the load query runs are not lost.
+ */
+class ConfirmedReservationIndexTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    private JdbcTemplate setup;
+    private Runnable duringLoad = () -> {};
+    private ConfirmedReservationIndex index;
+
+    @BeforeEach
+    void createSchema() {
+        DriverManagerDataSource h2 = new DriverManagerDataSource(
+                "jdbc:h2:mem:confirmed-index-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        setup = new JdbcTemplate(h2);
+        setup.execute("CREATE TABLE reservations (id BIGINT PRIMARY KEY, salle_id BIGINT, start_at TIMESTAMP, " +
+                "end_at TIMESTAMP, status VARCHAR(20))");
+        JdbcTemplate loading = new JdbcTemplate(h2) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+                duringLoad.run();
+                super.query(sql, rch);
+            }
+        };
+        index = new ConfirmedReservationIndex(loading);
+    }
+
+    private void insert(long id, LocalDateTime start, String status) {
+        setup.update("INSERT INTO reservations (id, salle_id, start_at, end_at, status) VALUES (?,?,?,?,?)",
+                id, 1L, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), status);
+    }
+
+    @Test
+    void countsConfirmedOverlapsAfterLoad() {
+        insert(1, NINE, "CONFIRMED");
+        insert(2, NINE, "CONFIRMED");
+        insert(3, NINE, "PENDING");
+        insert(4, NINE.plusHours(1), "CONFIRMED");
+        index.load();
+
+        assertEquals(2, index.countOverlaps(1L, NINE, NINE.plusHours(1)));
+        assertEquals(3, index.countOverlaps(1L, NINE.plusMinutes(30), NINE.plusMinutes(90)));
+        assertEquals(0, index.countOverlaps(2L, NINE, NINE.plusHours(1)));
+    }
+
+    @Test
+    void reloadKeepsServingAndKeepsWritesMadeMeanwhile() {
+        insert(1, NINE, "CONFIRMED");
+        insert(2, NINE, "CONFIRMED");
+        index.load();
+
+        duringLoad = () -> {
+            // Readers still see the previous index while the new one is built
+            assertEquals(2, index.countOverlaps(1L, NINE, NINE.plusHours(1)));
+            // A booking confirmed and one cancelled while the load query runs
+            index.add(10L, 1L, NINE, NINE.plusHours(1));
+            index.remove(2L, 1L);
+        };
+        index.load();
+
+        // 1 and 10 remain: 2 was read by the load query but its cancellation was replayed
+        assertEquals(2, index.countOverlaps(1L, NINE, NINE.plusHours(1)));
+        index.remove(10L, 1L);
+        assertEquals(1, index.countOverlaps(1L, NINE, NINE.plusHours(1)));
+    }
+}
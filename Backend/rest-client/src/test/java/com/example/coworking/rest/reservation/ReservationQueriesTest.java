@@ -0,0 +1,162 @@
+package com.example.coworking.rest.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * The reservation list must cost one statement per call, however many rooms the rows point to:
+ * room name and location come from the join, never from a per-row lookup.
+ */
+class ReservationQueriesTest {
+
+    /** Counts every statement prepared or created on connections handed out by the wrapped source. */
+    static final class CountingDataSource extends DelegatingDataSource {
+        final AtomicInteger statements = new AtomicInteger();
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection target = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("createStatement") || name.equals("prepareCall")) {
+                            statements.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    });
+        }
+    }
+
+    private JdbcTemplate setup;
+    private CountingDataSource counting;
+    private ReservationQueries queries;
+
+    @BeforeEach
+    void createSchema() {
+        DriverManagerDataSource h2 = new DriverManagerDataSource(
+                "jdbc:h2:mem:reservation-queries-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        setup = new JdbcTemplate(h2);
+        setup.execute("CREATE TABLE salles (id BIGINT PRIMARY KEY, nom VARCHAR(255), location VARCHAR(80))");
+        for (String table : new String[]{ReservationArchiver.LIVE_TABLE, ReservationArchiver.ARCHIVE_TABLE}) {
+            setup.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, client VARCHAR(255), user_id BIGINT, " +
+                    "created_at TIMESTAMP, start_at TIMESTAMP, end_at TIMESTAMP, status VARCHAR(20), salle_id BIGINT" +
+                    (table.equals(ReservationArchiver.ARCHIVE_TABLE) ? ", archived_at TIMESTAMP" : "") + ")");
+        }
+        counting = new CountingDataSource(h2);
+        queries = new ReservationQueries(new JdbcTemplate(counting), 500, 1000);
+    }
+
+    private void seed(int rooms, int perRoom) {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 5, 9, 0);
+        long id = 1;
+        for (long room = 1; room <= rooms; room++) {
+            setup.update("INSERT INTO salles (id, nom, location) VALUES (?,?,?)", room, "Room " + room, "City " + (room % 3));
+            for (int k = 0; k < perRoom; k++, id++) {
+                LocalDateTime start = base.plusDays(k).plusHours(room % 8);
+                // Every other room's oldest booking is archived, so both union branches return rows
+                String table = k == 0 && room % 2 == 0 ? ReservationArchiver.ARCHIVE_TABLE : ReservationArchiver.LIVE_TABLE;
+                setup.update("INSERT INTO " + table + " (id, client, user_id, created_at, start_at, end_at, status, salle_id) " +
+                                "VALUES (?,?,?,?,?,?,?,?)",
+                        id, "user" + (id % 4) + "@example.com", id % 4, Timestamp.valueOf(base),
+                        Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), "CONFIRMED", room);
+            }
+        }
+    }
+
+    @Test
+    void listIsOneStatementRegardlessOfRoomCount() {
+        for (int rooms : new int[]{1, 25}) {
+            createSchema();
+            seed(rooms, 3);
+            counting.statements.set(0);
+
+            List<ReservationSummary> rows = queries.list(new ReservationQueries.Filter());
+
+            assertEquals(rooms * 3, rows.size());
+            assertEquals(1, counting.statements.get(), "statements for " + rooms + " room(s)");
+            for (ReservationSummary r : rows) {
+                assertNotNull(r.getRoomName());
+                assertNotNull(r.getLocation());
+            }
+        }
+    }
+
+    @Test
+    void filteredListIsOneStatement() {
+        seed(10, 4);
+        ReservationQueries.Filter filter = new ReservationQueries.Filter();
+        filter.userId = 1L;
+        filter.status = "CONFIRMED";
+        counting.statements.set(0);
+
+        List<ReservationSummary> rows = queries.list(filter);
+
+        assertEquals(10, rows.size());
+        assertEquals(1, counting.statements.get());
+    }
+
+    @Test
+    void listKeepsTheNewestRowsOfBothTables() {
+        seed(10, 3);
+        ReservationQueries capped = new ReservationQueries(new JdbcTemplate(counting), 500, 4);
+
+        List<ReservationSummary> rows = capped.list(new ReservationQueries.Filter());
+
+        List<Long> ids = new ArrayList<>();
+        rows.forEach(r -> ids.add(r.getId()));
+        assertEquals(List.of(27L, 28L, 29L, 30L), ids);
+    }
+
+    @Test
+    void exportStreamsEachTableInIdOrder() {
+        seed(4, 3);
+        counting.statements.set(0);
+
+        List<Long> ids = new ArrayList<>();
+        queries.forEach(new ReservationQueries.Filter(), r -> ids.add(r.getId()));
+
+        // Rooms 2 and 4 had their first booking (ids 4 and 10) archived
+        assertEquals(List.of(4L, 10L, 1L, 2L, 3L, 5L, 6L, 7L, 8L, 9L, 11L, 12L), ids);
+        assertEquals(2, counting.statements.get());
+    }
+
+    @Test
+    void eachPageIsOneStatement() {
+        seed(20, 3);
+        counting.statements.set(0);
+
+        ReservationQueries.Page first = queries.page(new ReservationQueries.Filter(), null, 25, false);
+        assertEquals(1, counting.statements.get());
+        assertEquals(25, first.items.size());
+        assertNotNull(first.next);
+
+        ReservationQueries.Page second = queries.page(new ReservationQueries.Filter(), first.next, 25, false);
+        assertEquals(2, counting.statements.get());
+        assertEquals(25, second.items.size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.coworking.rest.rmi;
+
+import com.example.coworking.common.CatalogDelta;
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.ReservationResult;
+import org.junit.jupiter.api.Test;
+
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.coworking.rest.rmi.StubNode.room;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Failover, ejection and readmission, in-flight accounting and catalog pinning of the replica balancer.
+ * With both nodes idle, call n starts at node n mod 2: the first call of each test tries a first.
+ */
+class BalancedSalleServiceTest {
+    private final StubNode a = new StubNode("a", 10, room(1, "Agadir"));
+    private final StubNode b = new StubNode("b", 500, room(1, "Agadir"));
+
+    private BalancedSalleService balance(String strategy, int ejectAfter) {
+        return new BalancedSalleService(Arrays.asList(RmiNode.connect("a", a), RmiNode.connect("b", b)),
+                strategy, ejectAfter);
+    }
+
+    private static RmiNode.Stats stats(BalancedSalleService service, String endpoint) {
+        return service.stats().stream().filter(s -> s.endpoint.equals(endpoint)).findFirst().orElseThrow();
+    }
+
+    private static CreateReservationCommand booking() {
+        return new CreateReservationCommand(1L, "client@example.com", "2030-01-15", "09:00", "10:00");
+    }
+
+    @Test
+    void readFailsOverAndEjectsAnUnreachableNode() throws Exception {
+        BalancedSalleService service = balance("least-outstanding", 3);
+        a.mode = StubNode.Mode.UNREACHABLE;
+
+        assertEquals(1, service.getAllSalles().size());
+
+        assertFalse(stats(service, "a").healthy);
+        assertTrue(stats(service, "b").healthy);
+        assertEquals(1, stats(service, "a").errors);
+    }
+
+    @Test
+    void probeReadmitsARecoveredNodeAndEjectsADeadOne() throws Exception {
+        BalancedSalleService service = balance("least-outstanding", 3);
+        a.mode = StubNode.Mode.UNREACHABLE;
+        service.getAllSalles();
+        assertFalse(stats(service, "a").healthy);
+
+        a.mode = StubNode.Mode.UP;
+        b.mode = StubNode.Mode.UNREACHABLE;
+        service.probe();
+
+        assertTrue(stats(service, "a").healthy);
+        assertFalse(stats(service, "b").healthy);
+    }
+
+    @Test
+    void consecutiveFailuresEjectAtTheThreshold() throws Exception {
+        BalancedSalleService service = balance("round-robin", 2);
+        a.mode = StubNode.Mode.FAILING;
+
+        service.getAllSalles(); // a fails once, b answers
+        assertTrue(stats(service, "a").healthy);
+        service.getAllSalles(); // starts at b
+        service.getAllSalles(); // a fails again
+
+        assertFalse(stats(service, "a").healthy);
+        assertEquals(2, stats(service, "a").errors);
+    }
+
+    @Test
+    void bookingFailsOverOnlyWhenItNeverReachedAServer() throws Exception {
+        a.mode = StubNode.Mode.FAILING;
+        assertThrows(RemoteException.class, () -> balance("least-outstanding", 3).reserverSalle(booking()));
+        assertEquals(0, b.bookings.get(), "a booking that reached a server may have committed there");
+
+        a.mode = StubNode.Mode.UNREACHABLE;
+        ReservationResult r = balance("least-outstanding", 3).reserverSalle(booking());
+
+        assertTrue(r.isSuccess());
+        assertEquals(1, b.bookings.get());
+    }
+
+    @Test
+    void uncheckedExceptionIsRethrownWithoutFailoverAndReleasesTheNode() {
+        BalancedSalleService service = balance("least-outstanding", 1);
+        a.mode = StubNode.Mode.BUGGY;
+
+        assertThrows(IllegalStateException.class, () -> service.reserverSalle(booking()));
+
+        assertEquals(0, b.bookings.get());
+        RmiNode.Stats s = stats(service, "a");
+        assertEquals(1, s.errors);
+        assertEquals(0, s.outstanding);
+        assertTrue(s.healthy, "a server-side bug is not a reason to eject the node");
+    }
+
+    @Test
+    void callsAvoidTheNodeWithACallInFlight() throws Exception {
+        BalancedSalleService service = balance("least-outstanding", 3);
+        CountDownLatch release = new CountDownLatch(1);
+        a.hold = release;
+        CompletableFuture<ReservationResult> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.reserverSalle(booking());
+            } catch (RemoteException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertTrue(a.entered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, stats(service, "a").outstanding);
+
+        service.reserverSalle(booking()); // starts at b
+        service.reserverSalle(booking()); // starts at a, which is busy
+        assertEquals(2, b.bookings.get());
+
+        release.countDown();
+        assertTrue(slow.get(5, TimeUnit.SECONDS).isSuccess());
+        assertEquals(0, stats(service, "a").outstanding);
+        assertEquals(0, stats(service, "b").outstanding);
+    }
+
+    @Test
+    void catalogDeltasStayOnTheReplicaThatIssuedTheVersion() throws Exception {
+        BalancedSalleService service = balance("least-outstanding", 3);
+
+        CatalogDelta first = service.getSallesSince(0);
+        assertEquals(10, first.getVersion());
+        assertTrue(service.getSallesSince(10).isUnchanged()); // would start at b without the pin
+        assertEquals(List.of(-1L, 10L), a.sinceAsked, "no node is pinned yet, so a is asked for everything");
+        assertTrue(b.sinceAsked.isEmpty());
+
+        a.mode = StubNode.Mode.UNREACHABLE;
+        CatalogDelta moved = service.getSallesSince(10);
+        assertTrue(moved.isFull());
+        assertEquals(500, moved.getVersion());
+        assertEquals(List.of(-1L), b.sinceAsked, "a's version means nothing to b");
+
+        a.mode = StubNode.Mode.UP;
+        service.probe();
+        assertTrue(service.getSallesSince(500).isUnchanged());
+        assertEquals(List.of(-1L, 500L), b.sinceAsked);
+    }
+}
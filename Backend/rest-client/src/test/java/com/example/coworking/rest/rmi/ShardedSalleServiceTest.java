@@ -0,0 +1,77 @@
+package com.example.coworking.rest.rmi;
+
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.ReservationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.example.coworking.rest.rmi.StubNode.room;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Routing by location over two single-replica shards: Agadir owns room 1, Casablanca room 2. */
+class ShardedSalleServiceTest {
+    private final StubNode agadir = new StubNode("agadir", 1, room(1, "Agadir"));
+    private final StubNode casablanca = new StubNode("casablanca", 1, room(2, "Casablanca"));
+    private final ShardedSalleService service = new ShardedSalleService(Arrays.asList(
+            shard("agadir", agadir), shard("casablanca", casablanca)));
+
+    private static ShardedSalleService.Shard shard(String name, StubNode node) {
+        return new ShardedSalleService.Shard(name, new BalancedSalleService(
+                Collections.singletonList(RmiNode.connect(name + ":1099", node)), "least-outstanding", 3));
+    }
+
+    private static CreateReservationCommand booking(long roomId) {
+        return new CreateReservationCommand(roomId, "client@example.com", "2030-01-15", "09:00", "10:00");
+    }
+
+    @AfterEach
+    void stop() {
+        service.destroy();
+    }
+
+    @Test
+    void bookingGoesToTheShardListingTheRoom() throws Exception {
+        assertTrue(service.reserverSalle(booking(2)).isSuccess());
+
+        assertEquals(1, casablanca.bookings.get());
+        assertEquals(0, agadir.bookings.get());
+    }
+
+    @Test
+    void wrongShardRefreshesTheRoutesAndRetriesOnTheNewOwner() throws Exception {
+        service.reserverSalle(booking(2));
+        // Room 2 moves to Agadir; the routes still point at Casablanca
+        casablanca.setRooms(2);
+        agadir.setRooms(2, room(1, "Agadir"), room(2, "Agadir"));
+
+        ReservationResult r = service.reserverSalle(booking(2));
+
+        assertTrue(r.isSuccess());
+        assertEquals(2, casablanca.bookings.get()); // the first booking, then the WRONG_SHARD answer
+        assertEquals(1, agadir.bookings.get());
+    }
+
+    @Test
+    void unknownRoomIsBusyUntilEveryShardHasAnswered() throws Exception {
+        casablanca.mode = StubNode.Mode.UNREACHABLE;
+
+        assertEquals(ReservationResult.CODE_BUSY, service.reserverSalle(booking(99)).getCode());
+        assertTrue(service.reserverSalle(booking(1)).isSuccess(), "the shard that answered keeps booking");
+
+        casablanca.mode = StubNode.Mode.UP;
+        assertEquals(ReservationResult.CODE_ROOM_NOT_FOUND, service.reserverSalle(booking(99)).getCode());
+    }
+
+    @Test
+    void silentShardKeepsContributingItsLastRooms() throws Exception {
+        assertEquals(2, service.getAllSalles().size());
+
+        casablanca.mode = StubNode.Mode.UNREACHABLE;
+
+        assertEquals(2, service.getAllSalles().size());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.coworking.rest.rmi;
+
+import com.example.coworking.common.CatalogDelta;
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.RecurrenceRule;
+import com.example.coworking.common.ReservationResult;
+import com.example.coworking.common.SalleDTO;
+import com.example.coworking.common.SalleService;
+
+import java.rmi.ConnectException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for one rmi-server replica. It serves a settable catalog, books only the rooms
+ * it lists (WRONG_SHARD otherwise, as a sharded server does) and fails on demand the three ways a
+ * remote call can.
+ */
+final class StubNode implements SalleService {
+    enum Mode {
+        UP,
+        UNREACHABLE, // the call never reached the server
+        FAILING,     // the call reached the server and then failed
+        BUGGY        // the server answered with an unchecked exception
+    }
+
+    final String name;
+    final AtomicInteger bookings = new AtomicInteger();
+    final List<Long> sinceAsked = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch entered = new CountDownLatch(1); // counted down by the first booking
+    volatile Mode mode = Mode.UP;
+    volatile CountDownLatch hold; // bookings wait on it while set
+
+    private final Map<Long, SalleDTO> rooms = new TreeMap<>();
+    private long version;
+
+    StubNode(String name, long version, SalleDTO... rooms) {
+        this.name = name;
+        setRooms(version, rooms);
+    }
+
+    static SalleDTO room(long id, String location) {
+        return new SalleDTO(id, "Room " + id, location, 1, Collections.emptyList(), null, true);
+    }
+
+    synchronized void setRooms(long version, SalleDTO... rooms) {
+        this.version = version;
+        this.rooms.clear();
+        for (SalleDTO r : rooms) this.rooms.put(r.getId(), r);
+    }
+
+    @Override
+    public String ping() throws RemoteException {
+        check();
+        return name;
+    }
+
+    @Override
+    public synchronized List<SalleDTO> getAllSalles() throws RemoteException {
+        check();
+        return new ArrayList<>(rooms.values());
+    }
+
+    @Override
+    public synchronized CatalogDelta getSallesSince(long since) throws RemoteException {
+        check();
+        sinceAsked.add(since);
+        if (since == version) return CatalogDelta.unchanged(version);
+        return CatalogDelta.full(version, new ArrayList<>(rooms.values()));
+    }
+
+    @Override
+    public ReservationResult reserverSalle(Long salleId, String client) throws RemoteException {
+        return reserverSalle(new CreateReservationCommand(salleId, client));
+    }
+
+    @Override
+    public ReservationResult reserverSalle(CreateReservationCommand command) throws RemoteException {
+        check();
+        bookings.incrementAndGet();
+        entered.countDown();
+        CountDownLatch h = hold;
+        if (h != null) {
+            try {
+                h.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (!rooms.containsKey(command.getSalleId())) {
+                return ReservationResult.failure(ReservationResult.CODE_WRONG_SHARD, "Salle gérée par un autre nœud");
+            }
+        }
+        return new ReservationResult(true, "Booked on " + name, (long) bookings.get(), "CONFIRMED");
+    }
+
+    @Override
+    public List<ReservationResult> reserverSalles(List<CreateReservationCommand> commands, boolean atomic) throws RemoteException {
+        List<ReservationResult> results = new ArrayList<>();
+        for (CreateReservationCommand c : commands) results.add(reserverSalle(c));
+        return results;
+    }
+
+    @Override
+    public List<ReservationResult> reserverSerie(CreateReservationCommand template, RecurrenceRule rule, boolean atomic) {
+        throw new UnsupportedOperationException();
+    }
+
+    private void check() throws RemoteException {
+        switch (mode) {
+            case UNREACHABLE:
+                throw new ConnectException("Connection refused to host: " + name);
+            case FAILING:
+                throw new RemoteException("Connection reset by " + name);
+            case BUGGY:
+                throw new IllegalStateException("Bug on " + name);
+            default:
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.coworking.rest.schema;
+
+import com.example.coworking.rest.reservation.ReservationArchiver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every hot-path query must reach its rows through an index once the tables are large enough for the
+ * optimizer to care. The schema below declares the same indexes as the entities and migrations; as
+ * InnoDB secondary indexes end with the primary key and H2's do not, the user indexes spell out id.
+ */
+class QueryPlanVerifierTest {
+    private static final int MIN_ROWS = 1000;
+
+    private JdbcTemplate jdbc;
+    private QueryPlanVerifier verifier;
+
+    @BeforeEach
+    void seedSchema() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:query-plans-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbc.execute("CREATE TABLE salles (id BIGINT PRIMARY KEY, nom VARCHAR(255), capacite INT, location VARCHAR(80))");
+        jdbc.execute("CREATE INDEX idx_salles_location ON salles (location)");
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(100), email VARCHAR(255), " +
+                "phone VARCHAR(30), role VARCHAR(10), created_at TIMESTAMP)");
+        jdbc.execute("CREATE UNIQUE INDEX uk_users_email ON users (email)");
+        jdbc.execute("CREATE INDEX idx_users_name ON users (name, id)");
+        jdbc.execute("CREATE INDEX idx_users_role_name ON users (role, name, id)");
+        for (String table : new String[]{ReservationArchiver.LIVE_TABLE, ReservationArchiver.ARCHIVE_TABLE}) {
+            jdbc.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, client VARCHAR(255), user_id BIGINT, " +
+                    "created_at TIMESTAMP, start_at TIMESTAMP, end_at TIMESTAMP, status VARCHAR(20), salle_id BIGINT)");
+            jdbc.execute("CREATE INDEX idx_" + table + "_room_status_window ON " + table + " (salle_id, status, start_at, end_at)");
+            jdbc.execute("CREATE INDEX idx_" + table + "_status_start ON " + table + " (status, start_at, end_at)");
+            jdbc.execute("CREATE INDEX idx_" + table + "_client_status ON " + table + " (client, status)");
+            jdbc.execute("CREATE INDEX idx_" + table + "_user_status ON " + table + " (user_id, status)");
+            jdbc.execute("CREATE INDEX idx_" + table + "_start_id ON " + table + " (start_at, id)");
+            jdbc.execute("CREATE INDEX idx_" + table + "_end ON " + table + " (end_at)");
+        }
+
+        jdbc.update("INSERT INTO salles SELECT x, 'Room ' || x, 8, 'City ' || MOD(x, 5) FROM SYSTEM_RANGE(1, 200)");
+        jdbc.update("INSERT INTO users SELECT x, 'user' || x, 'user' || x || '@example.com', NULL, " +
+                "CASE WHEN MOD(x, 50) = 0 THEN 'ADMIN' ELSE 'USER' END, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 5000)");
+        for (String table : new String[]{ReservationArchiver.LIVE_TABLE, ReservationArchiver.ARCHIVE_TABLE}) {
+            long offset = table.equals(ReservationArchiver.LIVE_TABLE) ? 0 : 100_000;
+            jdbc.update("INSERT INTO " + table + " SELECT x + ?, 'user' || MOD(x, 5000) || '@example.com', MOD(x, 5000), " +
+                    "CURRENT_TIMESTAMP, DATEADD('HOUR', MOD(x, 2000) - 1000, CURRENT_TIMESTAMP), " +
+                    "DATEADD('HOUR', MOD(x, 2000) - 999, CURRENT_TIMESTAMP), " +
+                    "CASE WHEN MOD(x, 3) = 0 THEN 'PENDING' ELSE 'CONFIRMED' END, MOD(x, 200) + 1 " +
+                    "FROM SYSTEM_RANGE(1, 5000)", offset);
+        }
+        jdbc.execute("ANALYZE");
+        verifier = new QueryPlanVerifier(jdbc, true, true, MIN_ROWS);
+    }
+
+    @Test
+    void hotPathQueriesUseAnIndex() {
+        List<QueryPlanVerifier.Finding> findings = verifier.verify();
+
+        assertTrue(findings.isEmpty(), () -> "Query plan regressions: " + findings);
+    }
+
+    @Test
+    void droppedIndexIsReported() {
+        jdbc.execute("DROP INDEX idx_users_name");
+
+        List<QueryPlanVerifier.Finding> findings = verifier.verify();
+
+        // The directory list has no other index in name order to read
+        assertTrue(findings.stream().anyMatch(f -> f.query.equals("userList") && f.table.equals("users")),
+                () -> "Expected a full scan, got " + findings);
+    }
+
+    @Test
+    void largeSortsAreReportedFromMySqlPlanRows() {
+        assertEquals("filesort over ~50000 rows",
+                QueryPlanVerifier.problem(false, "ref", "Using where; Using filesort", 50_000, () -> 100_000, MIN_ROWS));
+        assertEquals("temporary table over ~5000 rows",
+                QueryPlanVerifier.problem(false, "range", "Using temporary; Using filesort", 5_000, () -> 100_000, MIN_ROWS));
+        assertEquals("full table scan",
+                QueryPlanVerifier.problem(false, "ALL", null, 100_000, () -> 100_000, MIN_ROWS));
+        // An export reads everything by design; a small sort is cheap
+        assertNull(QueryPlanVerifier.problem(true, "ALL", null, 100_000, () -> 100_000, MIN_ROWS));
+        assertNull(QueryPlanVerifier.problem(false, "ref", "Using filesort", 40, () -> 100_000, MIN_ROWS));
+    }
+}
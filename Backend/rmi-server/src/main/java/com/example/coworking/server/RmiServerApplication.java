@@ -2,14 +2,13 @@ package com.example.coworking.server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-
-import java.rmi.registry.LocateRegistry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RmiServerApplication {
     public static void main(String[] args) throws Exception {
-        // Démarre le registry RMI
-        LocateRegistry.createRegistry(1099);
+        // Le registry RMI est créé par RmiConfig sur rmi.registry.port
         SpringApplication.run(RmiServerApplication.class, args);
     }
 }
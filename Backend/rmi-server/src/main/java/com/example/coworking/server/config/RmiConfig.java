@@ -2,6 +2,7 @@ package com.example.coworking.server.config;
 
 import com.example.coworking.common.SalleService;
 import com.example.coworking.server.service.SalleServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.remoting.rmi.RmiServiceExporter;
@@ -9,13 +10,15 @@ import org.springframework.remoting.rmi.RmiServiceExporter;
 
 @Configuration
 public class RmiConfig {
+    // Registry created on this port when none is running, so several instances can share a host
     @Bean
-    public RmiServiceExporter exporter(SalleServiceImpl service) {
+    public RmiServiceExporter exporter(SalleServiceImpl service,
+                                       @Value("${rmi.registry.port:1099}") int registryPort) {
         RmiServiceExporter exporter = new RmiServiceExporter();
         exporter.setServiceName("SalleService");
         exporter.setServiceInterface(SalleService.class);
         exporter.setService(service);
-        exporter.setRegistryPort(1099);
+        exporter.setRegistryPort(registryPort);
         return exporter;
     }
 }
@@ -5,7 +5,15 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // Overlap counts, day views and per-room status lookups (covering for countOverlaps)
+        @Index(name = "idx_reservations_room_status_window", columnList = "salle_id, status, start_at, end_at"),
+        @Index(name = "idx_reservations_status_start", columnList = "status, start_at, end_at"),
+        @Index(name = "idx_reservations_client_status", columnList = "client, status"),
+        @Index(name = "idx_reservations_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_reservations_start_id", columnList = "start_at, id"),
+        @Index(name = "idx_reservations_end", columnList = "end_at")
+})
 public class Reservation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,6 +21,9 @@ public class Reservation {
 
     private String client;
 
+    @Column(name = "user_id")
+    private Long userId;
+
     private LocalDateTime createdAt;
 
     // New fields for time-windowed reservations
@@ -40,6 +51,8 @@ public class Reservation {
     public Long getId() { return id; }
     public String getClient() { return client; }
     public void setClient(String client) { this.client = client; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public Salle getSalle() { return salle; }
     public void setSalle(Salle salle) { this.salle = salle; }
@@ -8,7 +8,9 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "salles")
+@Table(name = "salles", indexes = {
+        @Index(name = "idx_salles_location", columnList = "location")
+})
 public class Salle {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,8 +2,24 @@ package com.example.coworking.server.repository;
 
 import com.example.coworking.server.entity.Reservation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    // Overlap count for a time window: (start < :end AND end > :start)
+    @Query("SELECT COUNT(r) FROM Reservation r " +
+           "WHERE r.salle.id = :salleId " +
+           "AND r.status IN (:statuses) " +
+           "AND r.startAt IS NOT NULL AND r.endAt IS NOT NULL " +
+           "AND r.startAt < :end AND r.endAt > :start")
+    long countOverlaps(@Param("salleId") Long salleId,
+                       @Param("start") LocalDateTime start,
+                       @Param("end") LocalDateTime end,
+                       @Param("statuses") List<String> statuses);
 }
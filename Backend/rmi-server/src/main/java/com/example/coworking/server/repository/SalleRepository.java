@@ -2,8 +2,26 @@ package com.example.coworking.server.repository;
 
 import com.example.coworking.server.entity.Salle;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface SalleRepository extends JpaRepository<Salle, Long> {
+
+    // SELECT ... FOR UPDATE on the room row: serializes bookings of the same room across server instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Salle s WHERE s.id = :id")
+    Optional<Salle> findByIdForUpdate(@Param("id") Long id);
+
+    // Same for a batch; id order keeps row-lock acquisition consistent between concurrent batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Salle s WHERE s.id IN (:ids) ORDER BY s.id")
+    List<Salle> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,253 @@
+package com.example.coworking.server.service;
+
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.ReservationResult;
+import com.example.coworking.server.entity.Salle;
+import com.example.coworking.server.repository.SalleRepository;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission of a batch of bookings in one transaction. The rooms involved are locked once, in a fixed
+ * order (lock stripes, then room rows by id); the CONFIRMED reservations overlapping the batch are
+ * read with one query; every command is then checked in memory against them and against the commands
+ * admitted before it, and the admitted ones are inserted with a single JDBC batch.
+ *
+ * The insert bypasses JPA: with IDENTITY keys Hibernate cannot batch inserts.
+ */
+@Component
+public class BatchReservations {
+    public static final int MAX_BATCH = 500;
+    private static final long LOCK_WAIT_SECONDS = 5;
+
+    private static final String INSERT =
+            "INSERT INTO reservations (client, user_id, created_at, start_at, end_at, status, salle_id) VALUES (?,?,?,?,?,?,?)";
+
+    private final SalleRepository salleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RoomLocks roomLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardScope shardScope;
+
+    public BatchReservations(SalleRepository salleRepository, JdbcTemplate jdbcTemplate, RoomLocks roomLocks,
+                             TransactionTemplate transactionTemplate, ShardScope shardScope) {
+        this.salleRepository = salleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.roomLocks = roomLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.shardScope = shardScope;
+    }
+
+    /** One command of the batch; start/end stay null for a booking without a window (PENDING). */
+    private static final class Item {
+        final CreateReservationCommand command;
+        LocalDateTime startAt;
+        LocalDateTime endAt;
+        ReservationResult result; // set once refused, or once inserted
+        Salle salle;
+
+        Item(CreateReservationCommand command) {
+            this.command = command;
+        }
+
+        boolean pending() {
+            return result == null;
+        }
+    }
+
+    public List<ReservationResult> reserve(List<CreateReservationCommand> commands, boolean atomic) {
+        if (commands == null || commands.isEmpty()) return new ArrayList<>();
+        List<Item> items = new ArrayList<>(commands.size());
+        for (CreateReservationCommand c : commands) items.add(parse(c));
+        if (items.size() > MAX_BATCH) {
+            for (Item i : items) {
+                i.result = ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST,
+                        "Lot limité à " + MAX_BATCH + " réservations");
+            }
+            return results(items);
+        }
+
+        TreeSet<Long> roomIds = new TreeSet<>();
+        for (Item i : items) if (i.pending()) roomIds.add(i.command.getSalleId());
+        if (roomIds.isEmpty() || (atomic && anyRefused(items))) return finish(items);
+
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (ReentrantLock lock : roomLocks.forRooms(roomIds)) {
+                if (!lock.tryLock(LOCK_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    return refuseAll(items, ReservationResult.CODE_BUSY, "Salle occupée, réessayez");
+                }
+                held.add(lock);
+            }
+            transactionTemplate.execute(tx -> {
+                admit(items, roomIds, atomic);
+                return null;
+            });
+            return finish(items);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return refuseAll(items, ReservationResult.CODE_BUSY, "Réservation interrompue");
+        } finally {
+            for (int k = held.size() - 1; k >= 0; k--) held.get(k).unlock();
+        }
+    }
+
+    private static Item parse(CreateReservationCommand c) {
+        Item item = new Item(c);
+        if (c == null || c.getSalleId() == null || c.getClient() == null) {
+            item.result = ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "Paramètres manquants");
+            return item;
+        }
+        if (c.getDate() == null || c.getStartTime() == null || c.getEndTime() == null) return item;
+        try {
+            LocalDate date = LocalDate.parse(c.getDate());
+            item.startAt = LocalDateTime.of(date, LocalTime.parse(c.getStartTime()));
+            item.endAt = LocalDateTime.of(date, LocalTime.parse(c.getEndTime()));
+        } catch (Exception ex) {
+            item.result = ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "Format de date/heure invalide");
+            return item;
+        }
+        if (!item.endAt.isAfter(item.startAt)) {
+            item.result = ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "L'heure de fin doit être après l'heure de début");
+        }
+        return item;
+    }
+
+    private void admit(List<Item> items, TreeSet<Long> roomIds, boolean atomic) {
+        Map<Long, Salle> rooms = new HashMap<>();
+        Set<Long> foreign = new HashSet<>();
+        for (Salle s : salleRepository.findAllByIdForUpdate(roomIds)) {
+            if (shardScope.owns(s.getLocation())) rooms.put(s.getId(), s);
+            else foreign.add(s.getId());
+        }
+
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (Item i : items) {
+            if (!i.pending()) continue;
+            i.salle = rooms.get(i.command.getSalleId());
+            if (foreign.contains(i.command.getSalleId())) {
+                i.result = SalleServiceImpl.wrongShard();
+            } else if (i.salle == null) {
+                i.result = ReservationResult.failure(ReservationResult.CODE_ROOM_NOT_FOUND, "Salle introuvable");
+            } else if (i.startAt != null) {
+                if (from == null || i.startAt.isBefore(from)) from = i.startAt;
+                if (to == null || i.endAt.isAfter(to)) to = i.endAt;
+            }
+        }
+
+        // Capacity rule: only CONFIRMED reservations count, including those admitted earlier in this batch
+        Map<Long, List<LocalDateTime[]>> booked = new HashMap<>();
+        if (from != null) {
+            List<Long> ids = new ArrayList<>(rooms.keySet());
+            String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+            List<Object> params = new ArrayList<>(ids);
+            params.add(Timestamp.valueOf(to));
+            params.add(Timestamp.valueOf(from));
+            jdbcTemplate.query("SELECT salle_id, start_at, end_at FROM reservations WHERE salle_id IN (" + in + ") " +
+                            "AND status = 'CONFIRMED' AND start_at IS NOT NULL AND end_at IS NOT NULL AND start_at < ? AND end_at > ?",
+                    rs -> {
+                        booked.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(new LocalDateTime[]{
+                                rs.getTimestamp(2).toLocalDateTime(), rs.getTimestamp(3).toLocalDateTime()});
+                    },
+                    params.toArray());
+        }
+        List<Item> accepted = new ArrayList<>();
+        for (Item i : items) {
+            if (!i.pending()) continue;
+            if (i.startAt != null) {
+                List<LocalDateTime[]> windows = booked.computeIfAbsent(i.salle.getId(), k -> new ArrayList<>());
+                int overlaps = 0;
+                for (LocalDateTime[] w : windows) {
+                    if (w[0].isBefore(i.endAt) && w[1].isAfter(i.startAt)) overlaps++;
+                }
+                if (overlaps >= i.salle.getCapacite()) {
+                    i.result = ReservationResult.failure(ReservationResult.CODE_UNAVAILABLE, "Salle indisponible sur ce créneau");
+                    continue;
+                }
+                windows.add(new LocalDateTime[]{i.startAt, i.endAt});
+            }
+            accepted.add(i);
+        }
+        if (accepted.isEmpty() || (atomic && anyRefused(items))) return;
+        insert(accepted);
+    }
+
+    private void insert(List<Item> accepted) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Item i : accepted) {
+                    CreateReservationCommand c = i.command;
+                    ps.setString(1, c.getClient());
+                    if (c.getUserId() == null) ps.setNull(2, Types.BIGINT); else ps.setLong(2, c.getUserId());
+                    ps.setTimestamp(3, now);
+                    ps.setTimestamp(4, i.startAt == null ? null : Timestamp.valueOf(i.startAt));
+                    ps.setTimestamp(5, i.endAt == null ? null : Timestamp.valueOf(i.endAt));
+                    // Admitted under capacity: auto-approved; no window keeps the approval workflow
+                    ps.setString(6, i.startAt == null ? "PENDING" : "CONFIRMED");
+                    ps.setLong(7, i.salle.getId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Item i : accepted) {
+                        if (!keys.next()) throw new IllegalStateException("Missing generated key");
+                        i.result = new ReservationResult(true,
+                                "Réservation enregistrée pour " + i.command.getClient() + " sur " + i.salle.getNom(),
+                                keys.getLong(1), i.startAt == null ? "PENDING" : "CONFIRMED");
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static boolean anyRefused(List<Item> items) {
+        for (Item i : items) if (i.result != null && !i.result.isSuccess()) return true;
+        return false;
+    }
+
+    private static List<ReservationResult> refuseAll(List<Item> items, String code, String message) {
+        for (Item i : items) if (i.pending()) i.result = ReservationResult.failure(code, message);
+        return finish(items);
+    }
+
+    // Commands still without a result were admissible but not applied (atomic batch with a refusal)
+    private static List<ReservationResult> finish(List<Item> items) {
+        for (Item i : items) {
+            if (i.pending()) {
+                i.result = ReservationResult.failure(ReservationResult.CODE_NOT_APPLIED,
+                        "Non appliquée : une autre réservation du lot a été refusée");
+            }
+        }
+        return results(items);
+    }
+
+    private static List<ReservationResult> results(List<Item> items) {
+        List<ReservationResult> out = new ArrayList<>(items.size());
+        for (Item i : items) out.add(i.result);
+        return out;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.coworking.server.service;
+
+import com.example.coworking.common.CatalogDelta;
+import com.example.coworking.common.SalleDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, versioned snapshot of the room catalog. It is rebuilt with one query (rooms joined with
+ * their amenities) when the catalog_version counter, bumped by every writer of salles and
+ * room_amenities, moves; a rebuild that finds no difference keeps the current version. Without the
+ * counter table the catalog is re-read on every poll instead.
+ *
+ * Versions start at the startup time in milliseconds and grow by one per change, so a version
+ * handed out by an earlier run is always below {@link Snapshot#floor} and gets a full catalog. They
+ * are local to this node: a caller spread over replicas keeps asking the one that issued its version
+ * (and asks another with -1, for a full catalog). The
+ * ids of removed rooms are remembered for the last catalog.history-size removals; older versions
+ * also get a full catalog.
+ *
+ * On a sharded node only the rooms of its locations are in the catalog ({@link ShardScope}); a room
+ * moved to another location leaves it as a removal.
+ */
+@Component
+public class RoomCatalog {
+    private static final Logger log = LoggerFactory.getLogger(RoomCatalog.class);
+
+    private static final String CATALOG_QUERY =
+            "SELECT s.id, s.nom, s.location, s.capacite, s.image_url, s.available, a.name " +
+                    "FROM salles s LEFT JOIN room_amenities a ON a.room_id = s.id ORDER BY s.id, a.name";
+
+    private static final class Snapshot {
+        final long version;
+        final long floor;                 // deltas are complete for callers at or above this version
+        final List<SalleDTO> rooms;       // id order, unmodifiable
+        final Map<Long, Long> changedAt;  // room id -> version of its last change
+        final Map<Long, Long> removedAt;  // removed room id -> version of removal, oldest first
+
+        Snapshot(long version, long floor, List<SalleDTO> rooms, Map<Long, Long> changedAt, Map<Long, Long> removedAt) {
+            this.version = version;
+            this.floor = floor;
+            this.rooms = rooms;
+            this.changedAt = changedAt;
+            this.removedAt = removedAt;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardScope shardScope;
+    private final int historySize;
+
+    private volatile Snapshot current;
+    private Long seenCounter; // catalog_version at the last rebuild; guarded by this
+
+    public RoomCatalog(JdbcTemplate jdbcTemplate, ShardScope shardScope,
+                       @Value("${catalog.history-size:1000}") int historySize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardScope = shardScope;
+        this.historySize = Math.max(1, historySize);
+    }
+
+    public List<SalleDTO> all() {
+        return snapshot().rooms;
+    }
+
+    public CatalogDelta since(long version) {
+        snapshot(); // first load
+        // One primary-key read, so callers see writes made since the last poll
+        checkForChanges(false);
+        Snapshot s = current;
+        if (version == s.version) return CatalogDelta.unchanged(s.version);
+        if (version < s.floor || version > s.version) return CatalogDelta.full(s.version, s.rooms);
+        List<SalleDTO> changed = new ArrayList<>();
+        for (SalleDTO room : s.rooms) {
+            if (s.changedAt.get(room.getId()) > version) changed.add(room);
+        }
+        List<Long> removed = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : s.removedAt.entrySet()) {
+            if (e.getValue() > version) removed.add(e.getKey());
+        }
+        return CatalogDelta.delta(s.version, changed, removed);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.poll-ms:2000}")
+    public void poll() {
+        try {
+            checkForChanges(true);
+        } catch (Exception ex) {
+            log.warn("[CATALOG] Refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = current;
+        if (s != null) return s;
+        synchronized (this) {
+            if (current == null) rebuild(readCounter());
+            return current;
+        }
+    }
+
+    /** @param allowBlindRebuild re-read the catalog when the counter table is unavailable */
+    private synchronized void checkForChanges(boolean allowBlindRebuild) {
+        Long counter = readCounter();
+        if (counter == null ? allowBlindRebuild : !counter.equals(seenCounter)) {
+            rebuild(counter);
+        }
+    }
+
+    private Long readCounter() {
+        try {
+            List<Long> v = jdbcTemplate.queryForList("SELECT version FROM catalog_version WHERE id = 1", Long.class);
+            return v.isEmpty() ? null : v.get(0);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    // Caller holds the monitor
+    private void rebuild(Long counter) {
+        Map<Long, SalleDTO> rooms = new LinkedHashMap<>();
+        jdbcTemplate.query(CATALOG_QUERY, rs -> {
+            long id = rs.getLong(1);
+            SalleDTO room = rooms.get(id);
+            if (room == null) {
+                if (!shardScope.owns(rs.getString(3))) return;
+                room = new SalleDTO(id, rs.getString(2), rs.getString(3), rs.getInt(4), new ArrayList<>(),
+                        rs.getString(5), rs.getBoolean(6));
+                rooms.put(id, room);
+            }
+            String amenity = rs.getString(7);
+            if (amenity != null) room.getAmenities().add(amenity);
+        });
+        seenCounter = counter;
+
+        Snapshot prev = current;
+        if (prev == null) {
+            long version = System.currentTimeMillis();
+            Map<Long, Long> changedAt = new HashMap<>();
+            for (Long id : rooms.keySet()) changedAt.put(id, version);
+            current = new Snapshot(version, version, freeze(rooms), changedAt, new LinkedHashMap<>());
+            log.info("[CATALOG] Loaded {} room(s) at version {}", rooms.size(), version);
+            return;
+        }
+
+        long version = prev.version + 1;
+        Map<Long, SalleDTO> before = new HashMap<>();
+        for (SalleDTO r : prev.rooms) before.put(r.getId(), r);
+        Map<Long, Long> changedAt = new HashMap<>();
+        int changes = 0;
+        for (SalleDTO r : rooms.values()) {
+            SalleDTO old = before.remove(r.getId());
+            boolean same = old != null && sameRoom(old, r);
+            changedAt.put(r.getId(), same ? prev.changedAt.get(r.getId()) : version);
+            if (!same) changes++;
+        }
+        Map<Long, Long> removedAt = new LinkedHashMap<>(prev.removedAt);
+        for (Long id : before.keySet()) {
+            removedAt.remove(id);
+            removedAt.put(id, version);
+            changes++;
+        }
+        // A room id that came back is no longer removed
+        removedAt.keySet().removeAll(rooms.keySet());
+        if (changes == 0) return;
+
+        long floor = prev.floor;
+        Iterator<Map.Entry<Long, Long>> it = removedAt.entrySet().iterator();
+        while (removedAt.size() > historySize && it.hasNext()) {
+            floor = Math.max(floor, it.next().getValue());
+            it.remove();
+        }
+        current = new Snapshot(version, floor, freeze(rooms), changedAt, removedAt);
+        log.info("[CATALOG] {} change(s), now version {}", changes, version);
+    }
+
+    private static List<SalleDTO> freeze(Map<Long, SalleDTO> rooms) {
+        for (SalleDTO r : rooms.values()) r.setAmenities(Collections.unmodifiableList(r.getAmenities()));
+        return Collections.unmodifiableList(new ArrayList<>(rooms.values()));
+    }
+
+    private static boolean sameRoom(SalleDTO a, SalleDTO b) {
+        return a.getCapacity() == b.getCapacity()
+                && a.isAvailable() == b.isAvailable()
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getLocation(), b.getLocation())
+                && Objects.equals(a.getImageUrl(), b.getImageUrl())
+                && Objects.equals(a.getAmenities(), b.getAmenities());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.coworking.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of lock stripes keyed by room id. Bookings of the same room queue on one stripe
+ * inside this JVM, so only one of them waits on the room's row lock in MySQL at a time;
+ * bookings of other rooms (other stripes) proceed in parallel.
+ */
+@Component
+public class RoomLocks {
+    private final ReentrantLock[] stripes;
+
+    public RoomLocks(@Value("${booking.lock-stripes:64}") int stripeCount) {
+        int n = Math.max(1, stripeCount);
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock forRoom(Long salleId) {
+        return stripes[stripe(salleId)];
+    }
+
+    /**
+     * The distinct stripes of several rooms in stripe order. Callers that hold more than one stripe
+     * must acquire them in this order so two multi-room batches can never wait on each other.
+     */
+    public List<ReentrantLock> forRooms(Collection<Long> salleIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long id : salleIds) indexes.add(stripe(id));
+        List<ReentrantLock> locks = new ArrayList<>(indexes.size());
+        for (int i : indexes) locks.add(stripes[i]);
+        return locks;
+    }
+
+    private int stripe(Long salleId) {
+        int h = Long.hashCode(salleId);
+        h ^= (h >>> 16);
+        return Math.floorMod(h, stripes.length);
+    }
+}
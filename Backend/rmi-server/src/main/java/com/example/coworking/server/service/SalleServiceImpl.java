@@ -1,6 +1,8 @@
 package com.example.coworking.server.service;
 
+import com.example.coworking.common.CatalogDelta;
 import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.RecurrenceRule;
 import com.example.coworking.common.ReservationResult;
 import com.example.coworking.common.SalleDTO;
 import com.example.coworking.common.SalleService;
@@ -8,27 +10,49 @@ import com.example.coworking.server.entity.Reservation;
 import com.example.coworking.server.entity.Salle;
 import com.example.coworking.server.repository.ReservationRepository;
 import com.example.coworking.server.repository.SalleRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.rmi.RemoteException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service("salleServiceImpl")
 public class SalleServiceImpl implements SalleService {
+    private static final long LOCK_WAIT_SECONDS = 5;
+    private static final List<String> CONFIRMED_ONLY = Collections.singletonList("CONFIRMED");
+
     private final SalleRepository salleRepository;
     private final ReservationRepository reservationRepository;
+    private final RoomLocks roomLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchReservations batchReservations;
+    private final RoomCatalog roomCatalog;
+    private final ShardScope shardScope;
+    private final String nodeName;
 
-    public SalleServiceImpl(SalleRepository salleRepository, ReservationRepository reservationRepository) {
+    public SalleServiceImpl(SalleRepository salleRepository, ReservationRepository reservationRepository,
+                            RoomLocks roomLocks, TransactionTemplate transactionTemplate,
+                            BatchReservations batchReservations, RoomCatalog roomCatalog, ShardScope shardScope,
+                            @Value("${rmi.node-name:rmi-server:${rmi.registry.port:1099}}") String nodeName) {
         this.salleRepository = salleRepository;
         this.reservationRepository = reservationRepository;
+        this.roomLocks = roomLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.batchReservations = batchReservations;
+        this.roomCatalog = roomCatalog;
+        this.shardScope = shardScope;
+        this.nodeName = nodeName;
 
-        // Seed some data if empty
+        // Seed some data if empty; on a sharded deployment the shards share the database
         if (salleRepository.count() == 0) {
             salleRepository.save(new Salle(
                     "Innovation Hub", 8,
@@ -69,45 +93,31 @@ public class SalleServiceImpl implements SalleService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public String ping() throws RemoteException {
+        return nodeName;
+    }
+
+    @Override
     public List<SalleDTO> getAllSalles() throws RemoteException {
-        return salleRepository.findAll().stream()
-                .map(s -> new SalleDTO(
-                        s.getId(),
-                        s.getNom(),
-                        s.getLocation(),
-                        s.getCapacite(),
-                        s.getAmenities(),
-                        s.getImageUrl(),
-                        s.isAvailable()
-                ))
-                .collect(Collectors.toList());
+        return roomCatalog.all();
+    }
+
+    @Override
+    public CatalogDelta getSallesSince(long version) throws RemoteException {
+        return roomCatalog.since(version);
     }
 
     @Override
     public ReservationResult reserverSalle(Long salleId, String client) throws RemoteException {
-        Salle s = salleRepository.findById(salleId).orElse(null);
-        if (s == null) {
-            return new ReservationResult(false, "Salle introuvable");
-        }
-        Reservation r = new Reservation(client, s);
-        // New reservations should start as PENDING and require admin approval
-        r.setStatus("PENDING");
-        reservationRepository.save(r);
-        return new ReservationResult(true, "Réservation enregistrée pour " + client + " sur " + s.getNom(), r.getId(), r.getStatus());
+        // A booking without a time window: same locked, transactional path as the command form
+        return reserverSalle(new CreateReservationCommand(salleId, client));
     }
 
     @Override
-    @Transactional
     public ReservationResult reserverSalle(CreateReservationCommand command) throws RemoteException {
         if (command == null || command.getSalleId() == null || command.getClient() == null) {
-            return new ReservationResult(false, "Paramètres manquants");
-        }
-        Salle s = salleRepository.findById(command.getSalleId()).orElse(null);
-        if (s == null) {
-            return new ReservationResult(false, "Salle introuvable");
+            return ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "Paramètres manquants");
         }
-        // Basic parse and store; no overlap logic yet (to be added with pessimistic locking)
         LocalDate date = null;
         LocalTime start = null;
         LocalTime end = null;
@@ -122,21 +132,105 @@ public class SalleServiceImpl implements SalleService {
                 end = LocalTime.parse(command.getEndTime());
             }
         } catch (Exception ex) {
-            return new ReservationResult(false, "Format de date/heure invalide");
+            return ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "Format de date/heure invalide");
+        }
+        // No time window: nothing to admit against, keep the approval workflow
+        boolean windowed = date != null && start != null && end != null;
+        LocalDateTime startAt = windowed ? LocalDateTime.of(date, start) : null;
+        LocalDateTime endAt = windowed ? LocalDateTime.of(date, end) : null;
+        if (windowed && !endAt.isAfter(startAt)) {
+            return ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "L'heure de fin doit être après l'heure de début");
+        }
+
+        // Check-and-insert is serialized per room: the stripe lock is held until the transaction
+        // has committed, and the row lock on the room covers other server instances.
+        ReentrantLock lock = roomLocks.forRoom(command.getSalleId());
+        try {
+            if (!lock.tryLock(LOCK_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                return ReservationResult.failure(ReservationResult.CODE_BUSY, "Salle occupée, réessayez");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return ReservationResult.failure(ReservationResult.CODE_BUSY, "Réservation interrompue");
+        }
+        try {
+            return transactionTemplate.execute(tx -> windowed ? admit(command, startAt, endAt) : insertPending(command));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ReservationResult> reserverSalles(List<CreateReservationCommand> commands, boolean atomic) throws RemoteException {
+        return batchReservations.reserve(commands, atomic);
+    }
+
+    @Override
+    public List<ReservationResult> reserverSerie(CreateReservationCommand template, RecurrenceRule rule, boolean atomic) throws RemoteException {
+        if (template == null || rule == null) {
+            return Collections.singletonList(
+                    ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "Paramètres manquants"));
+        }
+        List<LocalDate> dates;
+        try {
+            dates = rule.occurrences();
+        } catch (IllegalArgumentException ex) {
+            return Collections.singletonList(
+                    ReservationResult.failure(ReservationResult.CODE_INVALID_REQUEST, "Récurrence invalide : " + ex.getMessage()));
+        }
+        List<CreateReservationCommand> commands = new ArrayList<>(dates.size());
+        for (LocalDate d : dates) {
+            CreateReservationCommand c = new CreateReservationCommand(template.getSalleId(), template.getClient(),
+                    d.toString(), template.getStartTime(), template.getEndTime());
+            c.setUserId(template.getUserId());
+            commands.add(c);
+        }
+        return batchReservations.reserve(commands, atomic);
+    }
+
+    private ReservationResult admit(CreateReservationCommand command, LocalDateTime startAt, LocalDateTime endAt) {
+        Long salleId = command.getSalleId();
+        String client = command.getClient();
+        Salle s = salleRepository.findByIdForUpdate(salleId).orElse(null);
+        if (s == null) {
+            return ReservationResult.failure(ReservationResult.CODE_ROOM_NOT_FOUND, "Salle introuvable");
+        }
+        if (!shardScope.owns(s.getLocation())) return wrongShard();
+        // Capacity rule: only approved (CONFIRMED) reservations count toward capacity
+        long overlaps = reservationRepository.countOverlaps(salleId, startAt, endAt, CONFIRMED_ONLY);
+        if (overlaps >= s.getCapacite()) {
+            return ReservationResult.failure(ReservationResult.CODE_UNAVAILABLE, "Salle indisponible sur ce créneau");
         }
+        Reservation r = new Reservation(client, s);
+        r.setUserId(command.getUserId());
+        r.setStartAt(startAt);
+        r.setEndAt(endAt);
+        // Admitted under capacity: auto-approved so it counts for the next booking
+        r.setStatus("CONFIRMED");
+        reservationRepository.save(r);
+        return new ReservationResult(true,
+                "Réservation enregistrée pour " + client + " sur " + s.getNom(),
+                r.getId(), r.getStatus());
+    }
 
-        Reservation r = new Reservation(command.getClient(), s);
-        if (date != null && start != null && end != null) {
-            LocalDateTime startAt = LocalDateTime.of(date, start);
-            LocalDateTime endAt = LocalDateTime.of(date, end);
-            r.setStartAt(startAt);
-            r.setEndAt(endAt);
+    private ReservationResult insertPending(CreateReservationCommand command) {
+        String client = command.getClient();
+        Salle s = salleRepository.findById(command.getSalleId()).orElse(null);
+        if (s == null) {
+            return ReservationResult.failure(ReservationResult.CODE_ROOM_NOT_FOUND, "Salle introuvable");
         }
+        if (!shardScope.owns(s.getLocation())) return wrongShard();
+        Reservation r = new Reservation(client, s);
+        r.setUserId(command.getUserId());
         // New reservations should start as PENDING and require admin approval
         r.setStatus("PENDING");
         reservationRepository.save(r);
         return new ReservationResult(true,
-                "Réservation enregistrée pour " + command.getClient() + " sur " + s.getNom(),
+                "Réservation enregistrée pour " + client + " sur " + s.getNom(),
                 r.getId(), r.getStatus());
     }
+
+    static ReservationResult wrongShard() {
+        return ReservationResult.failure(ReservationResult.CODE_WRONG_SHARD, "Salle gérée par un autre nœud");
+    }
 }
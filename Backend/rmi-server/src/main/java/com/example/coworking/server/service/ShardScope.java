@@ -0,0 +1,52 @@
+package com.example.coworking.server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Locations owned by this node in a sharded deployment (shard.locations). A node only serves the rooms
+ * of its locations in the catalog and only admits bookings for them; bookings in different locations
+ * never conflict, so shards need no coordination. Rooms without a location belong to the node with
+ * shard.unassigned=true. With no shard.locations the node owns every room.
+ */
+@Component
+public class ShardScope {
+    private static final Logger log = LoggerFactory.getLogger(ShardScope.class);
+
+    private final Set<String> locations;
+    private final boolean unassigned;
+
+    public ShardScope(@Value("${shard.locations:}") String locations,
+                      @Value("${shard.unassigned:false}") boolean unassigned) {
+        Set<String> owned = new TreeSet<>();
+        for (String l : locations.split(",")) {
+            if (!l.trim().isEmpty()) owned.add(normalize(l));
+        }
+        this.locations = Collections.unmodifiableSet(owned);
+        this.unassigned = unassigned;
+        if (!owned.isEmpty()) {
+            log.info("[SHARD] Owning location(s) {}{}", owned, unassigned ? " and rooms without a location" : "");
+        }
+    }
+
+    public boolean isSharded() {
+        return !locations.isEmpty();
+    }
+
+    public boolean owns(String location) {
+        if (locations.isEmpty()) return true;
+        if (location == null || location.trim().isEmpty()) return unassigned;
+        return locations.contains(normalize(location));
+    }
+
+    private static String normalize(String location) {
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+}
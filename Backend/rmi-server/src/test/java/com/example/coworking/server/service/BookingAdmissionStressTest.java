@@ -0,0 +1,164 @@
+package com.example.coworking.server.service;
+
+import com.example.coworking.common.CreateReservationCommand;
+import com.example.coworking.common.ReservationResult;
+import com.example.coworking.server.entity.Salle;
+import com.example.coworking.server.repository.ReservationRepository;
+import com.example.coworking.server.repository.SalleRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many clients booking the same room and window at once must admit exactly as many as the room holds:
+ * the check-and-insert runs under the room's stripe lock inside one transaction, and the room row lock
+ * covers a second server instance that does not share the stripe locks.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({SalleServiceImpl.class, RoomLocks.class, BatchReservations.class, RoomCatalog.class, ShardScope.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every booking commits, as it does over RMI
+class BookingAdmissionStressTest {
+    private static final Logger log = LoggerFactory.getLogger(BookingAdmissionStressTest.class);
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    @Autowired
+    private SalleServiceImpl service;
+    @Autowired
+    private SalleRepository salleRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BatchReservations batchReservations;
+    @Autowired
+    private RoomCatalog roomCatalog;
+    @Autowired
+    private ShardScope shardScope;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sameRoomAndWindowAdmitsOneBooking() throws Exception {
+        Long roomId = singleSeatRoom("Stress single");
+
+        List<ReservationResult> results = storm("one instance", i -> service, i -> roomId);
+
+        assertEquals(1, confirmed(roomId));
+        assertEquals(1, results.stream().filter(ReservationResult::isSuccess).count());
+        assertTrue(results.stream().filter(r -> !r.isSuccess())
+                .allMatch(r -> ReservationResult.CODE_UNAVAILABLE.equals(r.getCode())));
+    }
+
+    @Test
+    void secondInstanceIsHeldOffByTheRoomRowLock() throws Exception {
+        Long roomId = singleSeatRoom("Stress two nodes");
+        // Same database, separate stripe locks: only SELECT ... FOR UPDATE keeps the two apart
+        SalleServiceImpl other = new SalleServiceImpl(salleRepository, reservationRepository, new RoomLocks(64),
+                transactionTemplate, batchReservations, roomCatalog, shardScope, "rmi-server:1100");
+
+        List<ReservationResult> results = storm("two instances", i -> i % 2 == 0 ? service : other, i -> roomId);
+
+        assertEquals(1, confirmed(roomId));
+        assertEquals(1, results.stream().filter(ReservationResult::isSuccess).count());
+    }
+
+    @Test
+    void differentRoomsBookInParallel() throws Exception {
+        List<Long> rooms = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            rooms.add(singleSeatRoom("Stress room " + i));
+        }
+
+        storm("one room per thread", i -> service, rooms::get);
+
+        for (Long roomId : rooms) {
+            assertEquals(1, confirmed(roomId));
+        }
+    }
+
+    @Test
+    void bookingWithoutWindowGoesThroughTheCommandPath() throws Exception {
+        Long roomId = singleSeatRoom("Stress legacy");
+
+        ReservationResult ok = service.reserverSalle(roomId, "legacy@example.com");
+        ReservationResult missing = service.reserverSalle(-1L, "legacy@example.com");
+
+        assertTrue(ok.isSuccess());
+        assertEquals("PENDING", ok.getStatus());
+        assertEquals(ReservationResult.CODE_ROOM_NOT_FOUND, missing.getCode());
+    }
+
+    private interface PerThread<T> {
+        T get(int thread);
+    }
+
+    /** Every thread books the same window {@link #ATTEMPTS_PER_THREAD} times; returns all results. */
+    private List<ReservationResult> storm(String label, PerThread<SalleServiceImpl> nodes, PerThread<Long> rooms)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<List<ReservationResult>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SalleServiceImpl node = nodes.get(t);
+            Long roomId = rooms.get(t);
+            String client = "client" + t + "@example.com";
+            Callable<List<ReservationResult>> task = () -> {
+                go.await();
+                List<ReservationResult> out = new ArrayList<>();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    out.add(node.reserverSalle(
+                            new CreateReservationCommand(roomId, client, "2030-01-15", "09:00", "10:00")));
+                }
+                return out;
+            };
+            futures.add(pool.submit(task));
+        }
+        long started = System.nanoTime();
+        go.countDown();
+        List<ReservationResult> results = new ArrayList<>();
+        try {
+            for (Future<List<ReservationResult>> f : futures) {
+                results.addAll(f.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("[STRESS] {}: {} bookings by {} threads in {} ms ({} bookings/s)",
+                label, results.size(), THREADS, Math.round(seconds * 1000), Math.round(results.size() / seconds));
+        return results;
+    }
+
+    private Long singleSeatRoom(String name) {
+        return salleRepository.save(new Salle(name, 1, "Agadir", null, true, new ArrayList<>())).getId();
+    }
+
+    private long confirmed(Long roomId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservations WHERE salle_id = ? AND status = 'CONFIRMED'", Long.class, roomId);
+    }
+}
@@ -6,7 +6,7 @@ import { ReservationForm } from "./components/ReservationForm";
 import { MyReservations } from "./components/MyReservations";
 import { AdminPanel } from "./components/AdminPanel";
 import { AdminRooms } from "./components/AdminRooms";
-import { AdminUsers } from "./components/AdminUsers";
+import { AdminUsers, type UserFilter } from "./components/AdminUsers";
 import { AdminValidate } from "./components/AdminValidate";
 import { AdminStats } from "./components/AdminStats";
 import { SystemArchitecture } from "./components/SystemArchitecture";
@@ -16,6 +16,11 @@ import { Navbar } from "./components/Navbar";
 import { Footer } from "./components/Footer";
 import { Toaster } from "./components/ui/sonner";
 import { toast } from 'sonner@2.0.3';
+import { logout } from './api/auth';
+import type { AdminStatsData } from './api/stats';
+
+// Rows per request on the paged admin lists
+const ADMIN_PAGE_SIZE = 50;
 
 export type User = {
   id: string;
@@ -132,6 +137,10 @@ export default function App() {
   );
   const [initialLocationFilter, setInitialLocationFilter] = useState<string>('all');
   const [users, setUsers] = useState<AppUser[]>([]);
+  const [usersCursor, setUsersCursor] = useState<string | null>(null);
+  const [loadingMoreUsers, setLoadingMoreUsers] = useState(false);
+  const [userFilter, setUserFilter] = useState<UserFilter>({});
+  const [usersMatching, setUsersMatching] = useState<{ count?: number; exact?: boolean }>({});
   const [rooms, setRooms] = useState<Room[]>([]);
 
   // Sync URL path with currentPage, and listen to back/forward
@@ -173,45 +182,99 @@ export default function App() {
     return () => { cancelled = true; };
   }, []);
   const [reservations, setReservations] = useState<Reservation[]>([]);
+  const [reservationsCursor, setReservationsCursor] = useState<string | null>(null);
+  const [loadingMoreReservations, setLoadingMoreReservations] = useState(false);
+  const [adminStats, setAdminStats] = useState<AdminStatsData | null>(null);
 
   // Helpers to load data on demand
-  const loadUsers = async () => {
+  // The admin directory is read page by page in name order, filtered on the server
+  const loadUsers = async (filter: UserFilter = userFilter) => {
     try {
-      const { listUsers } = await import('./api/users');
-      const u = await listUsers();
-      setUsers(u);
+      const { listUsersPage } = await import('./api/users');
+      const page = await listUsersPage({ limit: ADMIN_PAGE_SIZE, role: filter.role, q: filter.q });
+      setUsers(page.items);
+      setUsersCursor(page.nextCursor);
+      setUsersMatching({ count: page.total, exact: page.totalExact });
     } catch (e) {
       console.error('Failed to load users', e);
     }
   };
 
+  const loadMoreUsers = async () => {
+    if (!usersCursor) return;
+    setLoadingMoreUsers(true);
+    try {
+      const { listUsersPage } = await import('./api/users');
+      const page = await listUsersPage({ limit: ADMIN_PAGE_SIZE, role: userFilter.role, q: userFilter.q, cursor: usersCursor });
+      setUsers((prev) => [...prev, ...page.items]);
+      setUsersCursor(page.nextCursor);
+    } catch (e) {
+      console.error('Failed to load more users', e);
+    } finally {
+      setLoadingMoreUsers(false);
+    }
+  };
+
+  const handleUserFilterChange = (filter: UserFilter) => {
+    setUserFilter(filter);
+    loadUsers(filter);
+  };
+
   const loadUserReservations = async () => {
     if (!currentUser) return;
     try {
       const { listReservations } = await import('./api/reservations');
-      const r = await listReservations({ client: currentUser.email });
+      // The server scopes the list to the signed-in user's session
+      const r = await listReservations();
       setReservations(r);
     } catch (e) {
       console.error('Failed to load reservations', e);
     }
   };
 
+  // Admin views read reservations page by page, most recent first
   const loadAllReservations = async () => {
     try {
-      const { listReservations } = await import('./api/reservations');
-      const r = await listReservations();
-      setReservations(r);
+      const { listReservationPage } = await import('./api/reservations');
+      const page = await listReservationPage({ limit: ADMIN_PAGE_SIZE, order: 'desc' });
+      setReservations(page.items);
+      setReservationsCursor(page.nextCursor);
     } catch (e) {
       console.error('Failed to load all reservations', e);
     }
   };
 
+  const loadMoreReservations = async () => {
+    if (!reservationsCursor) return;
+    setLoadingMoreReservations(true);
+    try {
+      const { listReservationPage } = await import('./api/reservations');
+      const page = await listReservationPage({ limit: ADMIN_PAGE_SIZE, order: 'desc', cursor: reservationsCursor });
+      setReservations((prev) => [...prev, ...page.items]);
+      setReservationsCursor(page.nextCursor);
+    } catch (e) {
+      console.error('Failed to load more reservations', e);
+    } finally {
+      setLoadingMoreReservations(false);
+    }
+  };
+
+  const loadAdminStats = async () => {
+    try {
+      const { getStats } = await import('./api/stats');
+      setAdminStats(await getStats());
+    } catch (e) {
+      console.error('Failed to load admin stats', e);
+    }
+  };
+
   const handleLogin = (user: User) => {
     setCurrentUser(user);
     setCurrentPage("dashboard");
   };
 
   const handleLogout = () => {
+    void logout();
     setCurrentUser(null);
     setCurrentPage("home");
     setSelectedRoom(null);
@@ -230,6 +293,7 @@ export default function App() {
       await createReservation({
         salleId: reservation.roomId,
         client: currentUser?.email || reservation.userName,
+        userId: currentUser?.id,
         date: reservation.date,
         startTime: reservation.startTime,
         endTime: reservation.endTime,
@@ -353,10 +417,13 @@ export default function App() {
     if (currentPage === 'my-reservations' && currentUser) {
       loadUserReservations();
     }
-    if ((currentPage === 'admin' || currentPage === 'admin-validate' || currentPage === 'admin-stats')) {
+    if (currentPage === 'admin' || currentPage === 'admin-users') {
+      loadAdminStats();
+    }
+    if (currentPage === 'admin-validate') {
       loadAllReservations();
     }
-    if ((currentPage === 'admin' || currentPage === 'admin-users' || currentPage === 'admin-stats')) {
+    if (currentPage === 'admin-users') {
       loadUsers();
     }
   }, [currentPage]);
@@ -432,8 +499,7 @@ export default function App() {
           currentUser?.role === "admin" && (
             <AdminPanel
               rooms={rooms}
-              reservations={reservations}
-              users={users}
+              stats={adminStats}
               onNavigate={setCurrentPage}
             />
           )}
@@ -451,6 +517,14 @@ export default function App() {
           currentUser?.role === "admin" && (
             <AdminUsers
               users={users}
+              stats={adminStats}
+              filter={userFilter}
+              onFilterChange={handleUserFilterChange}
+              matching={usersMatching.count}
+              matchingExact={usersMatching.exact}
+              hasMore={!!usersCursor}
+              loadingMore={loadingMoreUsers}
+              onLoadMore={loadMoreUsers}
               onUpdateUser={handleUpdateUser}
               onDeleteUser={handleDeleteUser}
               onBack={() => setCurrentPage("admin")}
@@ -464,16 +538,14 @@ export default function App() {
               onReject={handleRejectReservation}
               onCancel={handleCancelReservation}
               onBack={() => setCurrentPage("admin")}
+              hasMore={!!reservationsCursor}
+              loadingMore={loadingMoreReservations}
+              onLoadMore={loadMoreReservations}
             />
           )}
         {currentPage === "admin-stats" &&
           currentUser?.role === "admin" && (
-            <AdminStats
-              rooms={rooms}
-              reservations={reservations}
-              users={users}
-              onBack={() => setCurrentPage("admin")}
-            />
+            <AdminStats onBack={() => setCurrentPage("admin")} />
           )}
         {currentPage === "architecture" && (
           <SystemArchitecture
@@ -1,4 +1,4 @@
-import { apiRequest } from '../lib/api';
+import { apiRequest, setSessionToken } from '../lib/api';
 import type { User } from '../App';
 
 type UserResponse = {
@@ -10,6 +10,11 @@ type UserResponse = {
   createdAt: string;
 };
 
+type LoginResponse = UserResponse & {
+  token: string;
+  expiresAt: string;
+};
+
 export async function register(name: string, email: string, password: string, phone?: string): Promise<User> {
   const payload: any = { name, email, password };
   if (phone && phone.trim().length > 0) payload.phone = phone.trim();
@@ -28,11 +33,12 @@ export async function register(name: string, email: string, password: string, ph
 }
 
 export async function login(email: string, password: string): Promise<User> {
-  const res = await apiRequest<UserResponse>('/api/auth/login', {
+  const res = await apiRequest<LoginResponse>('/api/auth/login', {
     method: 'POST',
     headers: { 'Content-Type': 'application/json' },
     body: JSON.stringify({ email, password }),
   });
+  setSessionToken(res.token);
   return {
     id: String(res.id),
     name: res.name,
@@ -41,3 +47,13 @@ export async function login(email: string, password: string): Promise<User> {
     role: (res.role || 'USER').toLowerCase() as 'user' | 'admin',
   };
 }
+
+export async function logout(): Promise<void> {
+  try {
+    await apiRequest<string>('/api/auth/logout', { method: 'POST' });
+  } catch {
+    // The session expires server-side anyway
+  } finally {
+    setSessionToken(null);
+  }
+}
@@ -17,6 +17,7 @@ type ReservationDTO = {
 export type CreateReservationInput = {
   salleId: number | string;
   client: string; // email or name
+  userId?: number | string;
   date?: string; // YYYY-MM-DD
   startTime?: string; // HH:mm
   endTime?: string; // HH:mm
@@ -32,6 +33,7 @@ export async function createReservation(payload: CreateReservationInput): Promis
       body: JSON.stringify({
         salleId: typeof payload.salleId === 'string' ? Number(payload.salleId) : payload.salleId,
         client: payload.client,
+        userId: payload.userId != null && payload.userId !== '' ? Number(payload.userId) : undefined,
         date: payload.date,
         startTime: payload.startTime,
         endTime: payload.endTime,
@@ -41,12 +43,46 @@ export async function createReservation(payload: CreateReservationInput): Promis
   return { reservationId: res.reservationId, status: res.status, message: res.message };
 }
 
-export async function listReservations(params?: { client?: string; status?: string }): Promise<Reservation[]> {
+export type RecurrenceInput = {
+  frequency: 'DAILY' | 'WEEKLY';
+  interval?: number;
+  startDate: string;    // YYYY-MM-DD
+  untilDate?: string;   // YYYY-MM-DD, inclusive
+  count?: number;
+  daysOfWeek?: string[]; // MONDAY..SUNDAY, weekly only
+};
+
+export type BookingOutcome = { success: boolean; message: string; reservationId?: number; status?: string; code?: string };
+
+export type SeriesResult = { booked: number; refused: number; dates: string[]; results: BookingOutcome[] };
+
+// Books a recurring slot in one request; results are aligned with dates
+export async function createReservationSeries(payload: Omit<CreateReservationInput, 'date'> & { recurrence: RecurrenceInput; atomic?: boolean }): Promise<SeriesResult> {
+  return apiRequest<SeriesResult>('/api/reservations/series', {
+    method: 'POST',
+    body: JSON.stringify({
+      salleId: typeof payload.salleId === 'string' ? Number(payload.salleId) : payload.salleId,
+      client: payload.client,
+      userId: payload.userId != null && payload.userId !== '' ? Number(payload.userId) : undefined,
+      startTime: payload.startTime,
+      endTime: payload.endTime,
+      recurrence: payload.recurrence,
+      atomic: !!payload.atomic,
+    }),
+  });
+}
+
+export async function listReservations(params?: { userId?: number | string; client?: string; status?: string }): Promise<Reservation[]> {
   const qs = new URLSearchParams();
+  if (params?.userId != null && params.userId !== '') qs.set('userId', String(params.userId));
   if (params?.client) qs.set('client', params.client);
   if (params?.status) qs.set('status', params.status);
   const data = await apiRequest<ReservationDTO[]>(`/api/reservations${qs.toString() ? `?${qs.toString()}` : ''}`);
-  return data.map((d) => ({
+  return data.map(toReservation);
+}
+
+function toReservation(d: ReservationDTO): Reservation {
+  return {
     id: String(d.id),
     userId: d.userId || '',
     userName: d.userName,
@@ -57,7 +93,29 @@ export async function listReservations(params?: { client?: string; status?: stri
     startTime: d.startTime || '',
     endTime: d.endTime || '',
     status: (d.status || 'confirmed').toLowerCase() as Reservation['status'],
-  }));
+  };
+}
+
+export type ReservationPageParams = {
+  limit: number;
+  cursor?: string | null;
+  order?: 'asc' | 'desc';
+  userId?: number | string;
+  client?: string;
+  status?: string;
+  roomId?: number | string;
+  location?: string;
+  from?: string; // YYYY-MM-DD
+  to?: string; // YYYY-MM-DD
+};
+
+export async function listReservationPage(params: ReservationPageParams): Promise<{ items: Reservation[]; nextCursor: string | null }> {
+  const qs = new URLSearchParams();
+  Object.entries(params).forEach(([k, v]) => {
+    if (v != null && v !== '') qs.set(k, String(v));
+  });
+  const data = await apiRequest<{ items: ReservationDTO[]; nextCursor: string | null }>(`/api/reservations?${qs.toString()}`);
+  return { items: data.items.map(toReservation), nextCursor: data.nextCursor };
 }
 
 export async function cancelReservation(id: string | number): Promise<void> {
@@ -0,0 +1,30 @@
+import { apiRequest } from '../lib/api';
+
+export type LocationStats = {
+  name: string;
+  rooms: number;
+  available: number;
+  reserved: number;
+  confirmedBookings: number;
+};
+
+export type AdminStatsData = {
+  generatedAt: string;
+  maxAgeSeconds: number;
+  totalRooms: number;
+  availableRooms: number;
+  reservedRooms: number;
+  smallRooms: number;
+  mediumRooms: number;
+  largeRooms: number;
+  totalReservations: number;
+  reservationsByStatus: Record<string, number>;
+  totalUsers: number;
+  adminUsers: number;
+  regularUsers: number;
+  locations: LocationStats[];
+};
+
+export async function getStats(): Promise<AdminStatsData> {
+  return apiRequest<AdminStatsData>('/api/stats');
+}
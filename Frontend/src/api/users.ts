@@ -24,6 +24,23 @@ export async function listUsers(): Promise<AppUser[]> {
   return data.map(mapUser);
 }
 
+export type UserPage = {
+  items: AppUser[];
+  nextCursor: string | null;
+  total?: number;       // first page only
+  totalExact?: boolean; // false when total is an estimate
+};
+
+// Keyset-paginated directory; pass nextCursor back as cursor to get the following page
+export async function listUsersPage(params: { limit: number; cursor?: string | null; role?: 'user' | 'admin'; q?: string }): Promise<UserPage> {
+  const qs = new URLSearchParams({ limit: String(params.limit) });
+  if (params.cursor) qs.set('cursor', params.cursor);
+  if (params.role) qs.set('role', params.role.toUpperCase());
+  if (params.q && params.q.trim()) qs.set('q', params.q.trim());
+  const data = await apiRequest<{ items: UserResponse[]; nextCursor: string | null; total?: number; totalExact?: boolean }>(`/api/users?${qs.toString()}`);
+  return { items: data.items.map(mapUser), nextCursor: data.nextCursor, total: data.total, totalExact: data.totalExact };
+}
+
 export async function getUser(id: string): Promise<AppUser> {
   const data = await apiRequest<UserResponse>(`/api/users/${id}`);
   return mapUser(data);
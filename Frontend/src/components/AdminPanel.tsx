@@ -13,28 +13,27 @@ import {
   CheckCircle,
   BarChart3,
 } from 'lucide-react';
-import type { Room, Reservation, AppUser, Page } from '../App';
+import type { Room, Page } from '../App';
+import type { AdminStatsData } from '../api/stats';
 
 type AdminPanelProps = {
   rooms: Room[];
-  reservations: Reservation[];
-  users: AppUser[];
+  // Reservation and user counts come from the server-side aggregates, not from loaded lists
+  stats: AdminStatsData | null;
   onNavigate: (page: Page) => void;
 };
 
-export function AdminPanel({ rooms, reservations, users, onNavigate }: AdminPanelProps) {
+export function AdminPanel({ rooms, stats, onNavigate }: AdminPanelProps) {
   const locations = ['Agadir', 'Marrakech', 'Casablanca'];
   const roomsByLocation = locations.map((location) => ({
     location,
     count: rooms.filter((r) => r.location === location).length,
     available: rooms.filter((r) => r.location === location && r.available).length,
-    reservations: reservations.filter(
-      (res) => res.location === location && res.status === 'confirmed'
-    ).length,
+    reservations: stats?.locations.find((l) => l.name === location)?.confirmedBookings ?? 0,
   }));
 
-  const pendingReservations = reservations.filter((r) => r.status === 'pending').length;
-  const confirmedReservations = reservations.filter((r) => r.status === 'confirmed').length;
+  const pendingReservations = stats?.reservationsByStatus['PENDING'] ?? 0;
+  const confirmedReservations = stats?.reservationsByStatus['CONFIRMED'] ?? 0;
 
   return (
     <div className="flex min-h-screen relative z-10">
@@ -133,12 +132,12 @@ export function AdminPanel({ rooms, reservations, users, onNavigate }: AdminPane
             <Card className="bg-card border-border">
               <CardHeader className="pb-3">
                 <CardDescription>Total Users</CardDescription>
-                <CardTitle className="text-3xl text-foreground">{users.length}</CardTitle>
+                <CardTitle className="text-3xl text-foreground">{stats?.totalUsers ?? 0}</CardTitle>
               </CardHeader>
               <CardContent>
                 <div className="flex items-center gap-2 text-sm text-muted-foreground">
                   <Users className="w-4 h-4" />
-                  {users.filter((u) => u.role === 'admin').length} admins
+                  {stats?.adminUsers ?? 0} admins
                 </div>
               </CardContent>
             </Card>
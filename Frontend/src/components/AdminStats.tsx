@@ -1,56 +1,53 @@
+import { useEffect, useState } from 'react';
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from './ui/card';
 import { Button } from './ui/button';
 import { Badge } from './ui/badge';
 import { ArrowLeft, TrendingUp, Users, DoorOpen, Calendar, BarChart3 } from 'lucide-react';
-import type { Room, Reservation, AppUser } from '../App';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, Legend, ResponsiveContainer, PieChart, Pie, Cell } from 'recharts';
+import { getStats, type AdminStatsData } from '../api/stats';
 
 type AdminStatsProps = {
-  rooms: Room[];
-  reservations: Reservation[];
-  users: AppUser[];
   onBack: () => void;
 };
 
-export function AdminStats({ rooms, reservations, users, onBack }: AdminStatsProps) {
-  // Calculate statistics
-  const totalRooms = rooms.length;
-  const availableRooms = rooms.filter((r) => r.available).length;
-  const reservedRooms = totalRooms - availableRooms;
-  const occupancyRate = ((reservedRooms / totalRooms) * 100).toFixed(1);
+export function AdminStats({ onBack }: AdminStatsProps) {
+  // Aggregates are computed server-side (GET /api/stats) instead of from full lists
+  const [stats, setStats] = useState<AdminStatsData | null>(null);
 
-  const confirmedReservations = reservations.filter((r) => r.status === 'confirmed').length;
+  useEffect(() => {
+    getStats()
+      .then(setStats)
+      .catch((e) => console.error('Failed to load stats', e));
+  }, []);
+
+  const totalRooms = stats?.totalRooms ?? 0;
+  const availableRooms = stats?.availableRooms ?? 0;
+  const reservedRooms = stats?.reservedRooms ?? 0;
+  const occupancyRate = totalRooms > 0 ? ((reservedRooms / totalRooms) * 100).toFixed(1) : '0.0';
+
+  const confirmedReservations = stats?.reservationsByStatus?.CONFIRMED ?? 0;
   // Pending status removed (auto-approval). Keep variable for layout if needed but set to 0.
   const pendingReservations = 0;
-  const cancelledReservations = reservations.filter((r) => r.status === 'cancelled').length;
+  const cancelledReservations = stats?.reservationsByStatus?.CANCELLED ?? 0;
 
-  const totalUsers = users.length;
-  const adminUsers = users.filter((u) => u.role === 'admin').length;
-  const regularUsers = users.filter((u) => u.role === 'user').length;
+  const totalUsers = stats?.totalUsers ?? 0;
+  const adminUsers = stats?.adminUsers ?? 0;
+  const regularUsers = stats?.regularUsers ?? 0;
 
   // Room data by location
-  const locationData = ['Agadir', 'Marrakech', 'Casablanca'].map((location) => ({
-    name: location,
-    total: rooms.filter((r) => r.location === location).length,
-    available: rooms.filter((r) => r.location === location && r.available).length,
-    reserved: rooms.filter((r) => r.location === location && !r.available).length,
-    bookings: reservations.filter((r) => r.location === location && r.status === 'confirmed').length,
+  const locationData = (stats?.locations ?? []).map((l) => ({
+    name: l.name,
+    total: l.rooms,
+    available: l.available,
+    reserved: l.reserved,
+    bookings: l.confirmedBookings,
   }));
 
   // Capacity distribution
   const capacityData = [
-    {
-      name: 'Small (1-6)',
-      value: rooms.filter((r) => r.capacity <= 6).length,
-    },
-    {
-      name: 'Medium (7-10)',
-      value: rooms.filter((r) => r.capacity > 6 && r.capacity <= 10).length,
-    },
-    {
-      name: 'Large (11+)',
-      value: rooms.filter((r) => r.capacity > 10).length,
-    },
+    { name: 'Small (1-6)', value: stats?.smallRooms ?? 0 },
+    { name: 'Medium (7-10)', value: stats?.mediumRooms ?? 0 },
+    { name: 'Large (11+)', value: stats?.largeRooms ?? 0 },
   ];
 
   const COLORS = ['#1a1a1a', '#666666', '#999999'];
@@ -68,7 +65,10 @@ export function AdminStats({ rooms, reservations, users, onBack }: AdminStatsPro
         <h1 className="text-foreground mb-2">
           Statistics & Analytics
         </h1>
-        <p className="text-muted-foreground">System performance and usage metrics</p>
+        <p className="text-muted-foreground">
+          System performance and usage metrics
+          {stats && ` · updated ${new Date(stats.generatedAt).toLocaleTimeString()}`}
+        </p>
       </div>
 
       {/* Key Metrics */}
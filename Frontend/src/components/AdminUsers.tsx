@@ -20,18 +20,41 @@ import {
   AlertDialogTitle,
   AlertDialogTrigger,
 } from './ui/alert-dialog';
-import { ArrowLeft, UserPlus, ShieldCheck, Trash2, Mail, Calendar as CalendarIcon } from 'lucide-react';
+import { Input } from './ui/input';
+import { ArrowLeft, UserPlus, ShieldCheck, Trash2, Mail, Calendar as CalendarIcon, Search } from 'lucide-react';
+import { useEffect, useState } from 'react';
 import type { AppUser } from '../App';
+import type { AdminStatsData } from '../api/stats';
 import { toast } from 'sonner@2.0.3';
 
+export type UserFilter = { role?: 'user' | 'admin'; q?: string };
+
 type AdminUsersProps = {
+  // One or more pages of the directory, in name order
   users: AppUser[];
+  stats: AdminStatsData | null;
+  filter: UserFilter;
+  onFilterChange: (filter: UserFilter) => void;
+  matching?: number; // users matching the filter, from the first page
+  matchingExact?: boolean;
+  hasMore?: boolean;
+  loadingMore?: boolean;
+  onLoadMore?: () => void;
   onUpdateUser: (userId: string, updates: Partial<AppUser>) => void;
   onDeleteUser: (userId: string) => void;
   onBack: () => void;
 };
 
-export function AdminUsers({ users, onUpdateUser, onDeleteUser, onBack }: AdminUsersProps) {
+export function AdminUsers({ users, stats, filter, onFilterChange, matching, matchingExact, hasMore, loadingMore, onLoadMore, onUpdateUser, onDeleteUser, onBack }: AdminUsersProps) {
+  const [search, setSearch] = useState(filter.q ?? '');
+
+  // Search as the admin types, once typing pauses
+  useEffect(() => {
+    if (search.trim() === (filter.q ?? '')) return;
+    const t = setTimeout(() => onFilterChange({ ...filter, q: search.trim() || undefined }), 300);
+    return () => clearTimeout(t);
+  }, [search]);
+
   const handlePromote = (userId: string, userName: string) => {
     onUpdateUser(userId, { role: 'admin' });
     toast.success('User promoted to admin', {
@@ -61,8 +84,14 @@ export function AdminUsers({ users, onUpdateUser, onDeleteUser, onBack }: AdminU
     });
   };
 
-  const adminCount = users.filter((u) => u.role === 'admin').length;
-  const userCount = users.filter((u) => u.role === 'user').length;
+  const totalUsers = stats?.totalUsers ?? 0;
+  const adminCount = stats?.adminUsers ?? 0;
+  const userCount = stats?.regularUsers ?? 0;
+  const roleOptions: { label: string; role?: 'user' | 'admin' }[] = [
+    { label: 'All' },
+    { label: 'Admins', role: 'admin' },
+    { label: 'Users', role: 'user' },
+  ];
 
   return (
     <div className="max-w-7xl mx-auto px-4 sm:px-6 lg:px-8 py-8 relative z-10">
@@ -85,7 +114,7 @@ export function AdminUsers({ users, onUpdateUser, onDeleteUser, onBack }: AdminU
         <Card className="bg-card border-border">
           <CardHeader className="pb-3">
             <CardDescription>Total Users</CardDescription>
-            <CardTitle className="text-3xl text-foreground">{users.length}</CardTitle>
+            <CardTitle className="text-3xl text-foreground">{totalUsers}</CardTitle>
           </CardHeader>
           <CardContent>
             <div className="flex items-center gap-2 text-sm text-muted-foreground">
@@ -128,7 +157,31 @@ export function AdminUsers({ users, onUpdateUser, onDeleteUser, onBack }: AdminU
           <CardTitle className="text-foreground">All Users</CardTitle>
           <CardDescription>
             View and manage user roles and permissions
+            {matching != null && ` · ${matchingExact ? '' : 'about '}${matching} matching`}
           </CardDescription>
+          <div className="flex flex-col sm:flex-row gap-3 pt-2">
+            <div className="relative flex-1">
+              <Search className="w-4 h-4 absolute left-3 top-1/2 -translate-y-1/2 text-muted-foreground" />
+              <Input
+                value={search}
+                onChange={(e) => setSearch(e.target.value)}
+                placeholder="Search by name or email prefix"
+                className="pl-9"
+              />
+            </div>
+            <div className="flex gap-2">
+              {roleOptions.map((o) => (
+                <Button
+                  key={o.label}
+                  variant={filter.role === o.role ? 'default' : 'outline'}
+                  size="sm"
+                  onClick={() => onFilterChange({ ...filter, role: o.role })}
+                >
+                  {o.label}
+                </Button>
+              ))}
+            </div>
+          </div>
         </CardHeader>
         <CardContent>
           <div className="overflow-x-auto">
@@ -279,9 +332,23 @@ export function AdminUsers({ users, onUpdateUser, onDeleteUser, onBack }: AdminU
                     </TableCell>
                   </TableRow>
                 ))}
+                {users.length === 0 && (
+                  <TableRow>
+                    <TableCell colSpan={7} className="text-center py-8 text-muted-foreground">
+                      No users found
+                    </TableCell>
+                  </TableRow>
+                )}
               </TableBody>
             </Table>
           </div>
+          {hasMore && onLoadMore && (
+            <div className="flex justify-center mt-4">
+              <Button variant="outline" onClick={onLoadMore} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </Button>
+            </div>
+          )}
         </CardContent>
       </Card>
     </div>
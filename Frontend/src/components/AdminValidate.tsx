@@ -30,9 +30,13 @@ type AdminValidateProps = {
   onReject: (reservationId: string) => void;
   onCancel?: (reservationId: string) => void;
   onBack: () => void;
+  // Reservations are loaded page by page, most recent first
+  hasMore?: boolean;
+  loadingMore?: boolean;
+  onLoadMore?: () => void;
 };
 
-export function AdminValidate({ reservations, onApprove, onReject, onCancel, onBack }: AdminValidateProps) {
+export function AdminValidate({ reservations, onApprove, onReject, onCancel, onBack, hasMore, loadingMore, onLoadMore }: AdminValidateProps) {
   // With auto-approval, only two statuses remain visible to the admin: confirmed and rejected
   const confirmedReservations = reservations.filter((r) => r.status === 'confirmed');
   const rejectedReservations = reservations.filter((r) => r.status === 'cancelled');
@@ -294,6 +298,13 @@ export function AdminValidate({ reservations, onApprove, onReject, onCancel, onB
               </TableBody>
             </Table>
           </div>
+          {hasMore && onLoadMore && (
+            <div className="flex justify-center mt-4">
+              <Button variant="outline" onClick={onLoadMore} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </Button>
+            </div>
+          )}
         </CardContent>
       </Card>
     </div>
@@ -2,14 +2,34 @@ const BASE_URL = (typeof import.meta !== 'undefined' && (import.meta as any).env
   (globalThis as any).VITE_API_BASE_URL ||
   'http://localhost:8082';
 
+const TOKEN_KEY = 'sessionToken';
+
+// Bearer token issued by /api/auth/login; sent with every request once set
+export function getSessionToken(): string | null {
+  try {
+    return localStorage.getItem(TOKEN_KEY);
+  } catch {
+    return null;
+  }
+}
+
+export function setSessionToken(token: string | null) {
+  try {
+    if (token) localStorage.setItem(TOKEN_KEY, token);
+    else localStorage.removeItem(TOKEN_KEY);
+  } catch {}
+}
+
 export async function apiRequest<T>(path: string, options: RequestInit = {}): Promise<T> {
   const url = `${BASE_URL}${path}`;
+  const token = getSessionToken();
   const resp = await fetch(url, {
+    ...options,
     headers: {
       'Content-Type': 'application/json',
+      ...(token ? { Authorization: `Bearer ${token}` } : {}),
       ...(options.headers || {}),
     },
-    ...options,
   });
   const contentType = resp.headers.get('content-type') || '';
   const isJson = contentType.includes('application/json');